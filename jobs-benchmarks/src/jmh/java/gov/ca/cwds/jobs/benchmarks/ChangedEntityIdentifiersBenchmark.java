@@ -0,0 +1,66 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifiers;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Collecting identifiers of a batch: add, then compact and stream in {@link
+ * ChangedEntityIdentifiers#newStream()}. Every id is changed twice on average, so compaction has
+ * work to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChangedEntityIdentifiersBenchmark {
+
+  private static final long SEED = 20180316L;
+
+  private static final RecordChangeOperation[] OPERATIONS = {RecordChangeOperation.I,
+      RecordChangeOperation.U, RecordChangeOperation.D};
+
+  @Param({"100", "10000"})
+  private int identifiersCount;
+
+  private List<ChangedEntityIdentifier> identifiers;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    LocalDateTime timestamp = LocalDateTime.of(2018, 3, 16, 0, 0);
+    identifiers = new ArrayList<>(identifiersCount);
+    for (int i = 0; i < identifiersCount; i++) {
+      identifiers.add(new ChangedEntityIdentifier(
+          String.valueOf(random.nextInt(identifiersCount / 2)),
+          OPERATIONS[random.nextInt(OPERATIONS.length)],
+          timestamp.plusSeconds(i)));
+    }
+  }
+
+  @Benchmark
+  public ChangedEntityIdentifiers add() {
+    ChangedEntityIdentifiers changedEntityIdentifiers = new ChangedEntityIdentifiers();
+    identifiers.forEach(changedEntityIdentifiers::add);
+    return changedEntityIdentifiers;
+  }
+
+  @Benchmark
+  public void addAndStream(Blackhole blackhole) {
+    add().newStream().forEach(blackhole::consume);
+  }
+
+}
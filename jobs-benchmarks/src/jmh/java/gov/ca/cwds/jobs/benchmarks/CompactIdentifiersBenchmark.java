@@ -0,0 +1,79 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.CompactIdentifiers;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Keeping a savepoint cluster of identifiers as read from the database: every identifier with its
+ * own id string and timestamp, or in {@link CompactIdentifiers}. The gc profiler reports
+ * gc.alloc.rate.norm of copying, which for the compact copy is all the heap it keeps. The heap
+ * kept by both representations per identifier is printed by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompactIdentifiersBenchmark {
+
+  @Param({"1000000"})
+  private int identifiersCount;
+
+  private List<ChangedEntityIdentifier> identifiers;
+
+  @Setup
+  public void setUp() {
+    long heapBefore = usedHeap();
+    identifiers = createIdentifiers(identifiersCount);
+    long objectsHeap = usedHeap() - heapBefore;
+    heapBefore = usedHeap();
+    CompactIdentifiers compactIdentifiers = copyToCompactIdentifiers();
+    long compactHeap = usedHeap() - heapBefore;
+    System.out.printf("%nHeap per identifier: %d bytes as objects, %d bytes compact (%d)%n",
+        objectsHeap / identifiersCount, compactHeap / identifiersCount,
+        compactIdentifiers.size());
+  }
+
+  @Benchmark
+  public List<ChangedEntityIdentifier> copyToArrayList() {
+    return new ArrayList<>(identifiers);
+  }
+
+  @Benchmark
+  public CompactIdentifiers copyToCompactIdentifiers() {
+    return CompactIdentifiers.copyOf(identifiers);
+  }
+
+  /**
+   * Identifiers of CWS/CMS length with distinct microsecond timestamps.
+   */
+  private static List<ChangedEntityIdentifier> createIdentifiers(int count) {
+    LocalDateTime timestamp = LocalDateTime.of(2018, 3, 16, 0, 0);
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      identifiers.add(new ChangedEntityIdentifier(String.format("%010d", i),
+          RecordChangeOperation.U, timestamp.plusNanos(i * 1000L)));
+    }
+    return identifiers;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
@@ -0,0 +1,72 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import gov.ca.cwds.jobs.common.elastic.ElasticSearchBulkCollector;
+import gov.ca.cwds.jobs.common.inject.ElasticSearchBulkSize;
+import gov.ca.cwds.jobs.common.job.BulkWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Adding entities to the collector by one reader thread and by as many reader threads as the jobs
+ * usually run. The writer only counts entities, so contention on the collector is what is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ElasticSearchBulkCollectorBenchmark {
+
+  @Param({"100"})
+  private int bulkSize;
+
+  private final LongAdder writtenCount = new LongAdder();
+
+  private ElasticSearchBulkCollector<Object> collector;
+
+  private final Object entity = new Object();
+
+  @Setup
+  public void setUp() {
+    collector = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bindConstant().annotatedWith(ElasticSearchBulkSize.class).to(bulkSize);
+        bind(new TypeLiteral<BulkWriter<Object>>() {
+        }).toInstance(items -> writtenCount.add(items.size()));
+      }
+    }).getInstance(Key.get(new TypeLiteral<ElasticSearchBulkCollector<Object>>() {
+    }));
+  }
+
+  @TearDown
+  public void tearDown() {
+    collector.flush();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void addEntity() {
+    collector.addEntity(entity);
+  }
+
+  @Benchmark
+  @Threads(10)
+  public void addEntityContended() {
+    collector.addEntity(entity);
+  }
+
+}
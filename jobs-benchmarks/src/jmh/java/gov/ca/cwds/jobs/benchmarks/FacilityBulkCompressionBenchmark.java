@@ -0,0 +1,113 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.ca.cwds.cals.service.dto.FacilityDTO;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer.SerializedDocument;
+import gov.ca.cwds.jobs.common.elastic.ElasticUtils;
+import io.dropwizard.jackson.Jackson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.transport.client.PreBuiltTransportClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Preparing and writing a bulk of facility documents the way it is sent over the transport
+ * protocol: plain, with transport compression and with compressed sources. The time is the CPU
+ * cost of the client, the number of bytes on the wire per bulk is printed by the setup.
+ *
+ * <p>The bulk repeats the same fixture, so transport compression, which sees the whole bulk,
+ * shrinks it far more than it would shrink real distinct facilities. Compressed sources are
+ * compressed one by one and are not affected.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FacilityBulkCompressionBenchmark {
+
+  private static final String FIXTURE = "/fixtures/facility.json";
+
+  private static final int BULK_ACTIONS = 100;
+
+  public enum Compression {
+    NONE, TRANSPORT, SOURCE
+  }
+
+  @Param({"NONE", "TRANSPORT", "SOURCE"})
+  private Compression compression;
+
+  private FacilityDTO facilityDTO;
+
+  private Client client;
+
+  private ElasticSearchIndexerDao elasticsearchDao;
+
+  private DocumentSerializer documentSerializer;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (InputStream fixture = getClass().getResourceAsStream(FIXTURE)) {
+      JsonNode document = Jackson.newObjectMapper().readTree(fixture);
+      facilityDTO = Jackson.newObjectMapper().treeToValue(document.get("dto"), FacilityDTO.class);
+    }
+    client = new PreBuiltTransportClient(Settings.EMPTY);
+    elasticsearchDao = new ElasticSearchIndexerDao(client, new BenchmarkConfiguration());
+    documentSerializer = new DocumentSerializer(new ObjectMapper());
+    System.out.printf("%n%s: %d bytes on the wire per bulk of %d facilities%n",
+        compression, writeBulk(), BULK_ACTIONS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+  }
+
+  @Benchmark
+  public int writeBulk() throws IOException {
+    BulkRequest bulkRequest = new BulkRequest();
+    for (int i = 0; i < BULK_ACTIONS; i++) {
+      SerializedDocument source = documentSerializer.serialize(facilityDTO);
+      bulkRequest.add(elasticsearchDao.bulkAdd(String.valueOf(i), compression == Compression.SOURCE
+          ? ElasticUtils.compressSource(source.getBuffer(), source.size())
+          : source.toByteArray()));
+    }
+    BytesStreamOutput wire = new BytesStreamOutput();
+    try (StreamOutput output = compression == Compression.TRANSPORT
+        ? CompressorFactory.COMPRESSOR.streamOutput(wire) : wire) {
+      bulkRequest.writeTo(output);
+    }
+    return wire.size();
+  }
+
+  private static final class BenchmarkConfiguration extends BaseJobConfiguration {
+
+    @Override
+    public String getElasticsearchAlias() {
+      return "facilities";
+    }
+
+    @Override
+    public String getElasticsearchDocType() {
+      return "facility";
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.ca.cwds.cals.service.dto.FacilityDTO;
+import gov.ca.cwds.jobs.cals.facility.ChangedFacilityDTO;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer.SerializedDocument;
+import io.dropwizard.jackson.Jackson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.transport.client.PreBuiltTransportClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Serialization of a facility document the way ElasticWriter does it. The client is not connected
+ * to any node, index requests are only built. Allocation per document is reported by the gc
+ * profiler as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FacilitySerializationBenchmark {
+
+  private static final String FIXTURE = "/fixtures/facility.json";
+
+  /**
+   * Same as injected into FacilityElasticWriter.
+   */
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ChangedFacilityDTO changedFacilityDTO;
+
+  private Client client;
+
+  private ElasticSearchIndexerDao elasticsearchDao;
+
+  private DocumentSerializer documentSerializer;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (InputStream fixture = getClass().getResourceAsStream(FIXTURE)) {
+      JsonNode document = Jackson.newObjectMapper().readTree(fixture);
+      changedFacilityDTO = new ChangedFacilityDTO(
+          Jackson.newObjectMapper().treeToValue(document.get("dto"), FacilityDTO.class),
+          RecordChangeOperation.U);
+    }
+    client = new PreBuiltTransportClient(Settings.EMPTY);
+    elasticsearchDao = new ElasticSearchIndexerDao(client, new BenchmarkConfiguration());
+    documentSerializer = new DocumentSerializer(objectMapper);
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+  }
+
+  @Benchmark
+  public byte[] writeValueAsBytes() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(changedFacilityDTO.getDTO());
+  }
+
+  @Benchmark
+  public IndexRequest bulkAdd() throws JsonProcessingException {
+    return elasticsearchDao
+        .bulkAdd(objectMapper, changedFacilityDTO.getId(), changedFacilityDTO.getDTO());
+  }
+
+  @Benchmark
+  public SerializedDocument serialize() throws JsonProcessingException {
+    return documentSerializer.serialize(changedFacilityDTO.getDTO());
+  }
+
+  @Benchmark
+  public IndexRequest bulkAddSerialized() throws JsonProcessingException {
+    return elasticsearchDao.bulkAdd(changedFacilityDTO.getId(),
+        documentSerializer.serialize(changedFacilityDTO.getDTO()).toByteArray());
+  }
+
+  private static final class BenchmarkConfiguration extends BaseJobConfiguration {
+
+    @Override
+    public String getElasticsearchAlias() {
+      return "facilities";
+    }
+
+    @Override
+    public String getElasticsearchDocType() {
+      return "facility";
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+package gov.ca.cwds.jobs.benchmarks;
+
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
+import gov.ca.cwds.jobs.common.batch.JobBatch;
+import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
+import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Walks all portions of an initial load. Identifiers are served from memory, so the result is the
+ * cost of portion calculation and the number of pages it requests, not of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JobBatchIteratorBenchmark {
+
+  private static final int IDENTIFIERS_COUNT = 10000;
+
+  private static final int BATCH_SIZE = 100;
+
+  /**
+   * Number of identifiers sharing the same timestamp, clusters bigger than the batch size make
+   * portions of several batches.
+   */
+  @Param({"1", "250"})
+  private int clusterSize;
+
+  @Param({"false", "true"})
+  private boolean keysetPagination;
+
+  private ChangedEntitiesIdentifiersService identifiersService;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime timestamp = LocalDateTime.of(2018, 3, 29, 0, 0);
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>(IDENTIFIERS_COUNT);
+    for (int i = 0; i < IDENTIFIERS_COUNT; i++) {
+      identifiers.add(new ChangedEntityIdentifier(String.format("%010d", i),
+          RecordChangeOperation.I, timestamp.plusSeconds(i / clusterSize)));
+    }
+    identifiersService = new InMemoryIdentifiersService(identifiers);
+  }
+
+  @Benchmark
+  public int getAllPortions() {
+    JobBatchIteratorImpl iterator = new JobBatchIteratorImpl();
+    iterator.setBatchSize(BATCH_SIZE);
+    iterator.setKeysetPagination(keysetPagination);
+    iterator.setChangedEntitiesIdentifiersService(identifiersService);
+    iterator.setJobMode(JobMode.INITIAL_LOAD);
+    int batchesCount = 0;
+    List<JobBatch> portion = iterator.getNextPortion();
+    while (!portion.isEmpty()) {
+      batchesCount += portion.size();
+      portion = iterator.getNextPortion();
+    }
+    return batchesCount;
+  }
+
+  /**
+   * Identifiers ordered by timestamp and identifier, the same way identifiers queries order them.
+   */
+  private static final class InMemoryIdentifiersService implements
+      ChangedEntitiesIdentifiersService {
+
+    private static final Comparator<ChangedEntityIdentifier> ORDER = Comparator
+        .comparing(ChangedEntityIdentifier::getTimestamp)
+        .thenComparing(ChangedEntityIdentifier::getId);
+
+    private final List<ChangedEntityIdentifier> identifiers;
+
+    private InMemoryIdentifiersService(List<ChangedEntityIdentifier> identifiers) {
+      this.identifiers = identifiers;
+    }
+
+    @Override
+    public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(PageRequest pageRequest) {
+      return getPage(pageRequest);
+    }
+
+    @Override
+    public List<ChangedEntityIdentifier> getIdentifiersForResumingInitialLoad(
+        LocalDateTime timestamp, PageRequest pageRequest) {
+      return getPage(pageRequest);
+    }
+
+    @Override
+    public List<ChangedEntityIdentifier> getIdentifiersForIncrementalLoad(LocalDateTime timestamp,
+        PageRequest pageRequest) {
+      return getPage(pageRequest);
+    }
+
+    private List<ChangedEntityIdentifier> getPage(PageRequest pageRequest) {
+      int from = pageRequest.isKeysetPage() ? seek(pageRequest) : pageRequest.getOffset();
+      int to = Math.min(from + pageRequest.getLimit(), identifiers.size());
+      return from < to ? new ArrayList<>(identifiers.subList(from, to))
+          : Collections.emptyList();
+    }
+
+    private int seek(PageRequest pageRequest) {
+      int index = Collections.binarySearch(identifiers,
+          new ChangedEntityIdentifier(pageRequest.getLastIdentifier(), null,
+              pageRequest.getLastTimestamp()), ORDER);
+      return index >= 0 ? index + 1 : -index - 1;
+    }
+  }
+
+}
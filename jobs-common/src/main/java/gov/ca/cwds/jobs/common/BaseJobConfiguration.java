@@ -26,6 +26,17 @@ public class BaseJobConfiguration extends ElasticsearchConfiguration {
   private int batchSize;
   private int elasticSearchBulkSize;
   private int readerThreadsCount;
+  private boolean keysetPagination;
+  private boolean streamingIdentifiers;
+  private int pipelineQueueSize;
+  private int initialLoadPartitions;
+  private boolean jobStateDatabase;
+  private int failureBudget;
+  private boolean skipUnchangedDocuments;
+  private boolean acceleratedSerialization;
+  private int metricsReportInterval;
+  private int progressReportInterval;
+  private String metricsReportFile;
 
   public String getDocumentMapping() {
     return documentMapping;
@@ -105,4 +116,134 @@ public class BaseJobConfiguration extends ElasticsearchConfiguration {
   public void setReaderThreadsCount(int readerThreadsCount) {
     this.readerThreadsCount = readerThreadsCount;
   }
+
+  /**
+   * @return number of connections a data source pool must hold to serve at once the reader
+   * threads, every initial load partition worker or the thread fetching identifiers, the
+   * identifiers cursor and the queries counting entities
+   */
+  public int getConnectionPoolSize() {
+    return readerThreadsCount + Math.max(initialLoadPartitions, 1)
+        + (streamingIdentifiers ? 1 : 0) + 1;
+  }
+
+  public boolean isKeysetPagination() {
+    return keysetPagination;
+  }
+
+  public void setKeysetPagination(boolean keysetPagination) {
+    this.keysetPagination = keysetPagination;
+  }
+
+  /**
+   * @return true if identifiers of a load are read through one database cursor kept open for the
+   * whole scan, when the job provides it, instead of querying every page
+   */
+  public boolean isStreamingIdentifiers() {
+    return streamingIdentifiers;
+  }
+
+  public void setStreamingIdentifiers(boolean streamingIdentifiers) {
+    this.streamingIdentifiers = streamingIdentifiers;
+  }
+
+  public int getPipelineQueueSize() {
+    return pipelineQueueSize;
+  }
+
+  public void setPipelineQueueSize(int pipelineQueueSize) {
+    this.pipelineQueueSize = pipelineQueueSize;
+  }
+
+  /**
+   * @return number of identifier ranges the initial load is split into and processed in parallel,
+   * initial load is not partitioned if less than 2
+   */
+  public int getInitialLoadPartitions() {
+    return initialLoadPartitions;
+  }
+
+  public void setInitialLoadPartitions(int initialLoadPartitions) {
+    this.initialLoadPartitions = initialLoadPartitions;
+  }
+
+  /**
+   * @return true if the job timestamp, history of runs and failed batches are kept in the embedded
+   * database in the last run directory instead of the timestamp file
+   */
+  public boolean isJobStateDatabase() {
+    return jobStateDatabase;
+  }
+
+  public void setJobStateDatabase(boolean jobStateDatabase) {
+    this.jobStateDatabase = jobStateDatabase;
+  }
+
+  /**
+   * @return number of entities which can fail to load during a job run before the job is stopped,
+   * failed entities are kept as dead letters to be replayed. The job stops on the first failure if
+   * not positive
+   */
+  public int getFailureBudget() {
+    return failureBudget;
+  }
+
+  public void setFailureBudget(int failureBudget) {
+    this.failureBudget = failureBudget;
+  }
+
+  /**
+   * @return true if the incremental load does not write documents whose source has not changed
+   * since they were indexed, hashes of indexed documents are kept in the last run directory
+   */
+  public boolean isSkipUnchangedDocuments() {
+    return skipUnchangedDocuments;
+  }
+
+  public void setSkipUnchangedDocuments(boolean skipUnchangedDocuments) {
+    this.skipUnchangedDocuments = skipUnchangedDocuments;
+  }
+
+  /**
+   * @return true if documents are serialized with bytecode generated property accessors instead of
+   * reflection
+   */
+  public boolean isAcceleratedSerialization() {
+    return acceleratedSerialization;
+  }
+
+  public void setAcceleratedSerialization(boolean acceleratedSerialization) {
+    this.acceleratedSerialization = acceleratedSerialization;
+  }
+
+  /**
+   * @return interval of logging job metrics in seconds, metrics are logged only at the end of the
+   * job if not positive
+   */
+  public int getMetricsReportInterval() {
+    return metricsReportInterval;
+  }
+
+  public void setMetricsReportInterval(int metricsReportInterval) {
+    this.metricsReportInterval = metricsReportInterval;
+  }
+
+  public int getProgressReportInterval() {
+    return progressReportInterval;
+  }
+
+  public void setProgressReportInterval(int progressReportInterval) {
+    this.progressReportInterval = progressReportInterval;
+  }
+
+  /**
+   * @return file the metrics are appended to at the end of the job, optional
+   */
+  public String getMetricsReportFile() {
+    return metricsReportFile;
+  }
+
+  public void setMetricsReportFile(String metricsReportFile) {
+    this.metricsReportFile = metricsReportFile;
+  }
 }
@@ -5,6 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
 import org.elasticsearch.action.delete.DeleteRequest;
@@ -12,6 +17,8 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +45,11 @@ public class ElasticSearchIndexerDao implements Closeable {
    */
   private BaseJobConfiguration config;
 
+  /**
+   * Index the documents are written to, the alias is used if not set
+   */
+  private String indexName;
+
   /**
    * Constructor.
    *
@@ -57,20 +69,34 @@ public class ElasticSearchIndexerDao implements Closeable {
    * @return whether the index exists
    */
   private boolean doesIndexExist(final String index) {
-    final IndexMetaData indexMetaData = client.admin().cluster()
-        .state(Requests.clusterStateRequest()).actionGet().getState().getMetaData().index(index);
-    return indexMetaData != null;
+    final MetaData metaData = getMetaData();
+    final IndexMetaData indexMetaData = metaData.index(index);
+    return indexMetaData != null || metaData.hasAlias(index);
+  }
+
+  private MetaData getMetaData() {
+    return client.admin().cluster()
+        .state(Requests.clusterStateRequest()).actionGet().getState().getMetaData();
   }
 
   /**
    * Create an index before blasting documents into it.
    */
   private void createIndex() {
+    createIndex(config.getElasticsearchAlias());
+  }
+
+  /**
+   * Create an index with settings and mapping from the configuration.
+   *
+   * @param index index name
+   */
+  public void createIndex(final String index) {
     LOGGER.warn("CREATING ES INDEX [{}] for type [{}]",
-        config.getElasticsearchAlias(), config.getElasticsearchDocType());
+        index, config.getElasticsearchDocType());
 
     CreateIndexRequestBuilder createIndexRequestBuilder =
-        getClient().admin().indices().prepareCreate(config.getElasticsearchAlias());
+        getClient().admin().indices().prepareCreate(index);
 
     createIndexRequestBuilder
         .setSettings(config.getIndexSettings(), XContentType.JSON);
@@ -105,6 +131,89 @@ public class ElasticSearchIndexerDao implements Closeable {
     }
   }
 
+  /**
+   * Update dynamic settings of the index.
+   *
+   * @param settings index settings, e.g. index.refresh_interval
+   */
+  public void updateIndexSettings(Settings settings) {
+    final String index = getIndexName();
+    LOGGER.info("Updating settings of ES index {}: {}", index, settings.getAsMap());
+    client.admin().indices().prepareUpdateSettings(index).setSettings(settings).get();
+  }
+
+  /**
+   * Make all operations performed on the index since the last refresh available for search.
+   */
+  public void refreshIndex() {
+    client.admin().indices().prepareRefresh(getIndexName()).get();
+  }
+
+  /**
+   * @param index index name or alias
+   * @return number of searchable documents in the index
+   */
+  public long countDocuments(final String index) {
+    return client.prepareSearch(index).setSize(0).get().getHits().getTotalHits();
+  }
+
+  /**
+   * @param pattern index name pattern, e.g. facilities_*
+   * @return names of the indices matching the pattern
+   */
+  public List<String> getIndices(final String pattern) {
+    return Arrays.asList(
+        client.admin().indices().prepareGetIndex().setIndices(pattern).get().getIndices());
+  }
+
+  /**
+   * @return names of the indices the alias points to
+   */
+  public List<String> getAliasIndices() {
+    final List<String> indices = new ArrayList<>();
+    client.admin().indices().prepareGetAliases(config.getElasticsearchAlias()).get()
+        .getAliases().keysIt().forEachRemaining(indices::add);
+    return indices;
+  }
+
+  /**
+   * Atomically point the alias to the index instead of the indices it points to now. If there is
+   * a concrete index with the alias name, it is deleted in the same request.
+   *
+   * @param index new index of the alias
+   * @return indices the alias pointed to before
+   */
+  public List<String> switchAlias(final String index) {
+    final String alias = config.getElasticsearchAlias();
+    final IndicesAliasesRequestBuilder request = client.admin().indices().prepareAliases()
+        .addAliasAction(AliasActions.add().index(index).alias(alias));
+    final List<String> oldIndices = new ArrayList<>();
+    if (getMetaData().hasConcreteIndex(alias)) {
+      LOGGER.warn("ES INDEX {} WILL BE REPLACED BY ALIAS", alias);
+      request.addAliasAction(AliasActions.removeIndex().index(alias));
+    } else {
+      for (String oldIndex : getAliasIndices()) {
+        if (!oldIndex.equals(index)) {
+          request.addAliasAction(AliasActions.remove().index(oldIndex).alias(alias));
+          oldIndices.add(oldIndex);
+        }
+      }
+    }
+    LOGGER.info("Switching alias {} to index {}", alias, index);
+    request.get();
+    return oldIndices;
+  }
+
+  /**
+   * @param indices indices to delete
+   */
+  public void deleteIndices(final List<String> indices) {
+    if (!indices.isEmpty()) {
+      LOGGER.warn("DELETING ES INDICES {}", indices);
+      client.admin().indices().prepareDelete(indices.toArray(new String[indices.size()])).get();
+    }
+  }
+
   /**
    * Prepare an index request for bulk operations.
    *
@@ -116,9 +225,20 @@ public class ElasticSearchIndexerDao implements Closeable {
    */
   public IndexRequest bulkAdd(final ObjectMapper mapper, final String id, final Object obj)
       throws JsonProcessingException {
-    return client.prepareIndex(config.getElasticsearchAlias(),
+    return bulkAdd(id, mapper.writeValueAsBytes(obj));
+  }
+
+  /**
+   * Prepare an index request for bulk operations.
+   *
+   * @param id ES document id
+   * @param source serialized JSON document
+   * @return prepared IndexRequest
+   */
+  public IndexRequest bulkAdd(final String id, final byte[] source) {
+    return client.prepareIndex(getIndexName(),
         config.getElasticsearchDocType(), id)
-        .setSource(mapper.writeValueAsBytes(obj), XContentType.JSON).request();
+        .setSource(source, XContentType.JSON).request();
   }
 
   /**
@@ -128,7 +248,7 @@ public class ElasticSearchIndexerDao implements Closeable {
    * @return prepared DeleteRequest
    */
   public DeleteRequest bulkDelete(final String id) {
-    return client.prepareDelete(config.getElasticsearchAlias(),
+    return client.prepareDelete(getIndexName(),
         config.getElasticsearchDocType(), id).request();
   }
 
@@ -158,4 +278,25 @@ public class ElasticSearchIndexerDao implements Closeable {
   public Client getClient() {
     return client;
   }
+
+  /**
+   * @return the configuration
+   */
+  public BaseJobConfiguration getConfig() {
+    return config;
+  }
+
+  /**
+   * @return the index documents are written to
+   */
+  public String getIndexName() {
+    return indexName != null ? indexName : config.getElasticsearchAlias();
+  }
+
+  /**
+   * @param indexName the index documents are written to instead of the alias
+   */
+  public void setIndexName(String indexName) {
+    this.indexName = indexName;
+  }
 }
@@ -6,5 +6,6 @@ package gov.ca.cwds.jobs.common;
 public enum JobMode {
   INITIAL_LOAD,
   INITIAL_LOAD_RESUME,
-  INCREMENTAL_LOAD
+  INCREMENTAL_LOAD,
+  DEAD_LETTERS_REPLAY
 }
@@ -0,0 +1,32 @@
+package gov.ca.cwds.jobs.common.api;
+
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import java.util.List;
+
+/**
+ * Optional service splitting the initial load into identifier ranges which are processed in
+ * parallel. Identifiers must be compared the same way by both methods, i.e. by the database.
+ */
+public interface PartitionedIdentifiersService {
+
+  /**
+   * Calculates identifiers splitting the initial load into ranges of similar size.
+   *
+   * @param partitionsCount desired number of ranges
+   * @return ascending distinct identifiers, each one is the inclusive upper bound of a range, up to
+   * partitionsCount - 1 items
+   */
+  List<String> getPartitionBoundaries(int partitionsCount);
+
+  /**
+   * Returns the next page of the initial load identifiers of the partition.
+   *
+   * @param partition identifier range, the page starts right after its start identifier
+   * @param limit page size
+   * @return identifiers ordered by identifier, empty if the partition is exhausted
+   */
+  List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(InitialLoadPartition partition,
+      int limit);
+
+}
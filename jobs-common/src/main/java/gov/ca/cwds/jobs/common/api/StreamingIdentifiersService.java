@@ -0,0 +1,37 @@
+package gov.ca.cwds.jobs.common.api;
+
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import java.time.LocalDateTime;
+
+/**
+ * Optional service reading identifiers of a whole load through one database cursor, which stays
+ * open for the whole scan instead of issuing a query for every page. Identifiers must come in the
+ * same order as pages of {@link ChangedEntitiesIdentifiersService} do.
+ */
+public interface StreamingIdentifiersService {
+
+  /**
+   * Opens a cursor over target entities' identifiers for initial load.
+   *
+   * @param fetchSize number of rows fetched from the database at once
+   */
+  IdentifiersCursor openInitialLoadCursor(int fetchSize);
+
+  /**
+   * Opens a cursor over target entities' identifiers for resuming initial load.
+   *
+   * @param startAfter identifier the cursor starts right after, null to start from the timestamp
+   */
+  IdentifiersCursor openResumingInitialLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize);
+
+  /**
+   * Opens a cursor over target entities' identifiers for incremental load.
+   *
+   * @param startAfter identifier the cursor starts right after, null to start from the timestamp
+   */
+  IdentifiersCursor openIncrementalLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize);
+
+}
@@ -0,0 +1,73 @@
+package gov.ca.cwds.jobs.common.batch;
+
+/**
+ * Identifier range of the partitioned initial load together with its savepoint. The range is
+ * (from, to]: the lower bound is exclusive, the upper bound is inclusive, a missing bound means the
+ * range is not limited from that side.
+ */
+public class InitialLoadPartition {
+
+  private int number;
+  private String from;
+  private String to;
+
+  /**
+   * Savepoint: the greatest identifier of the partition written to Elasticsearch.
+   */
+  private String lastIdentifier;
+
+  private boolean completed;
+
+  public InitialLoadPartition(int number, String from, String to) {
+    this.number = number;
+    this.from = from;
+    this.to = to;
+  }
+
+  public int getNumber() {
+    return number;
+  }
+
+  public String getFrom() {
+    return from;
+  }
+
+  public String getTo() {
+    return to;
+  }
+
+  public String getLastIdentifier() {
+    return lastIdentifier;
+  }
+
+  public void setLastIdentifier(String lastIdentifier) {
+    this.lastIdentifier = lastIdentifier;
+  }
+
+  /**
+   * @return identifier the next page of the partition starts after, null if the partition starts
+   * with the very first identifier
+   */
+  public String getStartAfter() {
+    return lastIdentifier != null ? lastIdentifier : from;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public void setCompleted(boolean completed) {
+    this.completed = completed;
+  }
+
+  @Override
+  public String toString() {
+    return "InitialLoadPartition{" +
+        "number=" + number +
+        ", from=" + from +
+        ", to=" + to +
+        ", lastIdentifier=" + lastIdentifier +
+        ", completed=" + completed +
+        '}';
+  }
+}
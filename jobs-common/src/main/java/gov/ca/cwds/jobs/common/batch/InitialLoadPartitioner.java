@@ -0,0 +1,120 @@
+package gov.ca.cwds.jobs.common.batch;
+
+import com.codahale.metrics.Timer;
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.inject.InitialLoadPartitions;
+import gov.ca.cwds.jobs.common.inject.JobBatchSize;
+import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits the initial load into identifier ranges processed in parallel and keeps their savepoints.
+ * Partitions are recorded before the load starts, so a resumed load keeps the same ranges even if
+ * the data has been changed meanwhile.
+ */
+public class InitialLoadPartitioner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InitialLoadPartitioner.class);
+
+  @Inject(optional = true)
+  private PartitionedIdentifiersService partitionedIdentifiersService;
+
+  @Inject
+  private TimestampOperator timestampOperator;
+
+  @Inject
+  @InitialLoadPartitions
+  private int partitionsCount;
+
+  @Inject
+  @JobBatchSize
+  private int batchSize;
+
+  private List<InitialLoadPartition> partitions = Collections.emptyList();
+
+  private boolean resumed;
+
+  public void init(JobMode jobMode) {
+    if (partitionedIdentifiersService == null || jobMode != JobMode.INITIAL_LOAD) {
+      return;
+    }
+    partitions = timestampOperator.readPartitions();
+    if (!partitions.isEmpty()) {
+      resumed = true;
+      LOGGER.info("Resuming partitioned initial load: {}", partitions);
+    } else if (partitionsCount > 1) {
+      partitions = createPartitions();
+      partitions.forEach(timestampOperator::writePartition);
+      LOGGER.info("Processing partitioned initial load: {}", partitions);
+    }
+  }
+
+  private List<InitialLoadPartition> createPartitions() {
+    List<InitialLoadPartition> newPartitions = new ArrayList<>();
+    String from = null;
+    for (String boundary : partitionedIdentifiersService.getPartitionBoundaries(partitionsCount)) {
+      newPartitions.add(new InitialLoadPartition(newPartitions.size() + 1, from, boundary));
+      from = boundary;
+    }
+    newPartitions.add(new InitialLoadPartition(newPartitions.size() + 1, from, null));
+    return newPartitions;
+  }
+
+  /**
+   * @return true if the initial load is processed by partitions instead of the batch iterator
+   */
+  public boolean isPartitioned() {
+    return !partitions.isEmpty();
+  }
+
+  /**
+   * @return true if partitions with savepoints have been left by a previous job run
+   */
+  public boolean isResumed() {
+    return resumed;
+  }
+
+  public List<InitialLoadPartition> getPartitions() {
+    return partitions;
+  }
+
+  public List<ChangedEntityIdentifier> getNextPage(InitialLoadPartition partition) {
+    try (Timer.Context ignored = JobMetrics.timer(JobMetrics.IDENTIFIERS_PAGE_FETCH).time()) {
+      List<ChangedEntityIdentifier> page = partitionedIdentifiersService
+          .getIdentifiersForInitialLoad(partition, batchSize);
+      JobMetrics.histogram(JobMetrics.IDENTIFIERS_PAGE_SIZE).update(page.size());
+      return page;
+    }
+  }
+
+  /**
+   * Moves the partition savepoint to the end of the page. Must be called only after all entities
+   * of the page have been written.
+   */
+  public void commitPage(InitialLoadPartition partition, List<ChangedEntityIdentifier> page) {
+    partition.setLastIdentifier(page.get(page.size() - 1).getId());
+    timestampOperator.writePartition(partition);
+  }
+
+  public void completePartition(InitialLoadPartition partition) {
+    partition.setCompleted(true);
+    timestampOperator.writePartition(partition);
+  }
+
+  /**
+   * Drops partitions savepoints once all partitions have been written, the job timestamp is
+   * recorded by the job afterwards.
+   */
+  public void complete() {
+    timestampOperator.deletePartitions();
+    LOGGER.info("Partitioned initial load has been finished");
+  }
+}
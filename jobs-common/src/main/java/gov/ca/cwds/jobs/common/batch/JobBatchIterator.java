@@ -1,5 +1,6 @@
 package gov.ca.cwds.jobs.common.batch;
 
+import gov.ca.cwds.jobs.common.JobMode;
 import java.util.List;
 
 /**
@@ -17,4 +18,17 @@ public interface JobBatchIterator {
 
   List<JobBatch> getNextPortion();
 
+  /**
+   * @return job mode defined by {@link #init()}
+   */
+  default JobMode getJobMode() {
+    return JobMode.INCREMENTAL_LOAD;
+  }
+
+  /**
+   * Releases resources held for reading identifiers.
+   */
+  default void destroy() {
+  }
+
 }
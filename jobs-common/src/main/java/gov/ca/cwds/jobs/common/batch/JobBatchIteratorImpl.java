@@ -1,17 +1,28 @@
 package gov.ca.cwds.jobs.common.batch;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import gov.ca.cwds.jobs.common.Constants;
 import gov.ca.cwds.jobs.common.JobMode;
 import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
 import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.CompactIdentifiers;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
 import gov.ca.cwds.jobs.common.inject.JobBatchSize;
+import gov.ca.cwds.jobs.common.inject.KeysetPagination;
+import gov.ca.cwds.jobs.common.inject.StreamingIdentifiers;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
 import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,13 +44,69 @@ public class JobBatchIteratorImpl implements JobBatchIterator {
   @Inject
   private TimestampOperator timestampOperator;
 
+  @Inject
+  @KeysetPagination
+  private boolean keysetPagination;
+
+  @Inject(optional = true)
+  private JobStateStore jobStateStore;
+
+  @Inject
+  @StreamingIdentifiers
+  private boolean streamingIdentifiers;
+
+  @Inject(optional = true)
+  private StreamingIdentifiersService streamingIdentifiersService;
+
+  /**
+   * Opened by the first page when identifiers are streamed, every next page continues it.
+   */
+  private IdentifiersCursor identifiersCursor;
+
+  /**
+   * Streamed identifiers fetched with the savepoint cluster but not put into its batches. They
+   * cannot be read again from the cursor, so they head the next page.
+   */
+  private final Deque<ChangedEntityIdentifier> unconsumedIdentifiers = new ArrayDeque<>();
+
   private int offset = 0;
 
+  /**
+   * Last consumed identifier, used as a seek key when keyset pagination is enabled.
+   */
+  private ChangedEntityIdentifier lastIdentifier;
+
   private JobMode jobMode;
 
+  /**
+   * Timestamp the load starts after, read once: savepoints are written while pages are fetched.
+   * Identifiers services must honour the offset or the seek key of the page request, since the
+   * timestamp does not move while the load pages through identifiers.
+   */
+  private LocalDateTime dateAfter;
+
   @Override
   public void init() {
     jobMode = defineJobMode();
+    if (jobMode != JobMode.INITIAL_LOAD) {
+      dateAfter = timestampOperator.readTimestamp();
+    }
+    if (jobMode != JobMode.INITIAL_LOAD && keysetPagination && jobStateStore != null) {
+      resumeAfterLastCommittedIdentifier();
+    }
+  }
+
+  /**
+   * The timestamp cluster of the last committed batch has been written completely, so the first
+   * page can seek right after it instead of reading the cluster again.
+   */
+  private void resumeAfterLastCommittedIdentifier() {
+    jobStateStore.readLastCommittedIdentifier()
+        .filter(identifier -> identifier.getTimestamp().equals(getDateAfter()))
+        .ifPresent(identifier -> {
+          LOGGER.info("Resuming after the last committed identifier {}", identifier.getId());
+          lastIdentifier = identifier;
+        });
   }
 
   private JobMode defineJobMode() {
@@ -72,7 +139,7 @@ public class JobBatchIteratorImpl implements JobBatchIterator {
       return Collections.emptyList();
     }
     if (timeStampsAreEmpty(identifiers)) {
-      offset += batchSize;
+      moveAfterPage(identifiers);
       return Collections.singletonList(new JobBatch(identifiers));
     } else {
       return calculateNextPortion(identifiers);
@@ -80,66 +147,178 @@ public class JobBatchIteratorImpl implements JobBatchIterator {
   }
 
   protected List<ChangedEntityIdentifier> getNextPage() {
-    return getNextPage(new PageRequest(offset, batchSize));
+    return getNextPage(createPageRequest(batchSize));
+  }
+
+  /**
+   * Keyset page seeks right after the last consumed (timestamp, identifier) pair, so its cost does
+   * not depend on how deep into the load we are. Falls back to offset paging for the first page
+   * and when timestamps are empty.
+   */
+  protected PageRequest createPageRequest(int limit) {
+    if (keysetPagination && lastIdentifier != null && lastIdentifier.getTimestamp() != null) {
+      return new PageRequest(limit, lastIdentifier.getTimestamp(), lastIdentifier.getId());
+    }
+    return new PageRequest(offset, limit);
+  }
+
+  private void moveAfterPage(List<ChangedEntityIdentifier> page) {
+    offset += batchSize;
+    moveAfterLastOf(page);
+  }
+
+  private void moveAfterIdentifiers(List<ChangedEntityIdentifier> identifiers) {
+    offset += identifiers.size();
+    moveAfterLastOf(identifiers);
+  }
+
+  /**
+   * Identifiers keep the order of the query, so the last one is the seek key. It must not be
+   * compared in Java: the database collation (EBCDIC on DB2) orders identifiers differently.
+   */
+  private void moveAfterLastOf(List<ChangedEntityIdentifier> identifiers) {
+    if (!identifiers.isEmpty()) {
+      lastIdentifier = identifiers.get(identifiers.size() - 1);
+    }
   }
 
   protected List<ChangedEntityIdentifier> getNextPage(PageRequest pageRequest) {
     LOGGER.info("{}", pageRequest);
+    try (Timer.Context ignored = JobMetrics.timer(JobMetrics.IDENTIFIERS_PAGE_FETCH).time()) {
+      List<ChangedEntityIdentifier> page = fetchPage(pageRequest);
+      JobMetrics.histogram(JobMetrics.IDENTIFIERS_PAGE_SIZE).update(page.size());
+      return page;
+    }
+  }
+
+  private List<ChangedEntityIdentifier> fetchPage(PageRequest pageRequest) {
+    if (isStreaming()) {
+      return fetchStreamedPage(pageRequest.getLimit());
+    }
     if (jobMode == JobMode.INITIAL_LOAD) {
       return changedEntitiesIdentifiersService.getIdentifiersForInitialLoad(pageRequest);
     } else if (jobMode == JobMode.INITIAL_LOAD_RESUME) {
       return changedEntitiesIdentifiersService
-          .getIdentifiersForResumingInitialLoad(timestampOperator.readTimestamp(), pageRequest);
+          .getIdentifiersForResumingInitialLoad(getDateAfter(), pageRequest);
     } else if (jobMode == JobMode.INCREMENTAL_LOAD) {
       return changedEntitiesIdentifiersService
-          .getIdentifiersForIncrementalLoad(timestampOperator.readTimestamp(), pageRequest);
+          .getIdentifiersForIncrementalLoad(getDateAfter(), pageRequest);
     }
     throw new IllegalStateException("Unexpected job mode");
   }
 
+  /**
+   * Falls back to the stored timestamp when the job mode is set without {@link #init()}.
+   */
+  private LocalDateTime getDateAfter() {
+    if (dateAfter == null) {
+      dateAfter = timestampOperator.readTimestamp();
+    }
+    return dateAfter;
+  }
+
+  private boolean isStreaming() {
+    return streamingIdentifiers && streamingIdentifiersService != null;
+  }
+
+  /**
+   * Streamed page is the next identifiers of the cursor, regardless of the offset or seek key of
+   * the page request.
+   */
+  private List<ChangedEntityIdentifier> fetchStreamedPage(int limit) {
+    if (identifiersCursor == null) {
+      identifiersCursor = openIdentifiersCursor(limit);
+    }
+    List<ChangedEntityIdentifier> page = new ArrayList<>(limit);
+    while (page.size() < limit && !unconsumedIdentifiers.isEmpty()) {
+      page.add(unconsumedIdentifiers.poll());
+    }
+    while (page.size() < limit && identifiersCursor.hasNext()) {
+      page.add(identifiersCursor.next());
+    }
+    return page;
+  }
+
+  /**
+   * The cursor fetches rows by pages of the batch size. It starts right after the last committed
+   * identifier if the load is resumed after it.
+   */
+  private IdentifiersCursor openIdentifiersCursor(int fetchSize) {
+    ChangedEntityIdentifier startAfter =
+        lastIdentifier != null && lastIdentifier.getTimestamp() != null ? lastIdentifier : null;
+    LOGGER.info("Opening identifiers cursor, fetch size {}", fetchSize);
+    if (jobMode == JobMode.INITIAL_LOAD) {
+      return streamingIdentifiersService.openInitialLoadCursor(fetchSize);
+    } else if (jobMode == JobMode.INITIAL_LOAD_RESUME) {
+      return streamingIdentifiersService.openResumingInitialLoadCursor(
+          getDateAfter(), startAfter, fetchSize);
+    } else if (jobMode == JobMode.INCREMENTAL_LOAD) {
+      return streamingIdentifiersService.openIncrementalLoadCursor(
+          getDateAfter(), startAfter, fetchSize);
+    }
+    throw new IllegalStateException("Unexpected job mode");
+  }
+
+  @Override
+  public void destroy() {
+    if (identifiersCursor != null) {
+      identifiersCursor.close();
+    }
+  }
+
   private List<JobBatch> calculateNextPortion(
       List<ChangedEntityIdentifier> identifiers) {
     // it can be several batches in portion when
     // there are many entities with equal last updated timestamps
     LocalDateTime savePoint = getLastTimestamp(identifiers);
-    List<JobBatch> batches = findBatchesPriorToBatchWithSavepoint(identifiers);
+    List<JobBatch> batches = new ArrayList<>();
+    List<ChangedEntityIdentifier> boundaryPage = findBatchesPriorToBatchWithSavepoint(identifiers,
+        batches);
     List<ChangedEntityIdentifier> lastIdentifiersWithSavepoint =
-        findLastIdentifiersPriorToSavepoint(savePoint);
+        findLastIdentifiersPriorToSavepoint(boundaryPage, savePoint);
     batches.get(batches.size() - 1).getChangedEntityIdentifiers()
         .addAll(lastIdentifiersWithSavepoint);
     batches.get(batches.size() - 1).setTimestamp(savePoint);
     return batches;
   }
 
-  private List<ChangedEntityIdentifier> findLastIdentifiersPriorToSavepoint(LocalDateTime savePoint) {
-    List<ChangedEntityIdentifier> identifiersWithSavepoint = new ArrayList<>(batchSize);
-    ChangedEntityIdentifier nextIdentifier = getNextIdentifier();
-    while (nextIdentifier != null &&
-        (nextIdentifier.getTimestamp() == savePoint)) {
-      offset++;
-      identifiersWithSavepoint.add(nextIdentifier);
-      nextIdentifier = getNextIdentifier();
+  /**
+   * Identifiers are ordered by timestamp, so the rest of the savepoint cluster is the head of the
+   * page that stopped the batches loop. It is already fetched, no additional queries are needed.
+   */
+  private List<ChangedEntityIdentifier> findLastIdentifiersPriorToSavepoint(
+      List<ChangedEntityIdentifier> boundaryPage, LocalDateTime savePoint) {
+    List<ChangedEntityIdentifier> identifiersWithSavepoint = boundaryPage.stream()
+        .filter(identifier -> savePoint.equals(identifier.getTimestamp()))
+        .collect(Collectors.toList());
+    if (!identifiersWithSavepoint.isEmpty()) {
+      moveAfterIdentifiers(identifiersWithSavepoint);
+    }
+    if (isStreaming()) {
+      boundaryPage.stream()
+          .filter(identifier -> !savePoint.equals(identifier.getTimestamp()))
+          .forEach(unconsumedIdentifiers::add);
     }
     return identifiersWithSavepoint;
   }
 
-  private List<JobBatch> findBatchesPriorToBatchWithSavepoint(List<ChangedEntityIdentifier> identifiers) {
-    List<JobBatch> nextPortion = new ArrayList<>();
+  /**
+   * Adds pages ending with the savepoint to the portion. A savepoint cluster can take millions of
+   * identifiers, so they are kept compact until the portion is processed.
+   *
+   * @return first page which does not end with the savepoint (can be empty)
+   */
+  private List<ChangedEntityIdentifier> findBatchesPriorToBatchWithSavepoint(
+      List<ChangedEntityIdentifier> identifiers, List<JobBatch> nextPortion) {
     LocalDateTime savePoint = getLastTimestamp(identifiers);
     List<ChangedEntityIdentifier> nextIdentifiersPage = identifiers;
-    while ((!nextIdentifiersPage.isEmpty() && savePoint ==
-        getLastTimestamp(nextIdentifiersPage))) {
-      offset += batchSize;
-      nextPortion.add(new JobBatch(nextIdentifiersPage));
+    while (!nextIdentifiersPage.isEmpty() && savePoint
+        .equals(getLastTimestamp(nextIdentifiersPage))) {
+      moveAfterPage(nextIdentifiersPage);
+      nextPortion.add(new JobBatch(CompactIdentifiers.copyOf(nextIdentifiersPage)));
       nextIdentifiersPage = getNextPage();
     }
-    return nextPortion;
-  }
-
-  private ChangedEntityIdentifier getNextIdentifier() {
-    List<ChangedEntityIdentifier> identifiers = getNextPage(new PageRequest(offset, 1));
-    assert identifiers.size() == 1 || identifiers.isEmpty();
-    return identifiers.isEmpty() ? null : identifiers.get(0);
+    return nextIdentifiersPage;
   }
 
   private static LocalDateTime getLastTimestamp(List<ChangedEntityIdentifier> identifiers) {
@@ -173,6 +352,7 @@ public class JobBatchIteratorImpl implements JobBatchIterator {
     this.jobMode = jobMode;
   }
 
+  @Override
   public JobMode getJobMode() {
     return jobMode;
   }
@@ -185,6 +365,31 @@ public class JobBatchIteratorImpl implements JobBatchIterator {
     return timestampOperator;
   }
 
+  public boolean isKeysetPagination() {
+    return keysetPagination;
+  }
+
+  public void setKeysetPagination(boolean keysetPagination) {
+    this.keysetPagination = keysetPagination;
+  }
+
+  public void setJobStateStore(JobStateStore jobStateStore) {
+    this.jobStateStore = jobStateStore;
+  }
+
+  public void setStreamingIdentifiers(boolean streamingIdentifiers) {
+    this.streamingIdentifiers = streamingIdentifiers;
+  }
+
+  public void setStreamingIdentifiersService(
+      StreamingIdentifiersService streamingIdentifiersService) {
+    this.streamingIdentifiersService = streamingIdentifiersService;
+  }
+
+  public ChangedEntityIdentifier getLastIdentifier() {
+    return lastIdentifier;
+  }
+
   public int getOffset() {
     return offset;
   }
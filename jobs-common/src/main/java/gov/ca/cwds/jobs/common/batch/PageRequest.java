@@ -1,5 +1,7 @@
 package gov.ca.cwds.jobs.common.batch;
 
+import java.time.LocalDateTime;
+
 /**
  * Created by Alexander Serbin on 3/29/2018.
  */
@@ -9,6 +11,13 @@ public class PageRequest {
   private int offset;
   private int lastId;
 
+  /**
+   * Keyset (seek) pagination: (timestamp, identifier) pair of the last consumed record. The next
+   * page starts right after this pair, so no rows are skipped on the database side.
+   */
+  private LocalDateTime lastTimestamp;
+  private String lastIdentifier;
+
   public PageRequest(int offset, int limit) {
     this.offset = offset;
     this.limit = limit;
@@ -20,6 +29,12 @@ public class PageRequest {
     this.limit = limit;
   }
 
+  public PageRequest(int limit, LocalDateTime lastTimestamp, String lastIdentifier) {
+    this.limit = limit;
+    this.lastTimestamp = lastTimestamp;
+    this.lastIdentifier = lastIdentifier;
+  }
+
   public int getLimit() {
     return limit;
   }
@@ -44,12 +59,30 @@ public class PageRequest {
     return lastId;
   }
 
+  public LocalDateTime getLastTimestamp() {
+    return lastTimestamp;
+  }
+
+  public String getLastIdentifier() {
+    return lastIdentifier;
+  }
+
+  /**
+   * @return true if the page should be fetched by seeking past the last (timestamp, identifier)
+   * pair instead of skipping {@link #getOffset()} rows
+   */
+  public boolean isKeysetPage() {
+    return lastTimestamp != null && lastIdentifier != null;
+  }
+
   @Override
   public String toString() {
     return "PageRequest{" +
         "limit=" + limit +
         ", offset=" + offset +
         ", lastId=" + lastId +
+        ", lastTimestamp=" + lastTimestamp +
+        ", lastIdentifier=" + lastIdentifier +
         '}';
   }
 }
@@ -0,0 +1,375 @@
+package gov.ca.cwds.jobs.common.cache;
+
+import com.google.common.cache.Cache;
+import java.io.Serializable;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Entities of one root entity kept in the cache shared by all regions of {@link
+ * SharedEntityRegionFactory}.
+ */
+class SharedEntityRegion implements EntityRegion {
+
+  private static final int UNKNOWN_INDEX = -2;
+
+  private static final int NO_INDEX = -1;
+
+  private static final int ENTRY_OVERHEAD = 96;
+
+  private static final int REFERENCE_SIZE = 8;
+
+  private final String name;
+
+  private final CacheDataDescription description;
+
+  private final boolean cached;
+
+  private final String timestampProperty;
+
+  private final Cache<Key, Entry> cache;
+
+  private final SharedEntityRegionFactory factory;
+
+  private final AtomicLong weight = new AtomicLong();
+
+  private final AtomicLong count = new AtomicLong();
+
+  private volatile int timestampIndex = UNKNOWN_INDEX;
+
+  SharedEntityRegion(String name, CacheDataDescription description, boolean cached,
+      String timestampProperty, Cache<Key, Entry> cache, SharedEntityRegionFactory factory) {
+    this.name = name;
+    this.description = description;
+    this.cached = cached;
+    this.timestampProperty = timestampProperty;
+    this.cache = cache;
+    this.factory = factory;
+  }
+
+  @Override
+  public EntityRegionAccessStrategy buildAccessStrategy(AccessType accessType) {
+    if (cached && accessType != AccessType.READ_ONLY) {
+      throw new CacheException("Shared entities can be read only: " + name);
+    }
+    return new ReadOnlyAccessStrategy();
+  }
+
+  @Override
+  public boolean isTransactionAware() {
+    return false;
+  }
+
+  @Override
+  public CacheDataDescription getCacheDataDescription() {
+    return description;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public void destroy() {
+    evictAll();
+  }
+
+  @Override
+  public boolean contains(Object key) {
+    return cache.asMap().containsKey(key);
+  }
+
+  @Override
+  public long getSizeInMemory() {
+    return weight.get();
+  }
+
+  @Override
+  public long getElementCountInMemory() {
+    return count.get();
+  }
+
+  @Override
+  public long getElementCountOnDisk() {
+    return 0;
+  }
+
+  @Override
+  public Map toMap() {
+    return cache.asMap().entrySet().stream()
+        .filter(entry -> entry.getKey().region == this)
+        .collect(Collectors.toMap(entry -> entry.getKey().id, entry -> entry.getValue().value));
+  }
+
+  @Override
+  public long nextTimestamp() {
+    return factory.nextTimestamp();
+  }
+
+  @Override
+  public int getTimeout() {
+    return 0;
+  }
+
+  void removed(Entry entry) {
+    weight.addAndGet(-entry.weight);
+    count.decrementAndGet();
+  }
+
+  private void evictAll() {
+    cache.asMap().keySet().removeIf(key -> key.region == this);
+  }
+
+  private boolean put(Key key, Object value) {
+    Comparable timestamp = getTimestamp(value);
+    Entry current = cache.asMap().get(key);
+    if (current != null && !isLater(timestamp, current.timestamp)) {
+      return false;
+    }
+    Entry entry = new Entry(value, timestamp, estimateWeight(value));
+    weight.addAndGet(entry.weight);
+    count.incrementAndGet();
+    factory.added(entry);
+    cache.put(key, entry);
+    return true;
+  }
+
+  private void resolveTimestampIndex(EntityPersister persister) {
+    if (timestampIndex == UNKNOWN_INDEX) {
+      Integer index = timestampProperty == null ? null
+          : persister.getEntityMetamodel().getPropertyIndexOrNull(timestampProperty);
+      timestampIndex = index == null ? NO_INDEX : index;
+    }
+  }
+
+  private Comparable getTimestamp(Object value) {
+    int index = timestampIndex;
+    if (index < 0 || !(value instanceof StandardCacheEntryImpl)) {
+      return null;
+    }
+    Serializable timestamp = ((StandardCacheEntryImpl) value).getDisassembledState()[index];
+    return timestamp instanceof Comparable ? (Comparable) timestamp : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static boolean isLater(Comparable timestamp, Comparable currentTimestamp) {
+    return timestamp != null && currentTimestamp != null
+        && timestamp.compareTo(currentTimestamp) > 0;
+  }
+
+  /**
+   * Rough estimate of the memory taken by an entry, good enough to bound the cache.
+   */
+  private static int estimateWeight(Object value) {
+    int weight = ENTRY_OVERHEAD;
+    if (value instanceof StandardCacheEntryImpl) {
+      for (Serializable property : ((StandardCacheEntryImpl) value).getDisassembledState()) {
+        weight += REFERENCE_SIZE + estimatePropertyWeight(property);
+      }
+    }
+    return weight;
+  }
+
+  private static int estimatePropertyWeight(Serializable property) {
+    if (property == null) {
+      return 0;
+    } else if (property instanceof String) {
+      return 40 + 2 * ((String) property).length();
+    } else if (property instanceof Number || property instanceof Boolean
+        || property instanceof Character) {
+      return 16;
+    } else if (property instanceof Temporal) {
+      return 72;
+    } else if (property instanceof Date) {
+      return 32;
+    }
+    return 64;
+  }
+
+  static final class Key implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SharedEntityRegion region;
+
+    private final Object id;
+
+    private Key(SharedEntityRegion region, Object id) {
+      this.region = region;
+      this.id = id;
+    }
+
+    SharedEntityRegion getRegion() {
+      return region;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return region == key.region && id.equals(key.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(region.name, id);
+    }
+  }
+
+  static final class Entry {
+
+    private final Object value;
+
+    private final Comparable timestamp;
+
+    private final int weight;
+
+    private Entry(Object value, Comparable timestamp, int weight) {
+      this.value = value;
+      this.timestamp = timestamp;
+      this.weight = weight;
+    }
+
+    int getWeight() {
+      return weight;
+    }
+  }
+
+  /**
+   * Entities of regions which are not cached are neither read from nor written to the cache.
+   * Hibernate still builds their cache entries, which costs much less than loading them.
+   */
+  private class ReadOnlyAccessStrategy implements EntityRegionAccessStrategy {
+
+    @Override
+    public Object generateCacheKey(Object id, EntityPersister persister,
+        SessionFactoryImplementor factory, String tenantIdentifier) {
+      resolveTimestampIndex(persister);
+      return new Key(SharedEntityRegion.this, id);
+    }
+
+    @Override
+    public Object getCacheKeyId(Object cacheKey) {
+      return ((Key) cacheKey).id;
+    }
+
+    @Override
+    public EntityRegion getRegion() {
+      return SharedEntityRegion.this;
+    }
+
+    @Override
+    public Object get(SharedSessionContractImplementor session, Object key, long txTimestamp) {
+      if (!cached) {
+        return null;
+      }
+      Entry entry = cache.getIfPresent(key);
+      return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public boolean putFromLoad(SharedSessionContractImplementor session, Object key,
+        Object value, long txTimestamp, Object version) {
+      return cached && put((Key) key, value);
+    }
+
+    @Override
+    public boolean putFromLoad(SharedSessionContractImplementor session, Object key,
+        Object value, long txTimestamp, Object version, boolean minimalPutOverride) {
+      return cached && put((Key) key, value);
+    }
+
+    @Override
+    public boolean insert(SharedSessionContractImplementor session, Object key, Object value,
+        Object version) {
+      return false;
+    }
+
+    @Override
+    public boolean afterInsert(SharedSessionContractImplementor session, Object key,
+        Object value, Object version) {
+      return false;
+    }
+
+    @Override
+    public boolean update(SharedSessionContractImplementor session, Object key, Object value,
+        Object currentVersion, Object previousVersion) {
+      return checkNotCached();
+    }
+
+    @Override
+    public boolean afterUpdate(SharedSessionContractImplementor session, Object key,
+        Object value, Object currentVersion, Object previousVersion, SoftLock lock) {
+      return checkNotCached();
+    }
+
+    @Override
+    public SoftLock lockItem(SharedSessionContractImplementor session, Object key,
+        Object version) {
+      return null;
+    }
+
+    @Override
+    public SoftLock lockRegion() {
+      return null;
+    }
+
+    @Override
+    public void unlockItem(SharedSessionContractImplementor session, Object key, SoftLock lock) {
+      evict(key);
+    }
+
+    @Override
+    public void unlockRegion(SoftLock lock) {
+      evictAll();
+    }
+
+    @Override
+    public void remove(SharedSessionContractImplementor session, Object key) {
+      evict(key);
+    }
+
+    @Override
+    public void removeAll() {
+      evictAll();
+    }
+
+    @Override
+    public void evict(Object key) {
+      cache.invalidate(key);
+    }
+
+    @Override
+    public void evictAll() {
+      SharedEntityRegion.this.evictAll();
+    }
+
+    private boolean checkNotCached() {
+      if (cached) {
+        throw new UnsupportedOperationException("Can't write to a read only shared entity");
+      }
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,165 @@
+package gov.ca.cwds.jobs.common.cache;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cfg.Configuration;
+
+/**
+ * Hibernate second level cache of entities shared by many loaded documents, such as staff persons
+ * referenced by many facilities. Entities are kept for the run of the job in one cache bounded by
+ * the estimated size of cached entries, least recently used entries are evicted first.
+ *
+ * <p>Only configured entities are cached, all other entities are loaded as if there was no second
+ * level cache. Cached entities are read only. A cached entity is replaced when a query reads it
+ * with a later timestamp property, so the cache never goes back to an older state of a row.</p>
+ *
+ * <p>Hit ratio, estimated memory and number of cached entities are reported as job metrics.</p>
+ */
+public class SharedEntityRegionFactory implements RegionFactory {
+
+  /**
+   * Comma separated names of cached root entities.
+   */
+  public static final String ENTITIES = "hibernate.cache.shared.entities";
+
+  /**
+   * Maximum estimated size of all cached entities in bytes.
+   */
+  public static final String MAXIMUM_WEIGHT = "hibernate.cache.shared.maximum_weight";
+
+  /**
+   * Property of cached entities holding the time of their last update.
+   */
+  public static final String TIMESTAMP_PROPERTY = "hibernate.cache.shared.timestamp_property";
+
+  private static final long serialVersionUID = 1L;
+
+  private transient Set<String> cachedEntities;
+
+  private transient String timestampProperty;
+
+  private transient Cache<SharedEntityRegion.Key, SharedEntityRegion.Entry> cache;
+
+  private final AtomicLong weight = new AtomicLong();
+
+  /**
+   * Enables the shared cache of the given entities in the configuration of a session factory.
+   */
+  public static Configuration configure(Configuration configuration,
+      List<Class<?>> entityClasses, long maximumWeight, String timestampProperty) {
+    return configuration
+        .setProperty("hibernate.cache.use_second_level_cache", "true")
+        .setProperty("hibernate.cache.use_query_cache", "false")
+        .setProperty("hibernate.cache.region.factory_class",
+            SharedEntityRegionFactory.class.getName())
+        .setProperty("hibernate.cache.default_cache_concurrency_strategy",
+            AccessType.READ_ONLY.getExternalName())
+        .setProperty("javax.persistence.sharedCache.mode", "ALL")
+        .setProperty(ENTITIES, entityClasses.stream().map(Class::getName)
+            .collect(Collectors.joining(",")))
+        .setProperty(MAXIMUM_WEIGHT, String.valueOf(maximumWeight))
+        .setProperty(TIMESTAMP_PROPERTY, timestampProperty);
+  }
+
+  @Override
+  public void start(SessionFactoryOptions settings, Properties properties) {
+    cachedEntities = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+        .split(properties.getProperty(ENTITIES, "")));
+    timestampProperty = properties.getProperty(TIMESTAMP_PROPERTY);
+    cache = CacheBuilder.newBuilder()
+        .maximumWeight(Long.parseLong(properties.getProperty(MAXIMUM_WEIGHT)))
+        .weigher((SharedEntityRegion.Key key, SharedEntityRegion.Entry entry) ->
+            entry.getWeight())
+        .removalListener(this::onRemoval)
+        .recordStats()
+        .build();
+    JobMetrics.gauge(JobMetrics.ENTITY_CACHE_HIT_RATIO, () -> cache.stats().hitRate());
+    JobMetrics.gauge(JobMetrics.ENTITY_CACHE_MEMORY, weight::get);
+    JobMetrics.gauge(JobMetrics.ENTITY_CACHE_SIZE, () -> cache.size());
+  }
+
+  @Override
+  public void stop() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  @Override
+  public boolean isMinimalPutsEnabledByDefault() {
+    return false;
+  }
+
+  @Override
+  public AccessType getDefaultAccessType() {
+    return AccessType.READ_ONLY;
+  }
+
+  @Override
+  public long nextTimestamp() {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * Regions are built for all entities, native Hibernate configuration can't make single entities
+   * cacheable. Regions of entities which are not configured never hold anything.
+   */
+  @Override
+  public EntityRegion buildEntityRegion(String regionName, Properties properties,
+      CacheDataDescription metadata) {
+    return new SharedEntityRegion(regionName, metadata, cachedEntities.contains(regionName),
+        timestampProperty, cache, this);
+  }
+
+  @Override
+  public NaturalIdRegion buildNaturalIdRegion(String regionName, Properties properties,
+      CacheDataDescription metadata) {
+    throw new CacheException("Natural ids are not cached: " + regionName);
+  }
+
+  @Override
+  public CollectionRegion buildCollectionRegion(String regionName, Properties properties,
+      CacheDataDescription metadata) {
+    throw new CacheException("Collections are not cached: " + regionName);
+  }
+
+  @Override
+  public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) {
+    throw new CacheException("Query results are not cached: " + regionName);
+  }
+
+  @Override
+  public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) {
+    throw new CacheException("Query results are not cached: " + regionName);
+  }
+
+  private void onRemoval(
+      RemovalNotification<SharedEntityRegion.Key, SharedEntityRegion.Entry> notification) {
+    weight.addAndGet(-notification.getValue().getWeight());
+    notification.getKey().getRegion().removed(notification.getValue());
+  }
+
+  void added(SharedEntityRegion.Entry entry) {
+    weight.addAndGet(entry.getWeight());
+  }
+
+}
@@ -21,7 +21,14 @@ public enum JobCmdLineOption {
    */
   LAST_RUN_FILE(JobOptions
       .makeOpt("l", JobOptions.CMD_LINE_LAST_RUN_FILE, "last run date file (yyyy-MM-dd HH:mm:ss)",
-          false, 1, String.class, ','));
+          false, 1, String.class, ',')),
+
+  /**
+   * Replay dead letters of previous runs instead of loading changed entities.
+   */
+  REPLAY_DEAD_LETTERS(JobOptions
+      .makeOpt("r", JobOptions.CMD_LINE_REPLAY_DEAD_LETTERS,
+          "replay entities which have failed to load", false, 0, String.class, ','));
 
 
   private final Option opt;
@@ -31,6 +31,7 @@ public class JobOptions {
 
   public static final String CMD_LINE_ES_CONFIG = "config";
   public static final String CMD_LINE_LAST_RUN_FILE = "last-run-file";
+  public static final String CMD_LINE_REPLAY_DEAD_LETTERS = "replay-dead-letters";
 
   /**
    * Location of Elasticsearch configuration file.
@@ -43,9 +44,19 @@ public class JobOptions {
    */
   final String lastRunLoc;
 
+  /**
+   * Replay dead letters of previous runs.
+   */
+  final boolean replayDeadLetters;
+
   public JobOptions(String esConfigLoc, String lastRunLoc) {
+    this(esConfigLoc, lastRunLoc, false);
+  }
+
+  public JobOptions(String esConfigLoc, String lastRunLoc, boolean replayDeadLetters) {
     this.esConfigLoc = esConfigLoc;
     this.lastRunLoc = lastRunLoc;
+    this.replayDeadLetters = replayDeadLetters;
   }
 
   /**
@@ -66,6 +77,13 @@ public class JobOptions {
     return lastRunLoc;
   }
 
+  /**
+   * @return true if only dead letters of previous runs are processed
+   */
+  public boolean isReplayDeadLetters() {
+    return replayDeadLetters;
+  }
+
 
   /**
    * Define a command line option.
@@ -94,6 +112,7 @@ public class JobOptions {
     Options ret = new Options();
 
     ret.addOption(JobCmdLineOption.ES_CONFIG.getOpt());
+    ret.addOption(JobCmdLineOption.REPLAY_DEAD_LETTERS.getOpt());
 
     // RUN MODE: mutually exclusive choice.
     OptionGroup group = new OptionGroup();
@@ -132,6 +151,7 @@ public class JobOptions {
   public static JobOptions parseCommandLine(String[] args) {
     String esConfigLoc = null;
     String lastRunLoc = null;
+    boolean replayDeadLetters = false;
     try {
       final Options options = buildCmdLineOptions();
       final CommandLineParser parser = new DefaultParser();
@@ -150,6 +170,11 @@ public class JobOptions {
             LOGGER.info("last run file = {}", lastRunLoc);
             break;
 
+          case CMD_LINE_REPLAY_DEAD_LETTERS:
+            replayDeadLetters = true;
+            LOGGER.info("replaying dead letters");
+            break;
+
           default:
             break;
         }
@@ -159,7 +184,7 @@ public class JobOptions {
       LOGGER.error("Error parsing command line: {}", e.getMessage(), e);
       throw new JobsException("Error parsing command line: " + e.getMessage(), e);
     }
-    JobOptions jobOptions = new JobOptions(esConfigLoc, lastRunLoc);
+    JobOptions jobOptions = new JobOptions(esConfigLoc, lastRunLoc, replayDeadLetters);
     validateJobOptions(jobOptions);
     return jobOptions;
   }
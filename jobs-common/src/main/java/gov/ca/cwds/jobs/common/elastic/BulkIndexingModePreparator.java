@@ -0,0 +1,73 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.job.InitialLoadIndexPreparator;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns off refreshes and replicas of the index for the duration of an initial load, then restores
+ * them from the index settings file and refreshes the index.
+ */
+public class BulkIndexingModePreparator implements InitialLoadIndexPreparator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BulkIndexingModePreparator.class);
+
+  static final String REFRESH_INTERVAL = "index.refresh_interval";
+  static final String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+
+  private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+  private static final String DEFAULT_NUMBER_OF_REPLICAS = "1";
+
+  protected ElasticSearchIndexerDao elasticSearchIndexerDao;
+
+  protected BaseJobConfiguration configuration;
+
+  @Inject
+  public BulkIndexingModePreparator(ElasticSearchIndexerDao elasticSearchIndexerDao,
+      BaseJobConfiguration configuration) {
+    this.elasticSearchIndexerDao = elasticSearchIndexerDao;
+    this.configuration = configuration;
+  }
+
+  @Override
+  public void prepare(JobMode jobMode) {
+    if (!isBulkIndexing()) {
+      return;
+    }
+    LOGGER.info("Switching index to bulk indexing mode");
+    elasticSearchIndexerDao.updateIndexSettings(Settings.builder()
+        .put(REFRESH_INTERVAL, "-1")
+        .put(NUMBER_OF_REPLICAS, 0)
+        .build());
+  }
+
+  @Override
+  public void complete(boolean successful) {
+    if (!isBulkIndexing()) {
+      return;
+    }
+    LOGGER.info("Restoring index settings after bulk indexing");
+    elasticSearchIndexerDao.updateIndexSettings(getRestoredSettings());
+    elasticSearchIndexerDao.refreshIndex();
+  }
+
+  protected boolean isBulkIndexing() {
+    return configuration.isBulkIndexingMode();
+  }
+
+  Settings getRestoredSettings() {
+    Settings fileSettings = configuration.getIndexSettings() == null ? Settings.EMPTY
+        : Settings.builder().loadFromSource(configuration.getIndexSettings(), XContentType.JSON)
+            .normalizePrefix("index.").build();
+    return Settings.builder()
+        .put(REFRESH_INTERVAL, fileSettings.get(REFRESH_INTERVAL, DEFAULT_REFRESH_INTERVAL))
+        .put(NUMBER_OF_REPLICAS, fileSettings.get(NUMBER_OF_REPLICAS, DEFAULT_NUMBER_OF_REPLICAS))
+        .build();
+  }
+}
@@ -0,0 +1,128 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import com.google.inject.Inject;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.inject.LastRunDir;
+import gov.ca.cwds.jobs.common.inject.SkipUnchangedDocuments;
+import java.nio.file.Paths;
+import org.elasticsearch.common.hash.MurmurHash3;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a 64-bit hash of the last indexed source of every document, so the incremental load can
+ * skip documents whose source has not changed. Hashes are kept in an embedded MVStore database in
+ * the last run directory.
+ *
+ * <p>Hashes of written documents are committed only after their batch has been acknowledged by
+ * Elasticsearch, uncommitted hashes are discarded when the index is closed. So a document which
+ * has failed to be written is never skipped by the next run.</p>
+ */
+public class DocumentHashIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentHashIndex.class);
+
+  private static final String STORE_FILENAME = "DocumentHashes.mv.db";
+
+  private final MVStore store;
+
+  private final MVMap<String, Long> hashes;
+
+  private final MurmurHash3.Hash128 hash = new MurmurHash3.Hash128();
+
+  private boolean skipping;
+
+  @Inject
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //Path cannot be controlled by the user
+  public DocumentHashIndex(@LastRunDir String outputDir,
+      @SkipUnchangedDocuments boolean enabled) {
+    if (enabled) {
+      String fileName = Paths.get(outputDir, STORE_FILENAME).normalize().toAbsolutePath()
+          .toString();
+      LOGGER.info("Path to the document hash index: {}", fileName);
+      store = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+      hashes = store.openMap("hashes");
+    } else {
+      store = null;
+      hashes = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return store != null;
+  }
+
+  /**
+   * Documents are skipped by the incremental load only, the initial load writes a new index and
+   * starts the hash index over.
+   */
+  public synchronized void init(JobMode jobMode) {
+    if (!isEnabled()) {
+      return;
+    }
+    if (jobMode == JobMode.INITIAL_LOAD) {
+      hashes.clear();
+      store.commit();
+    }
+    skipping = jobMode == JobMode.INCREMENTAL_LOAD;
+    LOGGER.info("Document hash index contains {} documents, unchanged documents are {}",
+        hashes.size(), skipping ? "skipped" : "written");
+  }
+
+  /**
+   * Records the hash of the document source.
+   *
+   * @return true if the document can be skipped: it has been indexed with the same source
+   */
+  public boolean isUnchanged(String id, byte[] source) {
+    return isUnchanged(id, source, source.length);
+  }
+
+  /**
+   * @param length length of the source at the beginning of the buffer
+   */
+  public synchronized boolean isUnchanged(String id, byte[] source, int length) {
+    if (!isEnabled()) {
+      return false;
+    }
+    MurmurHash3.hash128(source, 0, length, 0, hash);
+    long sourceHash = hash.h1 ^ hash.h2;
+    Long previousHash = hashes.put(id, sourceHash);
+    return skipping && previousHash != null && previousHash == sourceHash;
+  }
+
+  public synchronized void remove(String id) {
+    if (isEnabled()) {
+      hashes.remove(id);
+    }
+  }
+
+  /**
+   * Makes hashes recorded so far permanent, must be called after documents have been written.
+   */
+  public synchronized void commit() {
+    if (isEnabled()) {
+      store.commit();
+    }
+  }
+
+  /**
+   * Discards hashes recorded since the last commit.
+   */
+  public synchronized void rollback() {
+    if (isEnabled()) {
+      store.rollback();
+    }
+  }
+
+  public synchronized void close() {
+    if (isEnabled() && !store.isClosed()) {
+      store.rollback();
+      store.close();
+    }
+  }
+
+}
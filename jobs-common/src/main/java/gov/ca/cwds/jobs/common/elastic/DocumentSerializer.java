@@ -0,0 +1,82 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import gov.ca.cwds.jobs.common.exception.JobsException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes documents into a buffer reused by the calling thread. Writers are prebuilt once per
+ * document class, so the root serializer is not looked up for every document.
+ *
+ * <p>The serialized document is valid until the next {@link #serialize(Object)} call of the same
+ * thread, {@link SerializedDocument#toByteArray()} copies it for requests which outlive it.</p>
+ */
+public class DocumentSerializer {
+
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+  /**
+   * Larger buffers are not kept by threads after a huge document has been serialized.
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private final ObjectMapper objectMapper;
+
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  private final ThreadLocal<SerializedDocument> documents = ThreadLocal
+      .withInitial(SerializedDocument::new);
+
+  public DocumentSerializer(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public SerializedDocument serialize(Object document) throws JsonProcessingException {
+    SerializedDocument serializedDocument = documents.get();
+    if (serializedDocument.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+      serializedDocument = new SerializedDocument();
+      documents.set(serializedDocument);
+    }
+    serializedDocument.reset();
+    try {
+      getWriter(document.getClass()).writeValue(serializedDocument, document);
+    } catch (JsonProcessingException e) {
+      throw e;
+    } catch (IOException e) {
+      // writing to memory does not fail
+      throw new JobsException(e);
+    }
+    return serializedDocument;
+  }
+
+  private ObjectWriter getWriter(Class<?> documentClass) {
+    return writers.computeIfAbsent(documentClass, objectMapper::writerFor);
+  }
+
+  /**
+   * Growable buffer exposing its content without copying.
+   */
+  public static final class SerializedDocument extends ByteArrayOutputStream {
+
+    private SerializedDocument() {
+      super(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * @return internal buffer, only the first {@link #size()} bytes are the document
+     */
+    public byte[] getBuffer() {
+      return buf;
+    }
+
+    private int capacity() {
+      return buf.length;
+    }
+  }
+
+}
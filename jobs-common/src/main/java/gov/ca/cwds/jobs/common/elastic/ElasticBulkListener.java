@@ -0,0 +1,106 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import gov.ca.cwds.jobs.common.exception.JobExceptionHandler;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inspects bulk responses item by item. Items rejected because of a full ES queue are retried by
+ * the BulkProcessor backoff policy before the response gets here, so every failed item is final.
+ * Failures are reported to {@link JobExceptionHandler}, which prevents the save point of the batch
+ * from being recorded.
+ */
+class ElasticBulkListener implements BulkProcessor.Listener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ElasticBulkListener.class);
+
+  private final InFlightBulks inFlightBulks = new InFlightBulks();
+
+  private final AtomicLong failedItemsCount = new AtomicLong();
+
+  /**
+   * Send time of in flight bulks by execution id.
+   */
+  private final Map<Long, Long> bulkStartTimes = new ConcurrentHashMap<>();
+
+  @Override
+  public void beforeBulk(long executionId, BulkRequest request) {
+    inFlightBulks.started(executionId);
+    bulkStartTimes.put(executionId, System.nanoTime());
+    JobMetrics.histogram(JobMetrics.BULK_ACTIONS).update(request.numberOfActions());
+    LOGGER.warn("Ready to execute bulk of {} actions", request.numberOfActions());
+  }
+
+  @Override
+  public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+    try {
+      LOGGER.warn("Response from bulk: {} ", response.getItems().length);
+      int failedItems = 0;
+      if (response.hasFailures()) {
+        failedItems = handleFailedItems(executionId, response);
+      }
+      JobMetrics.meter(JobMetrics.DOCUMENTS_INDEXED).mark(response.getItems().length - failedItems);
+    } finally {
+      completed(executionId);
+    }
+  }
+
+  @Override
+  public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+    try {
+      failedItemsCount.addAndGet(request.numberOfActions());
+      JobExceptionHandler.handleException(
+          String.format("Bulk of %s actions has failed", request.numberOfActions()), failure);
+    } finally {
+      completed(executionId);
+    }
+  }
+
+  private void completed(long executionId) {
+    Long startTime = bulkStartTimes.remove(executionId);
+    if (startTime != null) {
+      JobMetrics.timer(JobMetrics.BULK_ROUND_TRIP)
+          .update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+    inFlightBulks.completed(executionId);
+  }
+
+  private int handleFailedItems(long executionId, BulkResponse response) {
+    BulkItemResponse firstFailedItem = null;
+    int failedItems = 0;
+    for (BulkItemResponse item : response.getItems()) {
+      if (item.isFailed()) {
+        LOGGER.error("Can't {} document with ID {}: {} {}", item.getOpType(), item.getId(),
+            item.getFailure().getStatus(), item.getFailureMessage());
+        failedItems++;
+        if (firstFailedItem == null) {
+          firstFailedItem = item;
+        }
+      }
+    }
+    if (firstFailedItem != null) {
+      failedItemsCount.addAndGet(failedItems);
+      JobExceptionHandler.handleException(
+          String.format("%s of %s actions of bulk %s have failed", failedItems,
+              response.getItems().length, executionId), firstFailedItem.getFailure().getCause());
+    }
+    return failedItems;
+  }
+
+  InFlightBulks getInFlightBulks() {
+    return inFlightBulks;
+  }
+
+  long getFailedItemsCount() {
+    return failedItemsCount.get();
+  }
+}
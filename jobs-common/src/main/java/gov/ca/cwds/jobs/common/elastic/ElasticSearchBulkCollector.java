@@ -8,9 +8,15 @@ import java.util.List;
 
 /**
  * Must be thread-safe. Created by Alexander Serbin on 3/16/2018.
+ *
+ * <p>Entities are buffered in stripes chosen by the producer thread, so reader threads do not
+ * contend on a single lock. A full bulk is swapped out of its stripe and written outside of the
+ * lock, other producers keep adding entities meanwhile.</p>
  */
 public class ElasticSearchBulkCollector<T> {
 
+  private static final int STRIPES_COUNT = Runtime.getRuntime().availableProcessors();
+
   @Inject
   private BulkWriter<T> jobWriter;
 
@@ -18,25 +24,89 @@ public class ElasticSearchBulkCollector<T> {
   @ElasticSearchBulkSize
   private int bulkSize;
 
-  private List<T> entities = new ArrayList<>(bulkSize);
+  private final Stripe<T>[] stripes = createStripes();
+
+  public ElasticSearchBulkCollector() {
+    // injected by Guice
+  }
+
+  private ElasticSearchBulkCollector(BulkWriter<T> jobWriter, int bulkSize) {
+    this.jobWriter = jobWriter;
+    this.bulkSize = bulkSize;
+  }
+
+  /**
+   * Creates a collector with its own buffers writing through the same writer. Flushing either of
+   * them never writes entities added to the other one, so a worker which flushes and awaits its
+   * own collector knows all of its entities have been acknowledged.
+   */
+  public ElasticSearchBulkCollector<T> newCollector() {
+    return new ElasticSearchBulkCollector<>(jobWriter, bulkSize);
+  }
 
-  public synchronized void addEntity(T entity) {
-    entities.add(entity);
-    if (entities.size() == bulkSize) {
-      flush();
+  public void addEntity(T entity) {
+    List<T> bulk = getStripe().add(entity, bulkSize);
+    if (bulk != null) {
+      jobWriter.write(bulk);
     }
   }
 
-  public synchronized void flush() {
-    jobWriter.write(entities);
-    resetEntities();
+  /**
+   * Writes entities of all stripes as one bulk. Entities added concurrently with the flush can be
+   * left for the next one, so callers must flush after all producers are done.
+   */
+  public void flush() {
+    List<T> bulk = new ArrayList<>();
+    for (Stripe<T> stripe : stripes) {
+      stripe.drainTo(bulk);
+    }
+    jobWriter.write(bulk);
   }
 
-  private void resetEntities() {
-    entities = new ArrayList<>(bulkSize);
+  /**
+   * Waits for acknowledgements of flushed entities.
+   */
+  public void awaitWritten() {
+    jobWriter.awaitWritten();
   }
 
   public void destroy() {
     jobWriter.destroy();
   }
+
+  private Stripe<T> getStripe() {
+    return stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Stripe<T>[] createStripes() {
+    Stripe<T>[] stripes = new Stripe[STRIPES_COUNT];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe<>();
+    }
+    return stripes;
+  }
+
+  private static final class Stripe<T> {
+
+    private List<T> entities = new ArrayList<>();
+
+    /**
+     * @return full bulk to be written or null if the bulk size is not reached yet
+     */
+    private synchronized List<T> add(T entity, int bulkSize) {
+      entities.add(entity);
+      if (bulkSize <= 0 || entities.size() < bulkSize) {
+        return null;
+      }
+      List<T> bulk = entities;
+      entities = new ArrayList<>(bulkSize);
+      return bulk;
+    }
+
+    private synchronized void drainTo(List<T> bulk) {
+      bulk.addAll(entities);
+      entities.clear();
+    }
+  }
 }
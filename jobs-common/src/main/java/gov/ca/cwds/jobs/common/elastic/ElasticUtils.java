@@ -1,7 +1,11 @@
 package gov.ca.cwds.jobs.common.elastic;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.exception.JobsException;
 import gov.ca.cwds.rest.api.ApiException;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.HashMap;
@@ -9,6 +13,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.slf4j.Logger;
@@ -22,16 +30,28 @@ public final class ElasticUtils {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ElasticUtils.class);
 
+  private static final String TRANSPORT_COMPRESS = "transport.tcp.compress";
+
   private ElasticUtils() {}
 
+  /**
+   * Afterburner replaces reflective access to properties of serialized documents with generated
+   * bytecode, the JSON produced is the same. The mapper passed is not modified, so it can be
+   * shared with code not expecting the module.
+   *
+   * @return copy of the mapper with the Afterburner module registered
+   */
+  public static ObjectMapper withAcceleratedSerialization(ObjectMapper objectMapper) {
+    return objectMapper.copy().registerModule(new AfterburnerModule());
+  }
+
   public static TransportClient createAndConfigureESClient(BaseJobConfiguration config) {
     TransportClient client = null;
 
     LOGGER.info("Create NEW ES client");
     try {
-      Settings.Builder settings =
-          Settings.builder().put("cluster.name", config.getElasticsearchCluster());
-      client = XPackUtils.secureClient(config.getUser(), config.getPassword(), settings);
+      client = XPackUtils.secureClient(config.getUser(), config.getPassword(),
+          createClientSettings(config));
 
       for (InetSocketTransportAddress address : getValidatedESNodes(config)) {
         client.addTransportAddress(address);
@@ -46,6 +66,30 @@ public final class ElasticUtils {
     return client;
   }
 
+  static Settings.Builder createClientSettings(BaseJobConfiguration config) {
+    return Settings.builder()
+        .put("cluster.name", config.getElasticsearchCluster())
+        .put(TRANSPORT_COMPRESS, config.isTransportCompress());
+  }
+
+  /**
+   * Compresses a document source the way Elasticsearch compresses transport messages, nodes
+   * detect compressed sources and decompress them when parsing.
+   *
+   * @param length length of the source at the beginning of the buffer
+   * @return compressed source
+   */
+  public static byte[] compressSource(byte[] source, int length) {
+    BytesStreamOutput compressed = new BytesStreamOutput(length / 2);
+    try (StreamOutput output = CompressorFactory.COMPRESSOR.streamOutput(compressed)) {
+      output.writeBytes(source, 0, length);
+    } catch (IOException e) {
+      // writing to memory does not fail
+      throw new JobsException(e);
+    }
+    return BytesReference.toBytes(compressed.bytes());
+  }
+
   private static List<InetSocketTransportAddress> getValidatedESNodes(BaseJobConfiguration config) {
     List<InetSocketTransportAddress> nodesList = new LinkedList<>();
     String[] params;
@@ -2,18 +2,26 @@ package gov.ca.cwds.jobs.common.elastic;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
 import gov.ca.cwds.jobs.common.ChangedDTO;
 import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
 import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer.SerializedDocument;
 import gov.ca.cwds.jobs.common.exception.JobsException;
 import gov.ca.cwds.jobs.common.job.BulkWriter;
 import gov.ca.cwds.jobs.common.job.utils.ConsumerCounter;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.slf4j.LoggerFactory;
 
 
@@ -27,57 +35,105 @@ public class ElasticWriter<T extends ChangedDTO<?>> implements BulkWriter<T> {
   protected ElasticSearchIndexerDao elasticsearchDao;
   protected BulkProcessor bulkProcessor;
   protected ObjectMapper objectMapper;
+  private final DocumentSerializer documentSerializer;
+  private final boolean compressSource;
+  private final ElasticBulkListener bulkListener = new ElasticBulkListener();
+
+  @Inject(optional = true)
+  private DocumentHashIndex documentHashIndex;
 
   /**
    * Constructor.
    *
+   * <p>Sending of bulk requests is asynchronous. When all concurrent requests are in flight,
+   * writing threads are blocked until one of them completes. Documents rejected by a busy cluster
+   * are retried with exponential backoff, other failures stop the job. Document sources are
+   * compressed before being buffered if bulk source compression is configured.</p>
+   *
    * @param elasticsearchDao ES DAO
-   * @param objectMapper Jackson object mapper
+   * @param objectMapper Jackson object mapper, its copy with Afterburner is used if accelerated
+   * serialization is configured
    */
   public ElasticWriter(ElasticSearchIndexerDao elasticsearchDao, ObjectMapper objectMapper) {
     this.elasticsearchDao = elasticsearchDao;
-    this.objectMapper = objectMapper;
+    BaseJobConfiguration config = elasticsearchDao.getConfig();
+    this.objectMapper = config.isAcceleratedSerialization()
+        ? ElasticUtils.withAcceleratedSerialization(objectMapper) : objectMapper;
+    this.documentSerializer = new DocumentSerializer(this.objectMapper);
+    this.compressSource = config.isBulkCompressSource();
     bulkProcessor =
-        BulkProcessor.builder(elasticsearchDao.getClient(), new BulkProcessor.Listener() {
-          @Override
-          public void beforeBulk(long executionId, BulkRequest request) {
-            LOGGER.warn("Ready to execute bulk of {} actions", request.numberOfActions());
-          }
-
-          @Override
-          public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
-            LOGGER.warn("Response from bulk: {} ", response.getItems().length);
-          }
-
-          @Override
-          public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
-            LOGGER.error("ERROR EXECUTING BULK", failure);
-          }
-        }).build();
+        BulkProcessor.builder(elasticsearchDao.getClient(), bulkListener)
+            .setConcurrentRequests(config.getBulkConcurrentRequests())
+            .setBulkActions(config.getBulkActions())
+            .setBulkSize(new ByteSizeValue(config.getBulkSizeMb(), ByteSizeUnit.MB))
+            .setBackoffPolicy(BackoffPolicy.exponentialBackoff(
+                TimeValue.timeValueMillis(config.getBulkRetryInitialDelayMs()),
+                config.getBulkRetryMaxRetries()))
+            .build();
   }
 
+  /**
+   * Only preparing of requests is timed as bulk serialization, {@link BulkProcessor#add} can block
+   * while concurrent bulks are in flight.
+   */
   @Override
   public void write(List<T> items) {
-    items.forEach(item -> {
+    long serializationTime = 0;
+    int unchangedCount = 0;
+    for (T item : items) {
       try {
         RecordChangeOperation recordChangeOperation = item.getRecordChangeOperation();
 
+        long start = System.nanoTime();
         if (RecordChangeOperation.I == recordChangeOperation
             || RecordChangeOperation.U == recordChangeOperation) {
-          LOGGER.debug("Preparing to insert item: ID {}", item.getId());
-          bulkProcessor.add(elasticsearchDao.bulkAdd(objectMapper, item.getId(), item.getDTO()));
+          SerializedDocument source = documentSerializer.serialize(item.getDTO());
+          if (documentHashIndex != null && documentHashIndex
+              .isUnchanged(item.getId(), source.getBuffer(), source.size())) {
+            LOGGER.debug("Skipping unchanged item: ID {}", item.getId());
+            serializationTime += System.nanoTime() - start;
+            unchangedCount++;
+          } else {
+            LOGGER.debug("Preparing to insert item: ID {}", item.getId());
+            IndexRequest request = elasticsearchDao.bulkAdd(item.getId(), compressSource
+                ? ElasticUtils.compressSource(source.getBuffer(), source.size())
+                : source.toByteArray());
+            serializationTime += System.nanoTime() - start;
+            bulkProcessor.add(request);
+          }
         } else if (RecordChangeOperation.D == recordChangeOperation) {
           LOGGER.debug("Preparing to delete item: ID {}", item.getId());
-          bulkProcessor.add(elasticsearchDao.bulkDelete(item.getId()));
+          if (documentHashIndex != null) {
+            documentHashIndex.remove(item.getId());
+          }
+          DeleteRequest request = elasticsearchDao.bulkDelete(item.getId());
+          serializationTime += System.nanoTime() - start;
+          bulkProcessor.add(request);
         } else {
           LOGGER.warn("No operation found for facility with ID: {}", item.getId());
         }
       } catch (JsonProcessingException e) {
         throw new JobsException(e);
       }
-    });
+    }
+    if (!items.isEmpty()) {
+      JobMetrics.timer(JobMetrics.BULK_SERIALIZATION)
+          .update(serializationTime, TimeUnit.NANOSECONDS);
+    }
+    if (unchangedCount > 0) {
+      JobMetrics.meter(JobMetrics.DOCUMENTS_UNCHANGED).mark(unchangedCount);
+    }
+    ConsumerCounter.addToCounter(items.size() - unchangedCount);
+  }
+
+  /**
+   * Sends buffered actions and waits for responses of all bulks sent so far. Bulks sent by other
+   * threads after this call are not waited for.
+   */
+  @Override
+  public void awaitWritten() {
     bulkProcessor.flush();
-    ConsumerCounter.addToCounter(items.size());
+    bulkListener.getInFlightBulks().awaitStarted();
   }
 
   @Override
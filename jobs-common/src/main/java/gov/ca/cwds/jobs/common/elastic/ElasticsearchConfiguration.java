@@ -48,6 +48,39 @@ public class ElasticsearchConfiguration {
   @JsonProperty("elasticsearch.xpack.password")
   private String password;
 
+  @JsonProperty("elasticsearch.bulk.concurrent.requests")
+  private int bulkConcurrentRequests = 1;
+
+  @JsonProperty("elasticsearch.bulk.actions")
+  private int bulkActions = 1000;
+
+  @JsonProperty("elasticsearch.bulk.size.mb")
+  private int bulkSizeMb = 5;
+
+  @JsonProperty("elasticsearch.bulk.retry.initial.delay.ms")
+  private int bulkRetryInitialDelayMs = 50;
+
+  @JsonProperty("elasticsearch.bulk.retry.max.retries")
+  private int bulkRetryMaxRetries = 8;
+
+  @JsonProperty("elasticsearch.initial.load.bulk.indexing")
+  private boolean bulkIndexingMode;
+
+  @JsonProperty("elasticsearch.initial.load.new.index")
+  private boolean newIndexOnInitialLoad;
+
+  @JsonProperty("elasticsearch.initial.load.delete.old.index")
+  private boolean deleteOldIndex;
+
+  @JsonProperty("elasticsearch.initial.load.min.documents.ratio")
+  private double minDocumentsRatio = 0.9;
+
+  @JsonProperty("elasticsearch.transport.compress")
+  private boolean transportCompress;
+
+  @JsonProperty("elasticsearch.bulk.compress.source")
+  private boolean bulkCompressSource;
+
   /**
    * Default constructor.
    */
@@ -132,4 +165,111 @@ public class ElasticsearchConfiguration {
   public String getDocumentMappingFile() {
     return documentMappingFile;
   }
+
+  /**
+   * Get the number of bulk requests which can be in flight at the same time. Writers are blocked
+   * when all of them are busy.
+   *
+   * @return The number of concurrent bulk requests
+   */
+  public int getBulkConcurrentRequests() {
+    return bulkConcurrentRequests;
+  }
+
+  /**
+   * Get the number of actions which triggers sending of a bulk request
+   *
+   * @return The number of actions in a bulk request
+   */
+  public int getBulkActions() {
+    return bulkActions;
+  }
+
+  /**
+   * Get the size of buffered actions in megabytes which triggers sending of a bulk request
+   *
+   * @return The bulk request size in megabytes
+   */
+  public int getBulkSizeMb() {
+    return bulkSizeMb;
+  }
+
+  /**
+   * Get the delay before the first retry of rejected bulk items, it grows exponentially with every
+   * next retry
+   *
+   * @return The initial retry delay in milliseconds
+   */
+  public int getBulkRetryInitialDelayMs() {
+    return bulkRetryInitialDelayMs;
+  }
+
+  /**
+   * Get the number of retries of rejected bulk items
+   *
+   * @return The maximum number of retries
+   */
+  public int getBulkRetryMaxRetries() {
+    return bulkRetryMaxRetries;
+  }
+
+  /**
+   * Check whether index refreshes and replicas are turned off while initial loads write to a new
+   * index, see {@link #isNewIndexOnInitialLoad()}
+   *
+   * @return true if bulk indexing mode is enabled
+   */
+  public boolean isBulkIndexingMode() {
+    return bulkIndexingMode;
+  }
+
+  /**
+   * Check whether initial loads go to a new timestamped index, which replaces the index behind the
+   * alias when the load is done
+   *
+   * @return true if a new index is created for initial loads
+   */
+  public boolean isNewIndexOnInitialLoad() {
+    return newIndexOnInitialLoad;
+  }
+
+  /**
+   * Check whether indices replaced by a new initial load index are deleted
+   *
+   * @return true if old indices are deleted
+   */
+  public boolean isDeleteOldIndex() {
+    return deleteOldIndex;
+  }
+
+  /**
+   * Get the minimal ratio of documents count in a new initial load index to documents count behind
+   * the alias, which is required to switch the alias
+   *
+   * @return The minimal documents ratio
+   */
+  public double getMinDocumentsRatio() {
+    return minDocumentsRatio;
+  }
+
+  /**
+   * Check whether the client compresses everything it sends to the cluster over the transport
+   * protocol. Responses are compressed by nodes only if their own transport compression is on.
+   *
+   * @return true if transport compression is enabled
+   */
+  public boolean isTransportCompress() {
+    return transportCompress;
+  }
+
+  /**
+   * Check whether sources of indexed documents are compressed before being added to a bulk.
+   * Compressed sources are stored as they are and decompressed by nodes when parsed. It should not
+   * be combined with transport compression, compressed sources don't shrink any more.
+   *
+   * @return true if bulk sources are compressed
+   */
+  public boolean isBulkCompressSource() {
+    return bulkCompressSource;
+  }
 }
@@ -0,0 +1,46 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import gov.ca.cwds.jobs.common.exception.JobsException;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps track of bulk requests sent by the BulkProcessor. BulkProcessor assigns increasing execution
+ * ids and calls beforeBulk in the sending thread, so a writer can wait for acknowledgements of the
+ * bulks it has sent, without waiting for the bulks sent later by other threads.
+ */
+class InFlightBulks {
+
+  private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+  private long lastStarted;
+
+  synchronized void started(long executionId) {
+    inFlight.add(executionId);
+    lastStarted = Math.max(lastStarted, executionId);
+  }
+
+  synchronized void completed(long executionId) {
+    inFlight.remove(executionId);
+    notifyAll();
+  }
+
+  /**
+   * Blocks until all bulks started before this call are completed.
+   */
+  synchronized void awaitStarted() {
+    long mark = lastStarted;
+    try {
+      while (!inFlight.isEmpty() && inFlight.first() <= mark) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JobsException("Interrupted while waiting for bulk responses", e);
+    }
+  }
+
+  synchronized int size() {
+    return inFlight.size();
+  }
+}
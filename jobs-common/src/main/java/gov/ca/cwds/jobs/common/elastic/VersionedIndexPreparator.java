@@ -0,0 +1,164 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.exception.JobsException;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.elasticsearch.index.IndexNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads initial load documents into a new timestamped index, e.g. facilities_20181017093000, while
+ * searchers keep using the index behind the alias. When the load is done and the new index has
+ * enough documents, the alias is atomically switched to it. Resumed initial load continues with the
+ * index recorded in the job state by the interrupted load. If there is no such index, e.g. the job
+ * state is not kept or the job resumes after a savepoint older than a month, documents are written
+ * to the alias: a new index would miss everything loaded before the savepoint.
+ *
+ * <p>Bulk indexing mode only applies to the new index: the index behind the alias keeps serving
+ * searches, so its refreshes and replicas are never turned off.</p>
+ */
+public class VersionedIndexPreparator extends BulkIndexingModePreparator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VersionedIndexPreparator.class);
+
+  private static final DateTimeFormatter INDEX_SUFFIX_FORMATTER = DateTimeFormatter
+      .ofPattern("yyyyMMddHHmmss");
+
+  @Inject(optional = true)
+  private JobStateStore jobStateStore;
+
+  /**
+   * Index the initial load of this run writes to, null if documents are written to the alias.
+   */
+  private String versionedIndex;
+
+  @Inject
+  public VersionedIndexPreparator(ElasticSearchIndexerDao elasticSearchIndexerDao,
+      BaseJobConfiguration configuration) {
+    super(elasticSearchIndexerDao, configuration);
+  }
+
+  @Override
+  public void prepare(JobMode jobMode) {
+    if (configuration.isNewIndexOnInitialLoad()) {
+      versionedIndex = jobMode == JobMode.INITIAL_LOAD_RESUME ? findResumableIndex()
+          : createVersionedIndex();
+      if (versionedIndex == null) {
+        LOGGER.warn("No index of an interrupted initial load is recorded, resumed initial load"
+            + " documents are written to alias {}", configuration.getElasticsearchAlias());
+      } else {
+        LOGGER.info("Initial load documents are written to index {}", versionedIndex);
+        elasticSearchIndexerDao.setIndexName(versionedIndex);
+      }
+    }
+    super.prepare(jobMode);
+  }
+
+  @Override
+  protected boolean isBulkIndexing() {
+    return super.isBulkIndexing() && versionedIndex != null;
+  }
+
+  @Override
+  public void complete(boolean successful) {
+    super.complete(successful);
+    if (versionedIndex == null) {
+      return;
+    }
+    try {
+      if (successful) {
+        switchAlias(versionedIndex);
+        recordInitialLoadIndex(null);
+      } else {
+        LOGGER.warn("Initial load has failed, alias {} is left unchanged. Index {} will be used"
+            + " to resume the load", configuration.getElasticsearchAlias(), versionedIndex);
+      }
+    } finally {
+      elasticSearchIndexerDao.setIndexName(null);
+      versionedIndex = null;
+    }
+  }
+
+  private String createVersionedIndex() {
+    String index = createIndexName(LocalDateTime.now());
+    elasticSearchIndexerDao.createIndex(index);
+    recordInitialLoadIndex(index);
+    return index;
+  }
+
+  private void recordInitialLoadIndex(String index) {
+    if (jobStateStore != null) {
+      jobStateStore.writeInitialLoadIndex(index);
+    }
+  }
+
+  private void switchAlias(String index) {
+    elasticSearchIndexerDao.refreshIndex();
+    validateDocumentsCount(index);
+    List<String> oldIndices = elasticSearchIndexerDao.switchAlias(index);
+    if (configuration.isDeleteOldIndex()) {
+      elasticSearchIndexerDao.deleteIndices(oldIndices);
+    }
+  }
+
+  private void validateDocumentsCount(String index) {
+    String alias = configuration.getElasticsearchAlias();
+    long newCount = elasticSearchIndexerDao.countDocuments(index);
+    long oldCount = countAliasDocuments(alias);
+    LOGGER.info("Index {} has {} documents, alias {} has {} documents", index, newCount, alias,
+        oldCount);
+    if (newCount < oldCount * configuration.getMinDocumentsRatio()) {
+      throw new JobsException(String.format(
+          "Index %s has %s documents, which is too few comparing to %s documents of alias %s",
+          index, newCount, oldCount, alias));
+    }
+  }
+
+  private long countAliasDocuments(String alias) {
+    try {
+      return elasticSearchIndexerDao.countDocuments(alias);
+    } catch (IndexNotFoundException e) {
+      LOGGER.info("Alias {} does not exist yet", alias, e);
+      return 0;
+    }
+  }
+
+  /**
+   * @return index recorded by the interrupted initial load if it still exists and is not behind
+   * the alias, null otherwise
+   */
+  private String findResumableIndex() {
+    if (jobStateStore == null) {
+      return null;
+    }
+    List<String> aliasIndices = elasticSearchIndexerDao.getAliasIndices();
+    return jobStateStore.readInitialLoadIndex()
+        .filter(index -> !aliasIndices.contains(index))
+        .filter(this::indexExists)
+        .orElse(null);
+  }
+
+  private boolean indexExists(String index) {
+    try {
+      return elasticSearchIndexerDao.getIndices(index).contains(index);
+    } catch (IndexNotFoundException e) {
+      LOGGER.warn("Index {} recorded by the interrupted initial load does not exist", index, e);
+      return false;
+    }
+  }
+
+  void setJobStateStore(JobStateStore jobStateStore) {
+    this.jobStateStore = jobStateStore;
+  }
+
+  String createIndexName(LocalDateTime timestamp) {
+    return configuration.getElasticsearchAlias() + "_" + INDEX_SUFFIX_FORMATTER.format(timestamp);
+  }
+}
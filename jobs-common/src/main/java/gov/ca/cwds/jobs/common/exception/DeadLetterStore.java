@@ -0,0 +1,168 @@
+package gov.ca.cwds.jobs.common.exception;
+
+import com.google.inject.Inject;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import gov.ca.cwds.jobs.common.Constants;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.inject.FailureBudget;
+import gov.ca.cwds.jobs.common.inject.LastRunDir;
+import gov.ca.cwds.jobs.common.job.timestamp.CheckpointStore;
+import gov.ca.cwds.rest.api.ApiException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps identifiers of entities which have failed to load together with the failure cause, so one
+ * bad record does not stop the whole job. Dead letters are kept in the last run directory until
+ * they are replayed successfully. The job is stopped when more entities than the failure budget
+ * fail during one run. The budget does not apply to the replay: it loads dead letters only, so
+ * failed again ones are kept for the next replay whatever the budget is.
+ */
+public class DeadLetterStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeadLetterStore.class);
+
+  private static final String DEAD_LETTERS_FILENAME = "DeadLetters.txt";
+  private static final String SEPARATOR = "\t";
+
+  private final Path file;
+
+  private final int failureBudget;
+
+  private final Map<String, String[]> deadLetters = new LinkedHashMap<>();
+
+  private final Set<String> failedInRun = new HashSet<>();
+
+  private boolean replaying;
+
+  @Inject
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //Path cannot be controlled by the user
+  public DeadLetterStore(@LastRunDir String outputDir, @FailureBudget int failureBudget) {
+    this.file = Paths.get(outputDir, DEAD_LETTERS_FILENAME).normalize().toAbsolutePath();
+    this.failureBudget = failureBudget;
+    read();
+  }
+
+  /**
+   * @return false if the job must stop on the first failure
+   */
+  public synchronized boolean isEnabled() {
+    return failureBudget > 0 || replaying;
+  }
+
+  /**
+   * Must be called before dead letters are replayed, so failed again ones are set aside even if
+   * the failure budget is 0.
+   */
+  public synchronized void startReplay() {
+    replaying = true;
+  }
+
+  /**
+   * @throws JobsException if the failure budget has been exceeded out of the replay
+   */
+  public synchronized void add(ChangedEntityIdentifier identifier, Throwable cause) {
+    LOGGER.error("Entity {} has failed to load and is kept as a dead letter", identifier.getId(),
+        cause);
+    deadLetters.put(identifier.getId(), new String[]{identifier.getId(),
+        identifier.getRecordChangeOperation().name(),
+        identifier.getTimestamp() == null ? ""
+            : identifier.getTimestamp().format(Constants.DATE_TIME_FORMATTER),
+        StringUtils.normalizeSpace(String.valueOf(cause))});
+    failedInRun.add(identifier.getId());
+    write();
+    if (!replaying && failedInRun.size() > failureBudget) {
+      throw new JobsException(String.format("Failure budget of %d entities has been exceeded",
+          failureBudget));
+    }
+  }
+
+  /**
+   * @return identifiers of all dead letters in the order they have failed
+   */
+  public synchronized List<ChangedEntityIdentifier> getIdentifiers() {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>(deadLetters.size());
+    for (String[] deadLetter : deadLetters.values()) {
+      identifiers.add(new ChangedEntityIdentifier(deadLetter[0],
+          RecordChangeOperation.valueOf(deadLetter[1]), deadLetter[2].isEmpty() ? null
+          : LocalDateTime.parse(deadLetter[2], Constants.DATE_TIME_FORMATTER)));
+    }
+    return identifiers;
+  }
+
+  /**
+   * @return failure cause of the dead letter, null if there is no such dead letter
+   */
+  public synchronized String getCause(String id) {
+    String[] deadLetter = deadLetters.get(id);
+    return deadLetter == null ? null : deadLetter[3];
+  }
+
+  /**
+   * Removes the replayed dead letters except ones which have failed again during this run.
+   */
+  public synchronized void removeReplayed(List<ChangedEntityIdentifier> identifiers) {
+    boolean removed = false;
+    for (ChangedEntityIdentifier identifier : identifiers) {
+      if (!failedInRun.contains(identifier.getId())) {
+        removed |= deadLetters.remove(identifier.getId()) != null;
+      }
+    }
+    if (removed) {
+      write();
+    }
+  }
+
+  /**
+   * @return number of entities failed during this run
+   */
+  public synchronized int getFailedInRunCount() {
+    return failedInRun.size();
+  }
+
+  private void read() {
+    if (!file.toFile().exists()) {
+      return;
+    }
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        if (!line.isEmpty()) {
+          String[] deadLetter = line.split(SEPARATOR, 4);
+          deadLetters.put(deadLetter[0], deadLetter);
+        }
+      }
+    } catch (IOException e) {
+      throw new ApiException("Can't read dead letters", e);
+    }
+    if (!deadLetters.isEmpty()) {
+      LOGGER.warn("{} dead letters are kept in {}", deadLetters.size(), file);
+    }
+  }
+
+  private void write() {
+    StringBuilder content = new StringBuilder();
+    for (String[] deadLetter : deadLetters.values()) {
+      content.append(String.join(SEPARATOR, deadLetter)).append('\n');
+    }
+    try {
+      CheckpointStore.writeAtomically(file, content.toString().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new ApiException("Can't write dead letters", e);
+    }
+  }
+
+}
@@ -2,8 +2,7 @@ package gov.ca.cwds.jobs.common.identifier;
 
 import gov.ca.cwds.jobs.common.RecordChangeOperation;
 import java.time.LocalDateTime;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Objects;
 
 /**
  * Created by Alexander Serbin on 3/5/2018.
@@ -27,8 +26,11 @@ public class ChangedEntityIdentifier {
     return id;
   }
 
-  public Integer getIntId() {
-    return Integer.valueOf(id);
+  /**
+   * @return numeric id, parsed without boxing
+   */
+  public int getIntId() {
+    return Integer.parseInt(id);
   }
 
   public void setId(String id) {
@@ -53,12 +55,24 @@ public class ChangedEntityIdentifier {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ChangedEntityIdentifier that = (ChangedEntityIdentifier) o;
+    return Objects.equals(id, that.id)
+        && recordChangeOperation == that.recordChangeOperation
+        && Objects.equals(timestamp, that.timestamp);
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    int result = Objects.hashCode(id);
+    result = 31 * result + Objects.hashCode(recordChangeOperation);
+    result = 31 * result + Objects.hashCode(timestamp);
+    return result;
   }
 
   @Override
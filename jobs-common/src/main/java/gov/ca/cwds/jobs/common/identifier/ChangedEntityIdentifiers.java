@@ -1,49 +1,99 @@
 package gov.ca.cwds.jobs.common.identifier;
 
 import gov.ca.cwds.jobs.common.RecordChangeOperation;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
-import org.drools.core.util.CompositeIterator;
 
 /**
  * Created by Alexander Serbin on 3/6/2018.
+ *
+ * <p>Identifiers are compacted as they are added: deletion overrides insertion and update,
+ * insertion overrides update, the latest change of the same kind wins. They are kept in {@link
+ * CompactIdentifiers} indexed by an open addressing table of positions, so nothing is allocated
+ * per identifier but the growth of arrays. Identifiers are streamed in the order their ids were
+ * first added.</p>
  */
 public class ChangedEntityIdentifiers {
 
-  protected HashMap<String, ChangedEntityIdentifier> toBeDeleted = new HashMap<>();
-  protected HashMap<String, ChangedEntityIdentifier> toBeInserted = new HashMap<>();
-  protected HashMap<String, ChangedEntityIdentifier> toBeUpdated = new HashMap<>();
+  private static final int EMPTY = -1;
+
+  private static final int INITIAL_TABLE_SIZE = 32;
+
+  private final CompactIdentifiers identifiers = new CompactIdentifiers();
+
+  private int[] positions = newTable(INITIAL_TABLE_SIZE);
 
   public void add(ChangedEntityIdentifier identifier) {
-    if (RecordChangeOperation.D == identifier.getRecordChangeOperation()) {
-      toBeDeleted.put(identifier.getId(), identifier);
-    } else if (RecordChangeOperation.I == identifier.getRecordChangeOperation()) {
-      toBeInserted.put(identifier.getId(), identifier);
-    } else if (RecordChangeOperation.U == identifier.getRecordChangeOperation()) {
-      toBeUpdated.put(identifier.getId(), identifier);
+    RecordChangeOperation operation = identifier.getRecordChangeOperation();
+    if (operation == null) {
+      return;
+    }
+    if ((identifiers.size() + 1) * 2 > positions.length) {
+      rehash(positions.length * 2);
+    }
+    int slot = findSlot(identifier.getId());
+    int position = positions[slot];
+    if (position == EMPTY) {
+      positions[slot] = identifiers.size();
+      identifiers.add(identifier);
+    } else if (priority(operation) >= priority(identifiers.getOperation(position))) {
+      identifiers.update(position, operation, identifier.getTimestamp());
     }
   }
 
-  private Iterable<ChangedEntityIdentifier> newIterable() {
-    compact();
-    return () -> new CompositeIterator<>(
-        toBeDeleted.values().iterator(),
-        toBeInserted.values().iterator(),
-        toBeUpdated.values().iterator()
-    );
+  public Stream<ChangedEntityIdentifier> newStream() {
+    return identifiers.stream();
   }
 
-  public Stream<ChangedEntityIdentifier> newStream() {
-    return StreamSupport.stream(this.newIterable().spliterator(), false);
+  public int size() {
+    return identifiers.size();
+  }
+
+  private int findSlot(String id) {
+    int mask = positions.length - 1;
+    int slot = mix(id.hashCode()) & mask;
+    while (positions[slot] != EMPTY && !identifiers.idEquals(positions[slot], id)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
   }
 
-  private void compact() {
-    toBeDeleted.forEach((id, e) -> {
-      toBeInserted.remove(id);
-      toBeUpdated.remove(id);
-    });
-    toBeInserted.forEach((id, e) -> toBeUpdated.remove(id));
+  private void rehash(int tableSize) {
+    int[] table = newTable(tableSize);
+    int mask = tableSize - 1;
+    for (int position = 0; position < identifiers.size(); position++) {
+      int slot = mix(identifiers.idHashCode(position)) & mask;
+      while (table[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = position;
+    }
+    positions = table;
+  }
+
+  private static int[] newTable(int size) {
+    int[] table = new int[size];
+    Arrays.fill(table, EMPTY);
+    return table;
+  }
+
+  /**
+   * Spreads higher bits of string hash codes, ids often differ in their last characters only.
+   */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int priority(RecordChangeOperation operation) {
+    switch (operation) {
+      case D:
+        return 2;
+      case I:
+        return 1;
+      default:
+        return 0;
+    }
   }
 
 }
@@ -0,0 +1,198 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * List of identifiers kept in parallel primitive arrays: characters of all ids in one array,
+ * operation codes, and timestamps as epoch seconds and nanoseconds. No object is kept per
+ * identifier, {@link #get(int)} creates a new one on every call.
+ *
+ * <p>Timestamps are not truncated to milliseconds, keyset pages seek by exact database
+ * timestamps. Elements can be appended and replaced only.</p>
+ */
+public final class CompactIdentifiers extends AbstractList<ChangedEntityIdentifier> implements
+    RandomAccess {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * Identifiers of CWS/CMS are 10 characters long.
+   */
+  private static final int EXPECTED_ID_LENGTH = 10;
+
+  private static final RecordChangeOperation[] OPERATIONS = RecordChangeOperation.values();
+
+  private static final byte NO_OPERATION = -1;
+
+  private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  private char[] idChars;
+
+  private int idCharsSize;
+
+  private int[] idStarts;
+
+  private int[] idEnds;
+
+  private byte[] operations;
+
+  private long[] epochSeconds;
+
+  private int[] nanos;
+
+  private int size;
+
+  public CompactIdentifiers() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public CompactIdentifiers(int capacity) {
+    int initialCapacity = Math.max(capacity, 1);
+    idChars = new char[initialCapacity * EXPECTED_ID_LENGTH];
+    idStarts = new int[initialCapacity];
+    idEnds = new int[initialCapacity];
+    operations = new byte[initialCapacity];
+    epochSeconds = new long[initialCapacity];
+    nanos = new int[initialCapacity];
+  }
+
+  public static CompactIdentifiers copyOf(Collection<ChangedEntityIdentifier> identifiers) {
+    CompactIdentifiers compactIdentifiers = new CompactIdentifiers(identifiers.size());
+    compactIdentifiers.addAll(identifiers);
+    return compactIdentifiers;
+  }
+
+  @Override
+  public ChangedEntityIdentifier get(int index) {
+    checkIndex(index);
+    return new ChangedEntityIdentifier(getId(index), getOperation(index), getTimestamp(index));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean add(ChangedEntityIdentifier identifier) {
+    ensureCapacity(size + 1);
+    idStarts[size] = idCharsSize;
+    idEnds[size] = appendId(identifier.getId());
+    update(size, identifier.getRecordChangeOperation(), identifier.getTimestamp());
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public void add(int index, ChangedEntityIdentifier identifier) {
+    if (index != size) {
+      throw new UnsupportedOperationException("Identifiers can be appended only");
+    }
+    add(identifier);
+  }
+
+  /**
+   * Characters of a different id are appended, the replaced ones are not reused.
+   */
+  @Override
+  public ChangedEntityIdentifier set(int index, ChangedEntityIdentifier identifier) {
+    ChangedEntityIdentifier previous = get(index);
+    if (!idEquals(index, identifier.getId())) {
+      idStarts[index] = idCharsSize;
+      idEnds[index] = appendId(identifier.getId());
+    }
+    update(index, identifier.getRecordChangeOperation(), identifier.getTimestamp());
+    return previous;
+  }
+
+  public String getId(int index) {
+    checkIndex(index);
+    return new String(idChars, idStarts[index], idEnds[index] - idStarts[index]);
+  }
+
+  public RecordChangeOperation getOperation(int index) {
+    checkIndex(index);
+    return operations[index] == NO_OPERATION ? null : OPERATIONS[operations[index]];
+  }
+
+  public LocalDateTime getTimestamp(int index) {
+    checkIndex(index);
+    return epochSeconds[index] == NO_TIMESTAMP ? null
+        : LocalDateTime.ofEpochSecond(epochSeconds[index], nanos[index], ZoneOffset.UTC);
+  }
+
+  /**
+   * Compares the id without creating a string.
+   */
+  boolean idEquals(int index, String id) {
+    int start = idStarts[index];
+    int length = idEnds[index] - start;
+    if (length != id.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (idChars[start + i] != id.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the same hash code as {@link String#hashCode()} of the id
+   */
+  int idHashCode(int index) {
+    int hash = 0;
+    for (int i = idStarts[index]; i < idEnds[index]; i++) {
+      hash = 31 * hash + idChars[i];
+    }
+    return hash;
+  }
+
+  void update(int index, RecordChangeOperation operation, LocalDateTime timestamp) {
+    operations[index] = operation == null ? NO_OPERATION : (byte) operation.ordinal();
+    if (timestamp == null) {
+      epochSeconds[index] = NO_TIMESTAMP;
+      nanos[index] = 0;
+    } else {
+      epochSeconds[index] = timestamp.toEpochSecond(ZoneOffset.UTC);
+      nanos[index] = timestamp.getNano();
+    }
+  }
+
+  private int appendId(String id) {
+    int length = id.length();
+    if (idCharsSize + length > idChars.length) {
+      idChars = Arrays.copyOf(idChars, Math.max(idChars.length * 2, idCharsSize + length));
+    }
+    id.getChars(0, length, idChars, idCharsSize);
+    idCharsSize += length;
+    return idCharsSize;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= idStarts.length) {
+      return;
+    }
+    int newCapacity = Math.max(idStarts.length * 2, capacity);
+    idStarts = Arrays.copyOf(idStarts, newCapacity);
+    idEnds = Arrays.copyOf(idEnds, newCapacity);
+    operations = Arrays.copyOf(operations, newCapacity);
+    epochSeconds = Arrays.copyOf(epochSeconds, newCapacity);
+    nanos = Arrays.copyOf(nanos, newCapacity);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+}
@@ -0,0 +1,14 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import java.util.Iterator;
+
+/**
+ * Identifiers read lazily from an open database cursor. There are no more identifiers once the
+ * cursor is closed, it is closed by itself when exhausted.
+ */
+public interface IdentifiersCursor extends Iterator<ChangedEntityIdentifier>, AutoCloseable {
+
+  @Override
+  void close();
+
+}
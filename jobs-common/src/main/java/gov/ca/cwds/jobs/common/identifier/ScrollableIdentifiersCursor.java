@@ -0,0 +1,109 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+
+/**
+ * Cursor over forward-only scrollable results of a read-only query. The query runs in its own
+ * stateless session, so nothing read is kept by the session however many identifiers the load
+ * has. The transaction is rolled back and the session is closed with the cursor.
+ *
+ * @param <T> query result type
+ */
+public final class ScrollableIdentifiersCursor<T> implements IdentifiersCursor {
+
+  private final StatelessSession session;
+
+  private final ScrollableResults results;
+
+  private final Function<T, ChangedEntityIdentifier> mapper;
+
+  private ChangedEntityIdentifier next;
+
+  private boolean closed;
+
+  private ScrollableIdentifiersCursor(StatelessSession session, ScrollableResults results,
+      Function<T, ChangedEntityIdentifier> mapper) {
+    this.session = session;
+    this.results = results;
+    this.mapper = mapper;
+  }
+
+  /**
+   * @param queryCreator creates the query in the session of the cursor
+   * @param fetchSize JDBC fetch size of the query
+   * @param mapper maps query results to identifiers
+   */
+  public static <T> IdentifiersCursor open(SessionFactory sessionFactory,
+      Function<StatelessSession, Query<T>> queryCreator, int fetchSize,
+      Function<T, ChangedEntityIdentifier> mapper) {
+    StatelessSession session = sessionFactory.openStatelessSession();
+    try {
+      session.beginTransaction();
+      ScrollableResults results = queryCreator.apply(session)
+          .setReadOnly(true)
+          .setFetchSize(fetchSize)
+          .scroll(ScrollMode.FORWARD_ONLY);
+      return new ScrollableIdentifiersCursor<>(session, results, mapper);
+    } catch (RuntimeException e) {
+      closeSession(session);
+      throw e;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean hasNext() {
+    if (next == null && !closed) {
+      if (results.next()) {
+        next = mapper.apply((T) results.get(0));
+      } else {
+        close();
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public ChangedEntityIdentifier next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    ChangedEntityIdentifier identifier = next;
+    next = null;
+    return identifier;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    next = null;
+    try {
+      results.close();
+    } finally {
+      closeSession(session);
+    }
+  }
+
+  private static void closeSession(StatelessSession session) {
+    try {
+      Transaction transaction = session.getTransaction();
+      if (transaction != null && transaction.isActive()) {
+        // nothing has been changed
+        transaction.rollback();
+      }
+    } finally {
+      session.close();
+    }
+  }
+
+}
@@ -7,8 +7,12 @@ import gov.ca.cwds.jobs.common.BaseJobConfiguration;
 import gov.ca.cwds.jobs.common.batch.JobBatchIterator;
 import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
 import gov.ca.cwds.jobs.common.config.JobOptions;
+import gov.ca.cwds.jobs.common.elastic.DocumentHashIndex;
+import gov.ca.cwds.jobs.common.exception.DeadLetterStore;
 import gov.ca.cwds.jobs.common.job.JobPreparator;
 import gov.ca.cwds.jobs.common.job.timestamp.FilesystemTimestampOperator;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
+import gov.ca.cwds.jobs.common.job.timestamp.MVStoreTimestampOperator;
 import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
 
 /**
@@ -49,7 +53,15 @@ public abstract class AbstractBaseJobModule extends AbstractModule {
   protected void configure() {
     bind(JobOptions.class).toInstance(jobOptions);
     bindConstant().annotatedWith(LastRunDir.class).to(jobOptions.getLastRunLoc());
-    bind(TimestampOperator.class).to(FilesystemTimestampOperator.class).asEagerSingleton();
+    if (getJobsConfiguration(jobOptions).isJobStateDatabase()) {
+      bind(MVStoreTimestampOperator.class).asEagerSingleton();
+      bind(TimestampOperator.class).to(MVStoreTimestampOperator.class);
+      bind(JobStateStore.class).to(MVStoreTimestampOperator.class);
+    } else {
+      bind(TimestampOperator.class).to(FilesystemTimestampOperator.class).asEagerSingleton();
+    }
+    bind(DeadLetterStore.class).asEagerSingleton();
+    bind(DocumentHashIndex.class).asEagerSingleton();
     bind(JobPreparator.class).to(jobPreparatorClass);
     bindConstant().annotatedWith(JobBatchSize.class)
         .to(getJobsConfiguration(jobOptions).getBatchSize());
@@ -57,6 +69,22 @@ public abstract class AbstractBaseJobModule extends AbstractModule {
         .to(getJobsConfiguration(jobOptions).getElasticSearchBulkSize());
     bindConstant().annotatedWith(ReaderThreadsCount.class)
         .to(getJobsConfiguration(jobOptions).getReaderThreadsCount());
+    bindConstant().annotatedWith(KeysetPagination.class)
+        .to(getJobsConfiguration(jobOptions).isKeysetPagination());
+    bindConstant().annotatedWith(StreamingIdentifiers.class)
+        .to(getJobsConfiguration(jobOptions).isStreamingIdentifiers());
+    bindConstant().annotatedWith(PipelineQueueSize.class)
+        .to(getJobsConfiguration(jobOptions).getPipelineQueueSize());
+    bindConstant().annotatedWith(InitialLoadPartitions.class)
+        .to(getJobsConfiguration(jobOptions).getInitialLoadPartitions());
+    bindConstant().annotatedWith(FailureBudget.class)
+        .to(getJobsConfiguration(jobOptions).getFailureBudget());
+    bindConstant().annotatedWith(ReplayDeadLetters.class)
+        .to(jobOptions.isReplayDeadLetters());
+    bindConstant().annotatedWith(SkipUnchangedDocuments.class)
+        .to(getJobsConfiguration(jobOptions).isSkipUnchangedDocuments());
+    bindConstant().annotatedWith(ProgressReportInterval.class)
+        .to(getJobsConfiguration(jobOptions).getProgressReportInterval());
     if (elasticSearchModule != null) {
       install(elasticSearchModule);
     } else {
@@ -1,13 +1,33 @@
 package gov.ca.cwds.jobs.common.inject;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartitioner;
 import gov.ca.cwds.jobs.common.batch.JobBatch;
 import gov.ca.cwds.jobs.common.batch.JobBatchIterator;
+import gov.ca.cwds.jobs.common.elastic.DocumentHashIndex;
 import gov.ca.cwds.jobs.common.elastic.ElasticSearchBulkCollector;
+import gov.ca.cwds.jobs.common.exception.DeadLetterStore;
 import gov.ca.cwds.jobs.common.exception.JobExceptionHandler;
 import gov.ca.cwds.jobs.common.exception.JobsException;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.job.InitialLoadIndexPreparator;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
 import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +38,8 @@ public class BatchProcessor<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcessor.class);
 
+  private static final JobBatch END_OF_BATCHES = new JobBatch(Collections.emptyList());
+
   @Inject
   private ElasticSearchBulkCollector<T> elasticSearchBulkCollector;
 
@@ -30,12 +52,113 @@ public class BatchProcessor<T> {
   @Inject
   private TimestampOperator timestampOperator;
 
+  @Inject
+  @PipelineQueueSize
+  private int pipelineQueueSize;
+
+  @Inject(optional = true)
+  private InitialLoadIndexPreparator initialLoadIndexPreparator;
+
+  @Inject
+  private JobProgressReporter jobProgressReporter;
+
+  @Inject
+  private InitialLoadPartitioner initialLoadPartitioner;
+
+  @Inject(optional = true)
+  private JobStateStore jobStateStore;
+
+  @Inject
+  private DeadLetterStore deadLetterStore;
+
+  @Inject
+  private DocumentHashIndex documentHashIndex;
+
+  @Inject
+  @ReplayDeadLetters
+  private boolean replayDeadLetters;
+
+  @Inject
+  @JobBatchSize
+  private int batchSize;
+
+  private JobMode jobMode;
+
   public void init() {
-    batchIterator.init();
+    if (replayDeadLetters) {
+      jobMode = JobMode.DEAD_LETTERS_REPLAY;
+      deadLetterStore.startReplay();
+    } else {
+      batchIterator.init();
+      jobMode = batchIterator.getJobMode();
+    }
+    initialLoadPartitioner.init(jobMode);
+    documentHashIndex.init(jobMode);
+    if (jobStateStore != null) {
+      jobStateStore.runStarted(jobMode);
+    }
+    jobProgressReporter.init(jobMode);
     batchReadersPool.init(elasticSearchBulkCollector);
   }
 
+  /**
+   * @return job mode defined by {@link #init()}
+   */
+  public JobMode getJobMode() {
+    return jobMode;
+  }
+
   public void processBatches() {
+    JobMode jobMode = initialLoadPartitioner.isResumed() ? JobMode.INITIAL_LOAD_RESUME
+        : this.jobMode;
+    boolean initialLoad = initialLoadIndexPreparator != null && isInitialLoad(jobMode);
+    if (initialLoad) {
+      initialLoadIndexPreparator.prepare(jobMode);
+    }
+    boolean successful = false;
+    try {
+      if (jobMode == JobMode.DEAD_LETTERS_REPLAY) {
+        replayDeadLetters();
+      } else if (initialLoadPartitioner.isPartitioned()) {
+        processPartitions();
+      } else if (pipelineQueueSize > 0) {
+        processBatchesPipelined();
+      } else {
+        processBatchesSequentially();
+      }
+      successful = !JobExceptionHandler.isExceptionHappened();
+      if (deadLetterStore.getFailedInRunCount() > 0) {
+        LOGGER.warn("{} entities have failed to load and are kept as dead letters",
+            deadLetterStore.getFailedInRunCount());
+      }
+    } finally {
+      completeRun(initialLoad, successful);
+    }
+  }
+
+  /**
+   * The run is recorded as finished even if the initial load index can't be completed, e.g. the
+   * new index has too few documents to switch the alias to it.
+   */
+  private void completeRun(boolean initialLoad, boolean successful) {
+    boolean completed = false;
+    try {
+      if (initialLoad) {
+        initialLoadIndexPreparator.complete(successful);
+      }
+      completed = true;
+    } finally {
+      if (jobStateStore != null) {
+        jobStateStore.runFinished(successful && completed);
+      }
+    }
+  }
+
+  private static boolean isInitialLoad(JobMode jobMode) {
+    return jobMode == JobMode.INITIAL_LOAD || jobMode == JobMode.INITIAL_LOAD_RESUME;
+  }
+
+  private void processBatchesSequentially() {
     JobTimeReport jobTimeReport = new JobTimeReport();
     List<JobBatch> portion = batchIterator.getNextPortion();
     do {
@@ -50,6 +173,34 @@ public class BatchProcessor<T> {
     jobTimeReport.printTimeSpent();
   }
 
+  /**
+   * Dead letters are processed in batches without timestamps, so the job timestamp is not moved.
+   * Dead letters failed again are kept for the next replay, the failure budget does not apply.
+   * Identifiers of batches failed since the last successful run are replayed as well, they are
+   * forgotten once the replay has been successful.
+   */
+  private void replayDeadLetters() {
+    JobTimeReport jobTimeReport = new JobTimeReport();
+    List<ChangedEntityIdentifier> deadLetters = deadLetterStore.getIdentifiers();
+    int deadLettersCount = deadLetters.size();
+    if (jobStateStore != null) {
+      Set<String> deadLetterIds = deadLetters.stream().map(ChangedEntityIdentifier::getId)
+          .collect(Collectors.toSet());
+      jobStateStore.readFailedIdentifiers().stream()
+          .filter(identifier -> !deadLetterIds.contains(identifier.getId()))
+          .forEach(deadLetters::add);
+    }
+    LOGGER.info("Replaying {} dead letters and {} identifiers of failed batches",
+        deadLettersCount, deadLetters.size() - deadLettersCount);
+    for (int from = 0; from < deadLetters.size(); from += batchSize) {
+      JobBatch jobBatch = new JobBatch(new ArrayList<>(
+          deadLetters.subList(from, Math.min(from + batchSize, deadLetters.size()))));
+      processBatch(jobBatch);
+      deadLetterStore.removeReplayed(jobBatch.getChangedEntityIdentifiers());
+    }
+    jobTimeReport.printTimeSpent();
+  }
+
   private void printPortionInformation(List<JobBatch> portion) {
     LOGGER.info("New portion: {} batches", portion.size());
     for (int i = 0; i < portion.size(); i++) {
@@ -58,13 +209,186 @@ public class BatchProcessor<T> {
     }
   }
 
+  /**
+   * Runs identifiers prefetch and entities loading in background stages connected by bounded
+   * queues, while the calling thread writes loaded batches and commits their timestamps. Every
+   * stage handles batches one by one in the iterator order, so a timestamp is committed only after
+   * all preceding batches have been written.
+   */
+  private void processBatchesPipelined() {
+    JobTimeReport jobTimeReport = new JobTimeReport();
+    BlockingQueue<JobBatch> batchesQueue = new ArrayBlockingQueue<>(pipelineQueueSize);
+    BlockingQueue<LoadedBatch<T>> loadedBatchesQueue = new ArrayBlockingQueue<>(pipelineQueueSize);
+    ExecutorService stages = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> prefetchStage = stages.submit(() -> prefetchBatches(batchesQueue));
+      Future<?> loadStage = stages.submit(() -> loadBatches(batchesQueue, loadedBatchesQueue));
+      LoadedBatch<T> loadedBatch = take(loadedBatchesQueue);
+      while (loadedBatch != LoadedBatch.END) {
+        writeBatch(loadedBatch);
+        loadedBatch = take(loadedBatchesQueue);
+      }
+      checkStage(loadStage);
+      checkStage(prefetchStage);
+    } finally {
+      stages.shutdownNow();
+    }
+    jobTimeReport.printTimeSpent();
+  }
+
+  private void prefetchBatches(BlockingQueue<JobBatch> batchesQueue) {
+    try {
+      List<JobBatch> portion = batchIterator.getNextPortion();
+      while (!portion.isEmpty()) {
+        if (LOGGER.isInfoEnabled()) {
+          printPortionInformation(portion);
+        }
+        for (JobBatch jobBatch : portion) {
+          put(batchesQueue, jobBatch);
+        }
+        portion = batchIterator.getNextPortion();
+      }
+    } finally {
+      put(batchesQueue, END_OF_BATCHES);
+    }
+  }
+
+  private void loadBatches(BlockingQueue<JobBatch> batchesQueue,
+      BlockingQueue<LoadedBatch<T>> loadedBatchesQueue) {
+    try {
+      JobBatch jobBatch = take(batchesQueue);
+      while (jobBatch != END_OF_BATCHES) {
+        put(loadedBatchesQueue, new LoadedBatch<>(jobBatch,
+            batchReadersPool.readEntities(jobBatch.getChangedEntityIdentifiers())));
+        jobBatch = take(batchesQueue);
+      }
+    } finally {
+      put(loadedBatchesQueue, LoadedBatch.end());
+    }
+  }
+
+  private void writeBatch(LoadedBatch<T> loadedBatch) {
+    loadedBatch.entities.forEach(elasticSearchBulkCollector::addEntity);
+    elasticSearchBulkCollector.flush();
+    commitBatch(loadedBatch.jobBatch);
+  }
+
+  /**
+   * Every partition is read and written by its own worker while entities are loaded by the shared
+   * readers pool. A partition savepoint is recorded after its page has been written, so a crashed
+   * load resumes every partition after its own savepoint. Every worker buffers entities in its own
+   * collector, so a flush of one partition never writes pages of the others.
+   *
+   * <p>Document hashes are recorded by all workers into the same hash index, so a page savepoint
+   * can't commit them without committing hashes of pages other partitions haven't had
+   * acknowledged yet. They are committed once every partition has been written, a failed load
+   * leaves none of them, and the next incremental load writes those documents again.</p>
+   */
+  private void processPartitions() {
+    JobTimeReport jobTimeReport = new JobTimeReport();
+    List<InitialLoadPartition> partitions = initialLoadPartitioner.getPartitions().stream()
+        .filter(partition -> !partition.isCompleted()).collect(Collectors.toList());
+    if (!partitions.isEmpty()) {
+      ExecutorService workers = Executors.newFixedThreadPool(partitions.size());
+      try {
+        List<Future<?>> futures = new ArrayList<>(partitions.size());
+        for (InitialLoadPartition partition : partitions) {
+          futures.add(workers.submit(() -> processPartition(partition)));
+        }
+        for (Future<?> future : futures) {
+          checkStage(future);
+        }
+      } finally {
+        workers.shutdownNow();
+      }
+    }
+    documentHashIndex.commit();
+    initialLoadPartitioner.complete();
+    jobTimeReport.printTimeSpent();
+  }
+
+  private void processPartition(InitialLoadPartition partition) {
+    LOGGER.info("Processing {}", partition);
+    ElasticSearchBulkCollector<T> partitionCollector = elasticSearchBulkCollector.newCollector();
+    List<ChangedEntityIdentifier> page = initialLoadPartitioner.getNextPage(partition);
+    while (!page.isEmpty()) {
+      batchReadersPool.readEntities(page).forEach(partitionCollector::addEntity);
+      partitionCollector.flush();
+      commitPartitionPage(partitionCollector, partition, page);
+      page = initialLoadPartitioner.getNextPage(partition);
+    }
+    initialLoadPartitioner.completePartition(partition);
+    LOGGER.info("Partition {} has been processed", partition.getNumber());
+  }
+
+  private void commitPartitionPage(ElasticSearchBulkCollector<T> partitionCollector,
+      InitialLoadPartition partition, List<ChangedEntityIdentifier> page) {
+    partitionCollector.awaitWritten();
+    if (JobExceptionHandler.isExceptionHappened()) {
+      LOGGER.error("Exception occured during batch processing. Job has been terminated." +
+          " Save point of partition {} has not been recorded", partition.getNumber());
+      documentHashIndex.rollback();
+      if (jobStateStore != null) {
+        jobStateStore.batchFailed(new JobBatch(page));
+      }
+      throw new JobsException("Exception occured during batch processing");
+    }
+    try (Timer.Context ignored = JobMetrics.timer(JobMetrics.SAVEPOINT_WRITE).time()) {
+      initialLoadPartitioner.commitPage(partition, page);
+    }
+    if (jobStateStore != null) {
+      jobStateStore.batchCommitted(new JobBatch(page));
+    }
+    JobMetrics.meter(JobMetrics.BATCHES_COMMITTED).mark();
+    jobProgressReporter.batchCommitted(page.size());
+  }
+
+  private static void checkStage(Future<?> stage) {
+    try {
+      stage.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JobsException("Batch processing has been interrupted", e);
+    } catch (ExecutionException e) {
+      throw new JobsException("Exception occured during batch processing", e.getCause());
+    }
+  }
+
+  private static <E> E take(BlockingQueue<E> queue) {
+    try {
+      return queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JobsException("Batch processing has been interrupted", e);
+    }
+  }
+
+  private static <E> void put(BlockingQueue<E> queue, E element) {
+    try {
+      queue.put(element);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JobsException("Batch processing has been interrupted", e);
+    }
+  }
+
   private void processBatch(JobBatch jobBatch) {
     batchReadersPool.loadEntities(jobBatch.getChangedEntityIdentifiers());
+    commitBatch(jobBatch);
+  }
+
+  private void commitBatch(JobBatch jobBatch) {
+    elasticSearchBulkCollector.awaitWritten();
     if (!JobExceptionHandler.isExceptionHappened()) {
-      timestampOperator.writeTimestamp(jobBatch.getTimestamp());
-      if (LOGGER.isInfoEnabled()) {
-//          jobTimeReport.printTimeReport(portionBatchNumber);
+      try (Timer.Context ignored = JobMetrics.timer(JobMetrics.SAVEPOINT_WRITE).time()) {
+        documentHashIndex.commit();
+        timestampOperator.writeTimestamp(jobBatch.getTimestamp());
+      }
+      if (jobStateStore != null) {
+        jobStateStore.batchCommitted(jobBatch);
       }
+      JobMetrics.meter(JobMetrics.BATCHES_COMMITTED).mark();
+      jobProgressReporter.batchCommitted(jobBatch.getSize());
       if (!jobBatch.isEmptyTimestamp()) {
         LOGGER.info("Save point has been reached. Save point batch timestamp is {}",
             jobBatch.getTimestamp());
@@ -72,13 +396,41 @@ public class BatchProcessor<T> {
     } else {
       LOGGER.error("Exception occured during batch processing. Job has been terminated." +
           " Batch timestamp {} has not been recorded", jobBatch.getTimestamp());
+      documentHashIndex.rollback();
+      if (jobStateStore != null) {
+        jobStateStore.batchFailed(jobBatch);
+      }
       throw new JobsException("Exception occured during batch processing");
     }
 
   }
 
+  private static final class LoadedBatch<T> {
+
+    private static final LoadedBatch<?> END = new LoadedBatch<>(END_OF_BATCHES,
+        Collections.emptyList());
+
+    private final JobBatch jobBatch;
+    private final List<T> entities;
+
+    private LoadedBatch(JobBatch jobBatch, List<T> entities) {
+      this.jobBatch = jobBatch;
+      this.entities = entities;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> LoadedBatch<T> end() {
+      return (LoadedBatch<T>) END;
+    }
+  }
+
   public void destroy() {
+    batchIterator.destroy();
     batchReadersPool.destroy();
     elasticSearchBulkCollector.destroy();
+    documentHashIndex.close();
+    if (jobStateStore != null) {
+      jobStateStore.close();
+    }
   }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package gov.ca.cwds.jobs.common.inject;
 
+import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import gov.ca.cwds.jobs.common.api.ChangedEntityService;
 import gov.ca.cwds.jobs.common.elastic.ElasticSearchBulkCollector;
+import gov.ca.cwds.jobs.common.exception.DeadLetterStore;
 import gov.ca.cwds.jobs.common.exception.JobsException;
 import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +34,9 @@ public class BatchReadersPool<T> {
   @Inject
   private ChangedEntityService<T> changedEntitiesService;
 
+  @Inject(optional = true)
+  private DeadLetterStore deadLetterStore;
+
   private ExecutorService executorService;
 
   private ElasticSearchBulkCollector<T> elasticSearchBulkCollector;
@@ -42,14 +50,74 @@ public class BatchReadersPool<T> {
   }
 
   public void loadEntities(List<ChangedEntityIdentifier> changedEntityIdentifiers) {
-    List<Future> futures = changedEntityIdentifiers.parallelStream().
-        map(identifier -> (Runnable) () -> elasticSearchBulkCollector.addEntity(
-            changedEntitiesService.loadEntity(identifier)))
-        .map(executorService::submit)
-        .collect(Collectors.toList());
-    for (Future future : futures) {
+    List<Future<List<T>>> futures = submitIdentifiers(changedEntityIdentifiers,
+        identifier -> {
+          List<T> entities = loadEntityOf(identifier);
+          entities.forEach(elasticSearchBulkCollector::addEntity);
+          return entities;
+        });
+    getLoadedEntities(futures);
+    elasticSearchBulkCollector.flush();
+  }
+
+  /**
+   * Loads entities in parallel without passing them to the bulk collector.
+   *
+   * @return loaded entities in the order of identifiers
+   */
+  public List<T> readEntities(List<ChangedEntityIdentifier> changedEntityIdentifiers) {
+    return getLoadedEntities(
+        submitIdentifiers(changedEntityIdentifiers, this::loadEntityOf));
+  }
+
+  /**
+   * If the entity fails to load and dead letters are enabled, it is passed to the dead letters, so
+   * the rest of the batch is still written.
+   *
+   * @return the loaded entity, empty if it has been set aside as a dead letter
+   */
+  private List<T> loadEntityOf(ChangedEntityIdentifier identifier) {
+    try {
+      return Collections.singletonList(loadEntity(identifier));
+    } catch (RuntimeException e) {
+      if (deadLetterStore == null || !deadLetterStore.isEnabled()) {
+        throw e;
+      }
+      deadLetterStore.add(identifier, e);
+      return Collections.emptyList();
+    }
+  }
+
+  private T loadEntity(ChangedEntityIdentifier identifier) {
+    try (Timer.Context ignored = JobMetrics.timer(JobMetrics.ENTITY_LOAD).time()) {
+      return changedEntitiesService.loadEntity(identifier);
+    }
+  }
+
+  /**
+   * Every identifier is a task of its own, so a slow entity holds up one reader thread only.
+   */
+  private List<Future<List<T>>> submitIdentifiers(List<ChangedEntityIdentifier> identifiers,
+      Function<ChangedEntityIdentifier, List<T>> entityLoader) {
+    List<Future<List<T>>> futures = new ArrayList<>(identifiers.size());
+    for (ChangedEntityIdentifier identifier : identifiers) {
+      futures.add(executorService.submit(() -> loadIdentifier(identifier, entityLoader)));
+    }
+    return futures;
+  }
+
+  private List<T> loadIdentifier(ChangedEntityIdentifier identifier,
+      Function<ChangedEntityIdentifier, List<T>> entityLoader) {
+    List<T> entities = entityLoader.apply(identifier);
+    JobMetrics.meter(JobMetrics.ENTITIES_LOADED).mark(entities.size());
+    return entities;
+  }
+
+  private List<T> getLoadedEntities(List<Future<List<T>>> futures) {
+    List<T> entities = new ArrayList<>();
+    for (Future<List<T>> future : futures) {
       try {
-        future.get();
+        entities.addAll(future.get());
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         throw new JobsException("Can't load entities", e);
@@ -57,7 +125,7 @@ public class BatchReadersPool<T> {
         throw new JobsException("Can't load entities", e);
       }
     }
-    elasticSearchBulkCollector.flush();
+    return entities;
   }
 
   public void destroy() {
@@ -3,7 +3,9 @@ package gov.ca.cwds.jobs.common.inject;
 import com.google.inject.AbstractModule;
 import gov.ca.cwds.jobs.common.BaseJobConfiguration;
 import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.elastic.VersionedIndexPreparator;
 import gov.ca.cwds.jobs.common.elastic.ElasticUtils;
+import gov.ca.cwds.jobs.common.job.InitialLoadIndexPreparator;
 import org.elasticsearch.client.Client;
 
 /**
@@ -23,6 +25,7 @@ public class ElasticSearchModule extends AbstractModule {
         .createAndConfigureESClient(configuration); //must be closed when the job done
     bind(Client.class).toInstance(client);
     bind(ElasticSearchIndexerDao.class).toInstance(createElasticSearchDao(client, configuration));
+    bind(InitialLoadIndexPreparator.class).to(VersionedIndexPreparator.class);
   }
 
   private ElasticSearchIndexerDao createElasticSearchDao(Client client,
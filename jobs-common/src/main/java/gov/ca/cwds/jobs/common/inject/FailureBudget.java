@@ -0,0 +1,18 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import com.google.inject.BindingAnnotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Number of entities which can fail to load during a job run, failed entities are kept as dead
+ * letters. The job stops on the first failure if not positive.
+ */
+@BindingAnnotation
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FailureBudget {
+
+}
@@ -0,0 +1,18 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import com.google.inject.BindingAnnotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Number of identifier ranges the initial load is processed in parallel by, initial load is not
+ * partitioned if less than 2.
+ */
+@BindingAnnotation
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InitialLoadPartitions {
+
+}
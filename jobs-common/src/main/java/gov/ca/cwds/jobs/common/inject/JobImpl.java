@@ -1,6 +1,7 @@
 package gov.ca.cwds.jobs.common.inject;
 
 import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.JobMode;
 import gov.ca.cwds.jobs.common.exception.JobExceptionHandler;
 import gov.ca.cwds.jobs.common.job.Job;
 import gov.ca.cwds.jobs.common.job.JobPreparator;
@@ -26,20 +27,27 @@ public class JobImpl<T> implements Job {
   @Inject
   private JobPreparator jobPreparator;
 
+  @Inject
+  private JobMetricsReporter jobMetricsReporter;
+
   @Override
   public void run() {
+    jobMetricsReporter.start();
     try {
       jobPreparator.run();
       batchProcessor.init();
       batchProcessor.processBatches();
-      LocalDateTime now = LocalDateTime.now();
-      timestampOperator.writeTimestamp(now);
-      if (LOGGER.isInfoEnabled()) {
+      if (batchProcessor.getJobMode() != JobMode.DEAD_LETTERS_REPLAY) {
+        LocalDateTime now = LocalDateTime.now();
+        timestampOperator.writeTimestamp(now);
         LOGGER.info("Updating job timestamp to the current moment {}", now);
+      }
+      if (LOGGER.isInfoEnabled()) {
         LOGGER.info("Added {} entities to the Elastic Search index", ConsumerCounter.getCounter());
       }
     } finally {
       JobExceptionHandler.reset();
+      jobMetricsReporter.stop();
       close();
     }
   }
@@ -0,0 +1,71 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import com.codahale.metrics.ConsoleReporter;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.Slf4jReporter;
+import com.google.inject.Inject;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs job metrics periodically during the job and once at the end of the job. The final report is
+ * also appended to the metrics report file, if it is configured.
+ */
+public class JobMetricsReporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobMetricsReporter.class);
+
+  @Inject
+  private BaseJobConfiguration configuration;
+
+  private ScheduledReporter periodicReporter;
+
+  public void start() {
+    if (configuration.getMetricsReportInterval() > 0) {
+      periodicReporter = createLogReporter();
+      periodicReporter.start(configuration.getMetricsReportInterval(), TimeUnit.SECONDS);
+    }
+  }
+
+  public void stop() {
+    if (periodicReporter != null) {
+      periodicReporter.stop();
+      periodicReporter = null;
+    }
+    createLogReporter().report();
+    if (configuration.getMetricsReportFile() != null) {
+      reportToFile(configuration.getMetricsReportFile());
+    }
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT") //Path cannot be controlled by the user
+  private static void reportToFile(String metricsReportFile) {
+    try (PrintStream output = new PrintStream(new FileOutputStream(metricsReportFile, true),
+        true, "UTF-8")) {
+      ConsoleReporter.forRegistry(JobMetrics.getRegistry())
+          .outputTo(output)
+          .convertRatesTo(TimeUnit.SECONDS)
+          .convertDurationsTo(TimeUnit.MILLISECONDS)
+          .build()
+          .report();
+    } catch (IOException e) {
+      LOGGER.error("Can't write metrics report to the file {}", metricsReportFile, e);
+    }
+  }
+
+  private static ScheduledReporter createLogReporter() {
+    return Slf4jReporter.forRegistry(JobMetrics.getRegistry())
+        .outputTo(LOGGER)
+        .convertRatesTo(TimeUnit.SECONDS)
+        .convertDurationsTo(TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+}
@@ -0,0 +1,105 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.api.TotalEntitiesCountProvider;
+import gov.ca.cwds.jobs.common.job.TotalCountInformation;
+import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
+import gov.ca.cwds.jobs.common.job.utils.RollingThroughput;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs completion percentage and estimated time left of the job. Totals are provided by the job
+ * specific {@link TotalEntitiesCountProvider}, if there is none, only the processed count and the
+ * speed are logged.
+ */
+public class JobProgressReporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobProgressReporter.class);
+
+  private static final long THROUGHPUT_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  @Inject(optional = true)
+  private TotalEntitiesCountProvider totalEntitiesCountProvider;
+
+  @Inject
+  private TimestampOperator timestampOperator;
+
+  @Inject
+  @ProgressReportInterval
+  private int progressReportInterval;
+
+  private final RollingThroughput throughput = new RollingThroughput(THROUGHPUT_WINDOW_MILLIS);
+
+  private long totalCount;
+
+  private long processedCount;
+
+  private long lastReportTime;
+
+  public void init(JobMode jobMode) {
+    if (progressReportInterval <= 0) {
+      return;
+    }
+    if (totalEntitiesCountProvider != null && jobMode != JobMode.DEAD_LETTERS_REPLAY) {
+      TotalCountInformation totals = getTotals(jobMode);
+      totalCount = totals.getTotal();
+      LOGGER.info("Expected entities: {} to be inserted, {} to be updated, {} to be deleted",
+          totals.getTotalToBeInserted(), totals.getTotalToBeUpdated(),
+          totals.getTotalToBeDeleted());
+    }
+    lastReportTime = System.currentTimeMillis();
+    throughput.add(lastReportTime, 0);
+  }
+
+  private TotalCountInformation getTotals(JobMode jobMode) {
+    if (jobMode == JobMode.INITIAL_LOAD) {
+      return totalEntitiesCountProvider.getTotalsForInitialLoad();
+    } else if (jobMode == JobMode.INITIAL_LOAD_RESUME) {
+      return totalEntitiesCountProvider
+          .getTotalsForResumingInitialLoad(timestampOperator.readTimestamp());
+    }
+    return totalEntitiesCountProvider
+        .getTotalsForIncrementalLoad(timestampOperator.readTimestamp());
+  }
+
+  /**
+   * Can be called concurrently by partitions of the initial load.
+   */
+  public synchronized void batchCommitted(int batchSize) {
+    if (progressReportInterval <= 0) {
+      return;
+    }
+    processedCount += batchSize;
+    long now = System.currentTimeMillis();
+    throughput.add(now, processedCount);
+    if (now - lastReportTime >= TimeUnit.SECONDS.toMillis(progressReportInterval)) {
+      lastReportTime = now;
+      if (LOGGER.isInfoEnabled()) {
+        LOGGER.info(getProgress());
+      }
+    }
+  }
+
+  String getProgress() {
+    double perSecond = throughput.getPerSecond();
+    String speed = String.format("%d entities processed, %.1f entities/sec", processedCount,
+        perSecond);
+    if (totalCount <= 0) {
+      return speed;
+    }
+    // totals are counted at the job start, entities changed meanwhile can exceed them
+    long left = Math.max(0, totalCount - processedCount);
+    double percent = Math.min(100d, processedCount * 100d / totalCount);
+    return String.format("%.2f%% complete, %s of %d, estimated time left %s", percent, speed,
+        totalCount, perSecond > 0 ? formatDuration((long) (left / perSecond)) : "unknown");
+  }
+
+  private static String formatDuration(long seconds) {
+    return String.format("%d hours %d min %d sec", TimeUnit.SECONDS.toHours(seconds),
+        TimeUnit.SECONDS.toMinutes(seconds) % 60, seconds % 60);
+  }
+
+}
@@ -0,0 +1,17 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import com.google.inject.BindingAnnotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Capacity of the queues between pipelined batch processing stages, 0 disables the pipeline.
+ */
+@BindingAnnotation
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PipelineQueueSize {
+
+}
@@ -3,6 +3,8 @@ package gov.ca.cwds.jobs.common.job;
 import java.util.List;
 
 /**
+ * Can be called concurrently by several reader threads.
+ *
  * @param <T> type to write
  * @author CWDS TPT-2
  */
@@ -11,6 +13,13 @@ public interface BulkWriter<T> {
 
   void write(List<T> items);
 
+  /**
+   * Blocks until items passed to {@link #write(List)} are acknowledged by the target. Writers
+   * sending items asynchronously must override it, it is called before a save point is recorded.
+   */
+  default void awaitWritten() {
+  }
+
   default void destroy() {
   }
 
@@ -0,0 +1,18 @@
+package gov.ca.cwds.jobs.common.job;
+
+import gov.ca.cwds.jobs.common.JobMode;
+
+/**
+ * Prepares the target index for an initial load and brings it back to the normal state when the
+ * load is finished, successfully or not.
+ */
+public interface InitialLoadIndexPreparator {
+
+  void prepare(JobMode jobMode);
+
+  /**
+   * @param successful true if all batches have been processed
+   */
+  void complete(boolean successful);
+
+}
@@ -33,4 +33,8 @@ public class TotalCountInformation {
     this.totalToBeDeleted = totalToBeDeleted;
   }
 
+  public long getTotal() {
+    return totalToBeUpdated + totalToBeInserted + totalToBeDeleted;
+  }
+
 }
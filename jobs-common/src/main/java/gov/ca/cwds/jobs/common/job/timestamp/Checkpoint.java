@@ -0,0 +1,62 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named cursor of the job: the position reached by one source, partition etc. Job specific values
+ * can be kept as attributes.
+ */
+public class Checkpoint {
+
+  private LocalDateTime timestamp;
+
+  private String lastIdentifier;
+
+  private final Map<String, String> attributes = new LinkedHashMap<>();
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(LocalDateTime timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public String getLastIdentifier() {
+    return lastIdentifier;
+  }
+
+  public void setLastIdentifier(String lastIdentifier) {
+    this.lastIdentifier = lastIdentifier;
+  }
+
+  public String getAttribute(String name) {
+    return attributes.get(name);
+  }
+
+  /**
+   * @param value attribute value, the attribute is removed if null
+   */
+  public void setAttribute(String name, String value) {
+    if (value == null) {
+      attributes.remove(name);
+    } else {
+      attributes.put(name, value);
+    }
+  }
+
+  public Map<String, String> getAttributes() {
+    return attributes;
+  }
+
+  @Override
+  public String toString() {
+    return "Checkpoint{" +
+        "timestamp=" + timestamp +
+        ", lastIdentifier=" + lastIdentifier +
+        ", attributes=" + attributes +
+        '}';
+  }
+}
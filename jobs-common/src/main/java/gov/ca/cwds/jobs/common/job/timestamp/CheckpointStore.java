@@ -0,0 +1,192 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.google.inject.Inject;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import gov.ca.cwds.jobs.common.Constants;
+import gov.ca.cwds.jobs.common.inject.LastRunDir;
+import gov.ca.cwds.rest.api.ApiException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps named checkpoints in the last run directory, one small file per checkpoint. Files are
+ * replaced atomically: a checkpoint is written to a temporary file, flushed to the disk and then
+ * moved over the previous one, so a crash leaves either the old or the new checkpoint, never none.
+ * Checkpoints with different names can be written concurrently.
+ */
+public class CheckpointStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CheckpointStore.class);
+
+  private static final String CHECKPOINTS_DIRNAME = "checkpoints";
+  private static final String CHECKPOINT_FILE_EXTENSION = ".checkpoint";
+  private static final String TEMP_FILE_EXTENSION = ".tmp";
+  private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+");
+
+  private static final String TIMESTAMP = "timestamp";
+  private static final String LAST_IDENTIFIER = "lastIdentifier";
+  private static final String ATTRIBUTE_PREFIX = "attribute.";
+
+  private final Path checkpointsDir;
+
+  @Inject
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //Path cannot be controlled by the user
+  public CheckpointStore(@LastRunDir String outputDir) {
+    this.checkpointsDir = Paths.get(outputDir, CHECKPOINTS_DIRNAME).normalize().toAbsolutePath();
+  }
+
+  public Optional<Checkpoint> read(String name) {
+    Path file = getCheckpointFile(name);
+    if (!file.toFile().exists()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(readCheckpoint(file));
+    } catch (IOException e) {
+      throw new ApiException("Can't read checkpoint " + name, e);
+    }
+  }
+
+  /**
+   * @return checkpoints which names start with the prefix, ordered by name
+   */
+  public Map<String, Checkpoint> readAll(String prefix) {
+    Map<String, Checkpoint> checkpoints = new TreeMap<>();
+    for (String name : list(prefix)) {
+      read(name).ifPresent(checkpoint -> checkpoints.put(name, checkpoint));
+    }
+    return checkpoints;
+  }
+
+  public void write(String name, Checkpoint checkpoint) {
+    Properties properties = new Properties();
+    if (checkpoint.getTimestamp() != null) {
+      properties.setProperty(TIMESTAMP,
+          checkpoint.getTimestamp().format(Constants.DATE_TIME_FORMATTER));
+    }
+    if (checkpoint.getLastIdentifier() != null) {
+      properties.setProperty(LAST_IDENTIFIER, checkpoint.getLastIdentifier());
+    }
+    checkpoint.getAttributes()
+        .forEach((key, value) -> properties.setProperty(ATTRIBUTE_PREFIX + key, value));
+    try {
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      properties.store(content, null);
+      Files.createDirectories(checkpointsDir);
+      writeAtomically(getCheckpointFile(name), content.toByteArray());
+    } catch (IOException e) {
+      throw new ApiException("Can't write checkpoint " + name, e);
+    }
+  }
+
+  public void delete(String name) {
+    try {
+      Files.deleteIfExists(getCheckpointFile(name));
+    } catch (IOException e) {
+      throw new ApiException("Can't delete checkpoint " + name, e);
+    }
+  }
+
+  /**
+   * Deletes checkpoints which names start with the prefix.
+   */
+  public void deleteAll(String prefix) {
+    list(prefix).forEach(this::delete);
+  }
+
+  private List<String> list(String prefix) {
+    if (!checkpointsDir.toFile().isDirectory()) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> files = Files.list(checkpointsDir)) {
+      return files.map(file -> file.getFileName().toString())
+          .filter(fileName -> fileName.endsWith(CHECKPOINT_FILE_EXTENSION))
+          .map(fileName -> fileName
+              .substring(0, fileName.length() - CHECKPOINT_FILE_EXTENSION.length()))
+          .filter(name -> name.startsWith(prefix))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new ApiException("Can't list checkpoints", e);
+    }
+  }
+
+  private static Checkpoint readCheckpoint(Path file) throws IOException {
+    Properties properties = new Properties();
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      properties.load(inputStream);
+    }
+    Checkpoint checkpoint = new Checkpoint();
+    String timestamp = properties.getProperty(TIMESTAMP);
+    if (timestamp != null) {
+      checkpoint.setTimestamp(LocalDateTime.parse(timestamp, Constants.DATE_TIME_FORMATTER));
+    }
+    checkpoint.setLastIdentifier(properties.getProperty(LAST_IDENTIFIER));
+    properties.stringPropertyNames().stream()
+        .filter(key -> key.startsWith(ATTRIBUTE_PREFIX))
+        .sorted()
+        .forEach(key -> checkpoint.setAttribute(key.substring(ATTRIBUTE_PREFIX.length()),
+            properties.getProperty(key)));
+    return checkpoint;
+  }
+
+  private Path getCheckpointFile(String name) {
+    if (!NAME_PATTERN.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid checkpoint name: " + name);
+    }
+    return checkpointsDir.resolve(name + CHECKPOINT_FILE_EXTENSION);
+  }
+
+  /**
+   * Replaces the file content so that readers and a crash never see a partially written file: the
+   * content is written to a temporary file in the same directory, forced to the disk and renamed
+   * over the target file, the directory entry is forced to the disk afterwards.
+   */
+  public static void writeAtomically(Path file, byte[] content) throws IOException {
+    Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(),
+        TEMP_FILE_EXTENSION);
+    try {
+      try (FileChannel channel = FileChannel.open(tempFile, WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+    syncDirectory(file.getParent());
+  }
+
+  private static void syncDirectory(Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // directories can't be opened on some platforms, the rename is still atomic there
+      LOG.debug("Can't sync directory {}", directory, e);
+    }
+  }
+}
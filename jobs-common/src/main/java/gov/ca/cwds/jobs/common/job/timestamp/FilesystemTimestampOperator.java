@@ -3,32 +3,51 @@ package gov.ca.cwds.jobs.common.job.timestamp;
 import com.google.inject.Inject;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import gov.ca.cwds.jobs.common.Constants;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
 import gov.ca.cwds.jobs.common.inject.LastRunDir;
 import gov.ca.cwds.rest.api.ApiException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Created by Alexander Serbin on 2/5/2018.
+ *
+ * <p>The job timestamp is kept in LastJobRun.time, other cursors are kept by the
+ * {@link CheckpointStore}. All files are replaced atomically, so they can be written after every
+ * batch.</p>
  */
 public class FilesystemTimestampOperator implements TimestampOperator {
 
   private static final Logger LOG = LoggerFactory.getLogger(FilesystemTimestampOperator.class);
 
   private static final String TIMESTAMP_FILENAME = "LastJobRun.time";
+  private static final String PARTITION_CHECKPOINT_PREFIX = "InitialLoadPartition.";
+
+  private static final String NUMBER = "number";
+  private static final String FROM = "from";
+  private static final String TO = "to";
+  private static final String COMPLETED = "completed";
+
   private String outputDir;
 
+  private CheckpointStore checkpointStore;
+
   @Inject
   public FilesystemTimestampOperator(@LastRunDir String outputDir) {
     this.outputDir = outputDir;
+    this.checkpointStore = new CheckpointStore(outputDir);
+    LOG.info("Path to the timestamp file: {}", getRunningFile().toString());
   }
 
   @Override
@@ -58,11 +77,13 @@ public class FilesystemTimestampOperator implements TimestampOperator {
 
   @SuppressFBWarnings("PATH_TRAVERSAL_IN") //Path cannot be controlled by the user
   private Path getRunningFile() {
-    Path path = Paths.get(outputDir, TIMESTAMP_FILENAME).normalize().toAbsolutePath();
-    LOG.info("Path to the timestamp file: {}", path.toString());
-    return path;
+    return Paths.get(outputDir, TIMESTAMP_FILENAME).normalize().toAbsolutePath();
   }
 
+  /**
+   * The timestamp file is replaced atomically, a crash while writing leaves the previous
+   * timestamp instead of no timestamp, which would start the initial load over.
+   */
   @Override
   public void writeTimestamp(LocalDateTime timestamp) {
     if (timestamp == null) {
@@ -71,16 +92,44 @@ public class FilesystemTimestampOperator implements TimestampOperator {
     }
     String stringTimestamp = timestamp.format(Constants.DATE_TIME_FORMATTER);
     try {
-      if (timeStampExists()) {
-        FileUtils.forceDelete(getRunningFile().toFile());
-      }
-      if (getRunningFile().toFile().createNewFile()) {
-        FileUtils.writeStringToFile(getRunningFile().toFile(), stringTimestamp, "UTF-8");
-      } else {
-        throw new ApiException("Can't create the file " + getRunningFile().normalize().toString());
-      }
+      CheckpointStore.writeAtomically(getRunningFile(),
+          stringTimestamp.getBytes(StandardCharsets.UTF_8));
     } catch (IOException e) {
       throw new ApiException("Can't write timestamp ", e);
     }
   }
+
+  @Override
+  public List<InitialLoadPartition> readPartitions() {
+    List<InitialLoadPartition> partitions = new ArrayList<>();
+    checkpointStore.readAll(PARTITION_CHECKPOINT_PREFIX).forEach((name, checkpoint) -> {
+      if (checkpoint.getAttribute(NUMBER) == null) {
+        throw new ApiException("Corrupted partition checkpoint: " + name);
+      }
+      InitialLoadPartition partition = new InitialLoadPartition(
+          Integer.parseInt(checkpoint.getAttribute(NUMBER)), checkpoint.getAttribute(FROM),
+          checkpoint.getAttribute(TO));
+      partition.setLastIdentifier(checkpoint.getLastIdentifier());
+      partition.setCompleted(Boolean.parseBoolean(checkpoint.getAttribute(COMPLETED)));
+      partitions.add(partition);
+    });
+    partitions.sort(Comparator.comparingInt(InitialLoadPartition::getNumber));
+    return partitions;
+  }
+
+  @Override
+  public void writePartition(InitialLoadPartition partition) {
+    Checkpoint checkpoint = new Checkpoint();
+    checkpoint.setLastIdentifier(partition.getLastIdentifier());
+    checkpoint.setAttribute(NUMBER, String.valueOf(partition.getNumber()));
+    checkpoint.setAttribute(FROM, partition.getFrom());
+    checkpoint.setAttribute(TO, partition.getTo());
+    checkpoint.setAttribute(COMPLETED, String.valueOf(partition.isCompleted()));
+    checkpointStore.write(PARTITION_CHECKPOINT_PREFIX + partition.getNumber(), checkpoint);
+  }
+
+  @Override
+  public void deletePartitions() {
+    checkpointStore.deleteAll(PARTITION_CHECKPOINT_PREFIX);
+  }
 }
@@ -0,0 +1,81 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import gov.ca.cwds.jobs.common.JobMode;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Record of one job run in the {@link JobStateStore}.
+ */
+public class JobRun implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long id;
+  private final JobMode jobMode;
+  private final LocalDateTime started;
+  private LocalDateTime finished;
+  private boolean successful;
+  private long batchesCount;
+  private long entitiesCount;
+
+  public JobRun(long id, JobMode jobMode, LocalDateTime started) {
+    this.id = id;
+    this.jobMode = jobMode;
+    this.started = started;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public JobMode getJobMode() {
+    return jobMode;
+  }
+
+  public LocalDateTime getStarted() {
+    return started;
+  }
+
+  public LocalDateTime getFinished() {
+    return finished;
+  }
+
+  public void setFinished(LocalDateTime finished) {
+    this.finished = finished;
+  }
+
+  public boolean isSuccessful() {
+    return successful;
+  }
+
+  public void setSuccessful(boolean successful) {
+    this.successful = successful;
+  }
+
+  public long getBatchesCount() {
+    return batchesCount;
+  }
+
+  public long getEntitiesCount() {
+    return entitiesCount;
+  }
+
+  public void addBatch(int batchSize) {
+    batchesCount++;
+    entitiesCount += batchSize;
+  }
+
+  @Override
+  public String toString() {
+    return "JobRun{" +
+        "id=" + id +
+        ", jobMode=" + jobMode +
+        ", started=" + started +
+        ", finished=" + finished +
+        ", successful=" + successful +
+        ", batchesCount=" + batchesCount +
+        ", entitiesCount=" + entitiesCount +
+        '}';
+  }
+}
@@ -0,0 +1,58 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.batch.JobBatch;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Optional state of the job kept across runs in addition to the job timestamp: history of runs,
+ * checkpoints of committed batches and identifiers of failed batches.
+ */
+public interface JobStateStore {
+
+  void runStarted(JobMode jobMode);
+
+  /**
+   * Called after the batch has been written and its timestamp has been recorded.
+   */
+  void batchCommitted(JobBatch jobBatch);
+
+  /**
+   * Called when the batch has not been written, its identifiers are kept until a successful run.
+   */
+  void batchFailed(JobBatch jobBatch);
+
+  void runFinished(boolean successful);
+
+  /**
+   * @return the greatest identifier of the batch which has recorded the current job timestamp,
+   * empty if it is unknown
+   */
+  Optional<ChangedEntityIdentifier> readLastCommittedIdentifier();
+
+  /**
+   * Records the index an initial load writes to, null once the load is done with it.
+   */
+  void writeInitialLoadIndex(String index);
+
+  /**
+   * @return the index of the initial load which has not been completed, empty if there is none
+   */
+  Optional<String> readInitialLoadIndex();
+
+  /**
+   * @return identifiers of batches failed since the last successful run, they are replayed
+   * together with dead letters
+   */
+  List<ChangedEntityIdentifier> readFailedIdentifiers();
+
+  /**
+   * @return runs from the oldest to the latest one
+   */
+  List<JobRun> readRunHistory();
+
+  void close();
+
+}
@@ -0,0 +1,302 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import com.google.inject.Inject;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import gov.ca.cwds.jobs.common.Constants;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.JobBatch;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.inject.LastRunDir;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the job timestamp and the job state in an embedded MVStore database in the last run
+ * directory, no database server is needed. Every change is committed right away, a crash rolls the
+ * store back to the last commit.
+ *
+ * <p>The timestamp of LastJobRun.time is imported on the first start, so switching a job to this
+ * store does not start the initial load over.</p>
+ */
+public class MVStoreTimestampOperator implements TimestampOperator, JobStateStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MVStoreTimestampOperator.class);
+
+  private static final String STORE_FILENAME = "JobState.mv.db";
+
+  /**
+   * Number of runs the history and batch checkpoints are kept for.
+   */
+  static final int RUN_HISTORY_SIZE = 20;
+
+  private static final String TIMESTAMP = "timestamp";
+  private static final String LAST_COMMITTED_IDENTIFIER = "lastCommittedIdentifier";
+  private static final String LAST_COMMITTED_TIMESTAMP = "lastCommittedTimestamp";
+  private static final String INITIAL_LOAD_INDEX = "initialLoadIndex";
+
+  private static final int BATCH_RUN_ID = 0;
+  private static final int BATCH_TIMESTAMP = 1;
+  private static final int BATCH_LAST_IDENTIFIER = 2;
+  private static final int BATCH_SIZE = 3;
+
+  private static final int FAILED_RUN_ID = 0;
+  private static final int FAILED_OPERATION = 1;
+  private static final int FAILED_TIMESTAMP = 2;
+
+  private static final int PARTITION_FROM = 0;
+  private static final int PARTITION_TO = 1;
+  private static final int PARTITION_LAST_IDENTIFIER = 2;
+  private static final int PARTITION_COMPLETED = 3;
+
+  private final MVStore store;
+
+  private final MVMap<String, String> state;
+  private final MVMap<Long, JobRun> runs;
+  private final MVMap<Long, String[]> batches;
+  private final MVMap<String, String[]> failedIdentifiers;
+  private final MVMap<Integer, String[]> partitions;
+
+  private JobRun currentRun;
+
+  @Inject
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //Path cannot be controlled by the user
+  public MVStoreTimestampOperator(@LastRunDir String outputDir) {
+    String fileName = Paths.get(outputDir, STORE_FILENAME).normalize().toAbsolutePath()
+        .toString();
+    LOG.info("Path to the job state store: {}", fileName);
+    store = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+    state = store.openMap("state");
+    runs = store.openMap("runs");
+    batches = store.openMap("batches");
+    failedIdentifiers = store.openMap("failedIdentifiers");
+    partitions = store.openMap("partitions");
+    importTimestamp(new FilesystemTimestampOperator(outputDir));
+  }
+
+  private void importTimestamp(TimestampOperator filesystemTimestampOperator) {
+    if (!state.containsKey(TIMESTAMP) && filesystemTimestampOperator.timeStampExists()) {
+      LocalDateTime timestamp = filesystemTimestampOperator.readTimestamp();
+      LOG.info("Importing timestamp {} from the timestamp file", timestamp);
+      writeTimestamp(timestamp);
+    }
+  }
+
+  @Override
+  public synchronized boolean timeStampExists() {
+    return state.containsKey(TIMESTAMP);
+  }
+
+  @Override
+  public synchronized LocalDateTime readTimestamp() {
+    String timestamp = state.get(TIMESTAMP);
+    return timestamp == null ? null : LocalDateTime.parse(timestamp, Constants.DATE_TIME_FORMATTER);
+  }
+
+  @Override
+  public synchronized void writeTimestamp(LocalDateTime timestamp) {
+    if (timestamp == null) {
+      LOG.info("Timestamp is empty for the batch and will not be recorded");
+      return;
+    }
+    state.put(TIMESTAMP, timestamp.format(Constants.DATE_TIME_FORMATTER));
+    store.commit();
+  }
+
+  @Override
+  public synchronized List<InitialLoadPartition> readPartitions() {
+    List<InitialLoadPartition> result = new ArrayList<>();
+    for (Map.Entry<Integer, String[]> entry : partitions.entrySet()) {
+      String[] values = entry.getValue();
+      InitialLoadPartition partition = new InitialLoadPartition(entry.getKey(),
+          values[PARTITION_FROM], values[PARTITION_TO]);
+      partition.setLastIdentifier(values[PARTITION_LAST_IDENTIFIER]);
+      partition.setCompleted(Boolean.parseBoolean(values[PARTITION_COMPLETED]));
+      result.add(partition);
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void writePartition(InitialLoadPartition partition) {
+    partitions.put(partition.getNumber(), new String[]{partition.getFrom(), partition.getTo(),
+        partition.getLastIdentifier(), String.valueOf(partition.isCompleted())});
+    store.commit();
+  }
+
+  @Override
+  public synchronized void deletePartitions() {
+    partitions.clear();
+    store.commit();
+  }
+
+  @Override
+  public synchronized void runStarted(JobMode jobMode) {
+    Long lastRunId = runs.lastKey();
+    currentRun = new JobRun(lastRunId == null ? 1 : lastRunId + 1, jobMode, LocalDateTime.now());
+    runs.put(currentRun.getId(), currentRun);
+    removeOldRuns();
+    if (!failedIdentifiers.isEmpty()) {
+      LOG.warn("{} identifiers of failed batches are kept since the last successful run",
+          failedIdentifiers.size());
+    }
+    store.commit();
+  }
+
+  private void removeOldRuns() {
+    long oldestRunId = currentRun.getId() - RUN_HISTORY_SIZE + 1;
+    Long runId = runs.firstKey();
+    while (runId != null && runId < oldestRunId) {
+      runs.remove(runId);
+      runId = runs.firstKey();
+    }
+    List<Long> oldBatches = new ArrayList<>();
+    for (Map.Entry<Long, String[]> batch : batches.entrySet()) {
+      if (Long.parseLong(batch.getValue()[BATCH_RUN_ID]) < oldestRunId) {
+        oldBatches.add(batch.getKey());
+      }
+    }
+    oldBatches.forEach(batches::remove);
+  }
+
+  @Override
+  public synchronized void batchCommitted(JobBatch jobBatch) {
+    Optional<ChangedEntityIdentifier> lastIdentifier = getLastIdentifier(jobBatch);
+    Long lastBatchId = batches.lastKey();
+    batches.put(lastBatchId == null ? 1 : lastBatchId + 1, new String[]{
+        String.valueOf(getCurrentRun().getId()),
+        jobBatch.getTimestamp() == null ? null
+            : jobBatch.getTimestamp().format(Constants.DATE_TIME_FORMATTER),
+        lastIdentifier.map(ChangedEntityIdentifier::getId).orElse(null),
+        String.valueOf(jobBatch.getSize())});
+    if (lastIdentifier.isPresent()) {
+      state.put(LAST_COMMITTED_IDENTIFIER, lastIdentifier.get().getId());
+      state.put(LAST_COMMITTED_TIMESTAMP,
+          jobBatch.getTimestamp().format(Constants.DATE_TIME_FORMATTER));
+    }
+    getCurrentRun().addBatch(jobBatch.getSize());
+    runs.put(getCurrentRun().getId(), getCurrentRun());
+    store.commit();
+  }
+
+  /**
+   * Identifiers of the batch are in the query order, which follows the database collation, so the
+   * last one of the batch timestamp is the greatest one.
+   *
+   * @return the last identifier of the batch timestamp, the batch is the last one of its timestamp
+   * cluster
+   */
+  private static Optional<ChangedEntityIdentifier> getLastIdentifier(JobBatch jobBatch) {
+    if (jobBatch.getTimestamp() == null) {
+      return Optional.empty();
+    }
+    return jobBatch.getChangedEntityIdentifiers().stream()
+        .filter(identifier -> jobBatch.getTimestamp().equals(identifier.getTimestamp()))
+        .reduce((previous, next) -> next);
+  }
+
+  @Override
+  public synchronized void batchFailed(JobBatch jobBatch) {
+    for (ChangedEntityIdentifier identifier : jobBatch.getChangedEntityIdentifiers()) {
+      failedIdentifiers.put(identifier.getId(), new String[]{
+          String.valueOf(getCurrentRun().getId()),
+          identifier.getRecordChangeOperation().name(),
+          identifier.getTimestamp() == null ? ""
+              : identifier.getTimestamp().format(Constants.DATE_TIME_FORMATTER)});
+    }
+    store.commit();
+  }
+
+  @Override
+  public synchronized void runFinished(boolean successful) {
+    getCurrentRun().setFinished(LocalDateTime.now());
+    getCurrentRun().setSuccessful(successful);
+    runs.put(getCurrentRun().getId(), getCurrentRun());
+    if (successful) {
+      failedIdentifiers.clear();
+    }
+    store.commit();
+    LOG.info("Job run has been recorded: {}", getCurrentRun());
+  }
+
+  private JobRun getCurrentRun() {
+    if (currentRun == null) {
+      throw new IllegalStateException("Job run has not been started");
+    }
+    return currentRun;
+  }
+
+  @Override
+  public synchronized Optional<ChangedEntityIdentifier> readLastCommittedIdentifier() {
+    String identifier = state.get(LAST_COMMITTED_IDENTIFIER);
+    String timestamp = state.get(LAST_COMMITTED_TIMESTAMP);
+    if (identifier == null || timestamp == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new ChangedEntityIdentifier(identifier, RecordChangeOperation.U,
+        LocalDateTime.parse(timestamp, Constants.DATE_TIME_FORMATTER)));
+  }
+
+  @Override
+  public synchronized void writeInitialLoadIndex(String index) {
+    if (index == null) {
+      state.remove(INITIAL_LOAD_INDEX);
+    } else {
+      state.put(INITIAL_LOAD_INDEX, index);
+    }
+    store.commit();
+  }
+
+  @Override
+  public synchronized Optional<String> readInitialLoadIndex() {
+    return Optional.ofNullable(state.get(INITIAL_LOAD_INDEX));
+  }
+
+  @Override
+  public synchronized List<ChangedEntityIdentifier> readFailedIdentifiers() {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>(failedIdentifiers.size());
+    for (Map.Entry<String, String[]> failed : failedIdentifiers.entrySet()) {
+      String timestamp = failed.getValue()[FAILED_TIMESTAMP];
+      identifiers.add(new ChangedEntityIdentifier(failed.getKey(),
+          RecordChangeOperation.valueOf(failed.getValue()[FAILED_OPERATION]),
+          timestamp.isEmpty() ? null
+              : LocalDateTime.parse(timestamp, Constants.DATE_TIME_FORMATTER)));
+    }
+    return identifiers;
+  }
+
+  @Override
+  public synchronized List<JobRun> readRunHistory() {
+    return new ArrayList<>(runs.values());
+  }
+
+  /**
+   * @return checkpoints of the committed batches of the run: timestamp, last identifier and size
+   */
+  synchronized List<String[]> readBatches(long runId) {
+    List<String[]> result = new ArrayList<>();
+    for (String[] batch : batches.values()) {
+      if (Long.parseLong(batch[BATCH_RUN_ID]) == runId) {
+        result.add(new String[]{batch[BATCH_TIMESTAMP], batch[BATCH_LAST_IDENTIFIER],
+            batch[BATCH_SIZE]});
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!store.isClosed()) {
+      store.close();
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package gov.ca.cwds.jobs.common.job.timestamp;
 
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Created by Alexander Serbin on 2/5/2018.
@@ -13,4 +15,17 @@ public interface TimestampOperator {
 
   void writeTimestamp(LocalDateTime timestamp);
 
+  /**
+   * @return partitions of the unfinished partitioned initial load with their savepoints, empty if
+   * there is no such load
+   */
+  List<InitialLoadPartition> readPartitions();
+
+  /**
+   * Records the partition savepoint. Different partitions can be written concurrently.
+   */
+  void writePartition(InitialLoadPartition partition);
+
+  void deletePartitions();
+
 }
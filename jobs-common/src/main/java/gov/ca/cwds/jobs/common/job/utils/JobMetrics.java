@@ -0,0 +1,115 @@
+package gov.ca.cwds.jobs.common.job.utils;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Metrics of the job pipeline stages. Stages are spread over classes created both by Guice and
+ * directly, so the registry is shared the same way as {@link ConsumerCounter}.
+ */
+public final class JobMetrics {
+
+  /**
+   * Fetching a page of changed identifiers.
+   */
+  public static final String IDENTIFIERS_PAGE_FETCH = "identifiers.page.fetch";
+
+  public static final String IDENTIFIERS_PAGE_SIZE = "identifiers.page.size";
+
+  /**
+   * Loading of a single entity by reader threads.
+   */
+  public static final String ENTITY_LOAD = "entities.load";
+
+  public static final String ENTITIES_LOADED = "entities.loaded";
+
+  /**
+   * Serializing documents of a written bulk, excluding time spent waiting for the BulkProcessor.
+   */
+  public static final String BULK_SERIALIZATION = "elastic.bulk.serialization";
+
+  /**
+   * Time from sending a bulk request to receiving its response.
+   */
+  public static final String BULK_ROUND_TRIP = "elastic.bulk.round.trip";
+
+  public static final String BULK_ACTIONS = "elastic.bulk.actions";
+
+  public static final String DOCUMENTS_INDEXED = "elastic.documents.indexed";
+
+  /**
+   * Documents not written because their source has not changed since they were indexed.
+   */
+  public static final String DOCUMENTS_UNCHANGED = "elastic.documents.unchanged";
+
+  /**
+   * Loads of code table rows answered from the preloaded reference data.
+   */
+  public static final String REFERENCE_DATA_HITS = "reference.data.hits";
+
+  /**
+   * Loads of code table rows which have not been preloaded and are read from the database.
+   */
+  public static final String REFERENCE_DATA_MISSES = "reference.data.misses";
+
+  /**
+   * Hit ratio of the cache of entities shared by loaded documents.
+   */
+  public static final String ENTITY_CACHE_HIT_RATIO = "entity.cache.hit.ratio";
+
+  /**
+   * Estimated bytes taken by cached shared entities.
+   */
+  public static final String ENTITY_CACHE_MEMORY = "entity.cache.memory";
+
+  public static final String ENTITY_CACHE_SIZE = "entity.cache.size";
+
+  /**
+   * Waiting for a pooled database connection, suffixed by the data source name.
+   */
+  public static final String CONNECTION_ACQUIRE = "connection.acquire";
+
+  public static final String CONNECTIONS_BUSY = "connection.pool.busy";
+
+  /**
+   * Threads waiting for a pooled connection, suffixed by the data source name.
+   */
+  public static final String CONNECTIONS_AWAITED = "connection.pool.awaited";
+
+  public static final String SAVEPOINT_WRITE = "savepoint.write";
+
+  public static final String BATCHES_COMMITTED = "batches.committed";
+
+  private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+  private JobMetrics() {
+  }
+
+  public static MetricRegistry getRegistry() {
+    return REGISTRY;
+  }
+
+  public static Timer timer(String name) {
+    return REGISTRY.timer(name);
+  }
+
+  public static Histogram histogram(String name) {
+    return REGISTRY.histogram(name);
+  }
+
+  public static Meter meter(String name) {
+    return REGISTRY.meter(name);
+  }
+
+  /**
+   * Registers the gauge, replacing a gauge registered before with the same name.
+   */
+  public static <T> Gauge<T> gauge(String name, Gauge<T> gauge) {
+    REGISTRY.remove(name);
+    return REGISTRY.register(name, gauge);
+  }
+
+}
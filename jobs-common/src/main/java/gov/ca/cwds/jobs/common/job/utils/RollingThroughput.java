@@ -0,0 +1,66 @@
+package gov.ca.cwds.jobs.common.job.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Processing speed over the last time window only, so that the speed of the beginning of a long
+ * load does not hide its current speed.
+ */
+public final class RollingThroughput {
+
+  private final long windowMillis;
+
+  private final Deque<Sample> samples = new ArrayDeque<>();
+
+  public RollingThroughput(long windowMillis) {
+    this.windowMillis = windowMillis;
+  }
+
+  /**
+   * @param timeMillis time of the sample
+   * @param processedCount total count of items processed by this time
+   */
+  public void add(long timeMillis, long processedCount) {
+    samples.addLast(new Sample(timeMillis, processedCount));
+    while (samples.size() > 2 && isOutOfWindow(secondSample(), timeMillis)) {
+      samples.removeFirst();
+    }
+  }
+
+  /**
+   * @return items processed per second within the window, 0 if there are not enough samples
+   */
+  public double getPerSecond() {
+    if (samples.size() < 2) {
+      return 0;
+    }
+    Sample first = samples.getFirst();
+    Sample last = samples.getLast();
+    long duration = last.timeMillis - first.timeMillis;
+    return duration > 0 ? (last.processedCount - first.processedCount) * 1000d / duration : 0;
+  }
+
+  private boolean isOutOfWindow(Sample sample, long timeMillis) {
+    return timeMillis - sample.timeMillis >= windowMillis;
+  }
+
+  private Sample secondSample() {
+    Iterator<Sample> iterator = samples.iterator();
+    iterator.next();
+    return iterator.next();
+  }
+
+  private static final class Sample {
+
+    private final long timeMillis;
+    private final long processedCount;
+
+    private Sample(long timeMillis, long processedCount) {
+      this.timeMillis = timeMillis;
+      this.processedCount = processedCount;
+    }
+  }
+
+}
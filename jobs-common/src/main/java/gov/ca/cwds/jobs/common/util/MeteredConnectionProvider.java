@@ -0,0 +1,80 @@
+package gov.ca.cwds.jobs.common.util;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mchange.v2.c3p0.PooledDataSource;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+import org.hibernate.service.spi.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * C3P0 connection pool which times acquisition of connections and reports usage of the pool as
+ * job metrics named after the data source. The pool is filled when the session factory is built,
+ * so reader threads don't wait for the pool to grow during the first batches.
+ */
+public class MeteredConnectionProvider extends C3P0ConnectionProvider {
+
+  /**
+   * Name of the data source used in names of its metrics.
+   */
+  public static final String DATA_SOURCE_NAME = "hibernate.connection.metrics_name";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MeteredConnectionProvider.class);
+
+  private static final long serialVersionUID = 1L;
+
+  private transient Timer acquisitionTimer;
+
+  @Override
+  public void configure(Map props) {
+    super.configure(props);
+    String dataSourceName = String.valueOf(props.get(DATA_SOURCE_NAME));
+    acquisitionTimer = JobMetrics
+        .timer(MetricRegistry.name(JobMetrics.CONNECTION_ACQUIRE, dataSourceName));
+    PooledDataSource pool = (PooledDataSource) unwrap(DataSource.class);
+    JobMetrics.gauge(MetricRegistry.name(JobMetrics.CONNECTIONS_BUSY, dataSourceName),
+        () -> getPoolStatistic(pool::getNumBusyConnectionsDefaultUser));
+    JobMetrics.gauge(MetricRegistry.name(JobMetrics.CONNECTIONS_AWAITED, dataSourceName),
+        () -> getPoolStatistic(pool::getNumThreadsAwaitingCheckoutDefaultUser));
+    warmUp(dataSourceName, pool);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    try (Timer.Context ignored = acquisitionTimer.time()) {
+      return super.getConnection();
+    }
+  }
+
+  private void warmUp(String dataSourceName, PooledDataSource pool) {
+    try {
+      closeConnection(super.getConnection());
+      LOGGER.info("Connection pool of {} holds {} connections", dataSourceName,
+          pool.getNumConnectionsDefaultUser());
+    } catch (SQLException e) {
+      throw new ServiceException("Can't open connection pool of " + dataSourceName, e);
+    }
+  }
+
+  private static int getPoolStatistic(PoolStatistic statistic) {
+    try {
+      return statistic.get();
+    } catch (SQLException e) {
+      LOGGER.warn("Can't get connection pool statistic", e);
+      return -1;
+    }
+  }
+
+  @FunctionalInterface
+  private interface PoolStatistic {
+
+    int get() throws SQLException;
+  }
+
+}
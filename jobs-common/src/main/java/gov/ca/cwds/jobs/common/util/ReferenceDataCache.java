@@ -0,0 +1,126 @@
+package gov.ca.cwds.jobs.common.util;
+
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Code tables read once at startup into immutable maps shared by all reader threads.
+ *
+ * <p>Once installed into a session factory, loads of cached entities by id, including
+ * resolution of many-to-one associations, are answered from the maps and never reach the
+ * database. Cached entities are detached and shared between sessions, so they must be treated
+ * as read only. Ids which have not been preloaded are loaded by Hibernate as usual and counted
+ * as misses.</p>
+ */
+public final class ReferenceDataCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+  private final ImmutableMap<String, ImmutableMap<Serializable, Object>> entities;
+
+  private final Meter hits = JobMetrics.meter(JobMetrics.REFERENCE_DATA_HITS);
+
+  private final Meter misses = JobMetrics.meter(JobMetrics.REFERENCE_DATA_MISSES);
+
+  private ReferenceDataCache(ImmutableMap<String, ImmutableMap<Serializable, Object>> entities) {
+    this.entities = entities;
+  }
+
+  /**
+   * Reads all rows of the given entities and makes the session factory load them from the cache.
+   */
+  public static ReferenceDataCache install(SessionFactory sessionFactory,
+      List<Class<?>> entityClasses) {
+    ReferenceDataCache cache = load(sessionFactory, entityClasses);
+    EventListenerRegistry registry = ((SessionFactoryImplementor) sessionFactory)
+        .getServiceRegistry().getService(EventListenerRegistry.class);
+    List<LoadEventListener> delegates = ImmutableList
+        .copyOf(registry.getEventListenerGroup(EventType.LOAD).listeners());
+    registry.setListeners(EventType.LOAD, new CachingLoadEventListener(cache, delegates));
+    return cache;
+  }
+
+  private static ReferenceDataCache load(SessionFactory sessionFactory, List<Class<?>> entityClasses) {
+    ImmutableMap.Builder<String, ImmutableMap<Serializable, Object>> entities =
+        ImmutableMap.builder();
+    try (Session session = sessionFactory.openSession()) {
+      session.setDefaultReadOnly(true);
+      Transaction transaction = session.beginTransaction();
+      try {
+        for (Class<?> entityClass : entityClasses) {
+          ImmutableMap.Builder<Serializable, Object> rows = ImmutableMap.builder();
+          for (Object entity : session.createQuery("from " + entityClass.getName())
+              .list()) {
+            rows.put(session.getIdentifier(entity), entity);
+          }
+          ImmutableMap<Serializable, Object> table = rows.build();
+          LOGGER.info("Preloaded {} rows of {}", table.size(), entityClass.getSimpleName());
+          entities.put(entityClass.getName(), table);
+        }
+      } finally {
+        transaction.rollback();
+      }
+    }
+    return new ReferenceDataCache(entities.build());
+  }
+
+  /**
+   * @return the preloaded entity or null if the entity or its id is not cached
+   */
+  public Object get(String entityName, Serializable id) {
+    Map<Serializable, Object> table = entities.get(entityName);
+    if (table == null) {
+      return null;
+    }
+    Object entity = table.get(id);
+    if (entity == null) {
+      misses.mark();
+    } else {
+      hits.mark();
+    }
+    return entity;
+  }
+
+  private static class CachingLoadEventListener implements LoadEventListener {
+
+    private final ReferenceDataCache cache;
+
+    private final List<LoadEventListener> delegates;
+
+    CachingLoadEventListener(ReferenceDataCache cache, List<LoadEventListener> delegates) {
+      this.cache = cache;
+      this.delegates = delegates;
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+      if (event.getInstanceToLoad() == null) {
+        Object entity = cache.get(event.getEntityClassName(), event.getEntityId());
+        if (entity != null) {
+          event.setResult(entity);
+          return;
+        }
+      }
+      for (LoadEventListener delegate : delegates) {
+        delegate.onLoad(event, loadType);
+      }
+    }
+  }
+
+}
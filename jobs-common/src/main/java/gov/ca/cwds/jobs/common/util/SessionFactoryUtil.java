@@ -15,12 +15,25 @@ import org.hibernate.service.ServiceRegistry;
  */
 public final class SessionFactoryUtil {
 
+  private static final String C3P0_MIN_SIZE = "hibernate.c3p0.min_size";
+
+  private static final String C3P0_MAX_SIZE = "hibernate.c3p0.max_size";
+
+  private static final String CONNECTION_PROVIDER = "hibernate.connection.provider_class";
+
   private SessionFactoryUtil() {
   }
 
+  /**
+   * @param connectionPoolSize number of connections the pool opens at start up unless the minimum
+   * size is configured, and the least maximum size of the pool, usually {@link
+   * gov.ca.cwds.jobs.common.BaseJobConfiguration#getConnectionPoolSize()}, 0 leaves the configured
+   * sizes
+   */
   public static SessionFactory buildSessionFactory(DataSourceFactory dataSourceFactory,
       String dataSourceName,
       ImmutableList<Class<?>> entityClasses,
+      int connectionPoolSize,
       Function<Configuration, Configuration> function) {
     Validate.notNull(dataSourceFactory,
         String.format("%s data source configuration is empty", dataSourceName));
@@ -29,25 +42,63 @@ public final class SessionFactoryUtil {
       configuration.setProperty(property.getKey(), property.getValue());
     }
 
-    if (!dataSourceFactory.getProperties().containsKey("hibernate.c3p0.min_size")) {
-      configuration.setProperty("hibernate.c3p0.min_size", "1");
+    if (connectionPoolSize > 0) {
+      sizeConnectionPool(configuration, connectionPoolSize);
+    } else if (configuration.getProperty(C3P0_MIN_SIZE) == null) {
+      configuration.setProperty(C3P0_MIN_SIZE, "1");
+    }
+    if (!dataSourceFactory.getProperties().containsKey(CONNECTION_PROVIDER)) {
+      configuration.setProperty(CONNECTION_PROVIDER, MeteredConnectionProvider.class.getName());
+      configuration.setProperty(MeteredConnectionProvider.DATA_SOURCE_NAME, dataSourceName);
     }
     configuration.setProperty("hibernate.current_session_context_class", "managed");
 
+    entityClasses.forEach(configuration::addAnnotatedClass);
+    function.apply(configuration);
+
     ServiceRegistry serviceRegistry
         = new StandardServiceRegistryBuilder()
         .applySettings(configuration.getProperties()).build();
-
-    entityClasses.forEach(configuration::addAnnotatedClass);
-    function.apply(configuration);
     return configuration.buildSessionFactory(serviceRegistry);
   }
 
   public static SessionFactory buildSessionFactory(DataSourceFactory dataSourceFactory,
       String dataSourceName,
-      ImmutableList<Class<?>> entityClasses) {
+      ImmutableList<Class<?>> entityClasses,
+      int connectionPoolSize) {
     Function<Configuration, Configuration> emptyFunction = configuration -> configuration;
-    return buildSessionFactory(dataSourceFactory, dataSourceName, entityClasses, emptyFunction);
+    return buildSessionFactory(dataSourceFactory, dataSourceName, entityClasses,
+        connectionPoolSize, emptyFunction);
+  }
+
+  public static SessionFactory buildSessionFactory(DataSourceFactory dataSourceFactory,
+      String dataSourceName,
+      ImmutableList<Class<?>> entityClasses,
+      Function<Configuration, Configuration> function) {
+    return buildSessionFactory(dataSourceFactory, dataSourceName, entityClasses, 0, function);
+  }
+
+  public static SessionFactory buildSessionFactory(DataSourceFactory dataSourceFactory,
+      String dataSourceName,
+      ImmutableList<Class<?>> entityClasses) {
+    return buildSessionFactory(dataSourceFactory, dataSourceName, entityClasses, 0);
+  }
+
+  /**
+   * The minimum size defaults to the given one: Hibernate opens the minimum number of connections
+   * when the pool is created, so the first batches don't wait for connections to be opened. An
+   * explicitly configured minimum size is kept, so is a configured larger maximum.
+   */
+  private static void sizeConnectionPool(Configuration configuration, int poolSize) {
+    String configuredMinSize = configuration.getProperty(C3P0_MIN_SIZE);
+    String configuredMaxSize = configuration.getProperty(C3P0_MAX_SIZE);
+    int minSize = configuredMinSize == null ? poolSize : Integer.parseInt(configuredMinSize);
+    int maxSize = Math.max(poolSize, minSize);
+    if (configuredMaxSize != null) {
+      maxSize = Math.max(maxSize, Integer.parseInt(configuredMaxSize));
+    }
+    configuration.setProperty(C3P0_MIN_SIZE, String.valueOf(minSize));
+    configuration.setProperty(C3P0_MAX_SIZE, String.valueOf(maxSize));
   }
 
-}
\ No newline at end of file
+}
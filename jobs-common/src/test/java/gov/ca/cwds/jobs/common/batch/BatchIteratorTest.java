@@ -1,18 +1,25 @@
 package gov.ca.cwds.jobs.common.batch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import gov.ca.cwds.jobs.common.JobMode;
 import gov.ca.cwds.jobs.common.RecordChangeOperation;
 import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
 import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
 import gov.ca.cwds.jobs.common.job.TestChangedIdentifiersService;
+import gov.ca.cwds.jobs.common.job.TestStreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
+import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.junit.Test;
 
 /**
@@ -139,6 +146,243 @@ public class BatchIteratorTest {
     assertEquals(timestamp, portion.get(2).getTimestamp());
   }
 
+  @Test
+  public void keysetPaginationTest() {
+    LocalDateTime timestamp1 = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime timestamp2 = LocalDateTime.of(2014, 6, 1, 2, 10, 13);
+    List<PageRequest> pageRequests = new ArrayList<>();
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(2,
+        new TestChangedIdentifiersService(Arrays.asList(
+            new ChangedEntityIdentifier("testId1", RecordChangeOperation.I, timestamp1),
+            new ChangedEntityIdentifier("testId2", RecordChangeOperation.I, timestamp1),
+            new ChangedEntityIdentifier("testId3", RecordChangeOperation.I, timestamp1),
+            new ChangedEntityIdentifier("testId4", RecordChangeOperation.I, timestamp2),
+            new ChangedEntityIdentifier("testId5", RecordChangeOperation.I, timestamp2)
+        )) {
+          @Override
+          public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+              PageRequest pageRequest) {
+            pageRequests.add(pageRequest);
+            return super.getIdentifiersForInitialLoad(pageRequest);
+          }
+        });
+    jobIterator.setKeysetPagination(true);
+    List<JobBatch> firstPortion = jobIterator.getNextPortion();
+    assertEquals(1, firstPortion.size());
+    assertEquals(3, firstPortion.get(0).getSize());
+    assertEquals(timestamp1, firstPortion.get(0).getTimestamp());
+    List<JobBatch> secondPortion = jobIterator.getNextPortion();
+    assertEquals(1, secondPortion.size());
+    assertEquals(2, secondPortion.get(0).getSize());
+    assertEquals(timestamp2, secondPortion.get(0).getTimestamp());
+    assertEquals("testId5", jobIterator.getLastIdentifier().getId());
+    assertTrue(jobIterator.getNextPortion().isEmpty());
+    assertFalse(pageRequests.get(0).isKeysetPage());
+    pageRequests.stream().skip(1).forEach(pageRequest -> {
+      assertTrue(pageRequest.isKeysetPage());
+      assertEquals(0, pageRequest.getOffset());
+    });
+  }
+
+  /**
+   * DB2 sorts lower case before upper case (EBCDIC), the reverse of Java string order.
+   */
+  @Test
+  public void keysetPaginationSeeksAfterLastRowInQueryOrder() {
+    LocalDateTime timestamp = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime nextTimestamp = LocalDateTime.of(2014, 6, 1, 2, 10, 13);
+    List<List<ChangedEntityIdentifier>> pages = new ArrayList<>(Arrays.asList(
+        Arrays.asList(
+            new ChangedEntityIdentifier("aaaaaaaaaa", RecordChangeOperation.I, timestamp),
+            new ChangedEntityIdentifier("AAAAAAAAAA", RecordChangeOperation.I, timestamp)),
+        Collections.singletonList(
+            new ChangedEntityIdentifier("BBBBBBBBBB", RecordChangeOperation.I, nextTimestamp)),
+        Collections.emptyList()));
+    List<PageRequest> pageRequests = new ArrayList<>();
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(2,
+        new TestChangedIdentifiersService(Collections.emptyList()) {
+          @Override
+          public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+              PageRequest pageRequest) {
+            pageRequests.add(pageRequest);
+            return new ArrayList<>(pages.remove(0));
+          }
+        });
+    jobIterator.setKeysetPagination(true);
+    List<JobBatch> firstPortion = jobIterator.getNextPortion();
+    assertEquals(2, firstPortion.stream().mapToInt(JobBatch::getSize).sum());
+    assertTrue(pageRequests.get(1).isKeysetPage());
+    assertEquals("AAAAAAAAAA", pageRequests.get(1).getLastIdentifier());
+    assertEquals(timestamp, pageRequests.get(1).getLastTimestamp());
+  }
+
+  @Test
+  public void savePointClusterIsResolvedWithoutSingleRowQueries() {
+    LocalDateTime timestamp = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime differentTimestamp = LocalDateTime.of(2017, 6, 4, 1, 10, 22);
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      identifiers.add(new ChangedEntityIdentifier("testId" + (100 + i), RecordChangeOperation.I,
+          LocalDateTime.of(2013, 5, 8, 1, 10, 25)));
+    }
+    identifiers.add(new ChangedEntityIdentifier("testId200", RecordChangeOperation.I,
+        differentTimestamp));
+    List<PageRequest> pageRequests = new ArrayList<>();
+    JobBatchIterator jobIterator = prepareBatchIterator(10,
+        new TestChangedIdentifiersService(identifiers) {
+          @Override
+          public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+              PageRequest pageRequest) {
+            pageRequests.add(pageRequest);
+            return super.getIdentifiersForInitialLoad(pageRequest);
+          }
+        });
+    List<JobBatch> firstPortion = jobIterator.getNextPortion();
+    assertEquals(2, firstPortion.size());
+    assertEquals(10, firstPortion.get(0).getSize());
+    assertEquals(15, firstPortion.get(1).getSize());
+    assertEquals(timestamp, firstPortion.get(1).getTimestamp());
+    // 3 pages of 10, one row queries were issued for every row of the cluster tail before
+    assertEquals(3, pageRequests.size());
+    pageRequests.forEach(pageRequest -> assertEquals(10, pageRequest.getLimit()));
+    List<JobBatch> secondPortion = jobIterator.getNextPortion();
+    assertEquals(1, secondPortion.size());
+    assertEquals("testId200", secondPortion.get(0).getChangedEntityIdentifiers().get(0).getId());
+    assertEquals(differentTimestamp, secondPortion.get(0).getTimestamp());
+  }
+
+  @Test
+  public void resumeAfterLastCommittedIdentifierTest() {
+    LocalDateTime timestamp = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime nextTimestamp = LocalDateTime.of(2014, 6, 1, 2, 10, 13);
+    List<PageRequest> pageRequests = new ArrayList<>();
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(2,
+        new TestChangedIdentifiersService(Arrays.asList(
+            new ChangedEntityIdentifier("testId1", RecordChangeOperation.I, timestamp),
+            new ChangedEntityIdentifier("testId2", RecordChangeOperation.I, timestamp),
+            new ChangedEntityIdentifier("testId3", RecordChangeOperation.I, nextTimestamp)
+        )) {
+          @Override
+          public List<ChangedEntityIdentifier> getIdentifiersForResumingInitialLoad(
+              LocalDateTime timestamp, PageRequest pageRequest) {
+            pageRequests.add(pageRequest);
+            return super.getIdentifiersForResumingInitialLoad(timestamp, pageRequest);
+          }
+        });
+    TimestampOperator timestampOperator = mock(TimestampOperator.class);
+    when(timestampOperator.timeStampExists()).thenReturn(true);
+    when(timestampOperator.readTimestamp()).thenReturn(timestamp);
+    JobStateStore jobStateStore = mock(JobStateStore.class);
+    when(jobStateStore.readLastCommittedIdentifier()).thenReturn(Optional.of(
+        new ChangedEntityIdentifier("testId2", RecordChangeOperation.U, timestamp)));
+    jobIterator.setTimestampOperator(timestampOperator);
+    jobIterator.setJobStateStore(jobStateStore);
+    jobIterator.setKeysetPagination(true);
+    jobIterator.init();
+    assertEquals(JobMode.INITIAL_LOAD_RESUME, jobIterator.getJobMode());
+    List<JobBatch> portion = jobIterator.getNextPortion();
+    assertEquals(1, portion.size());
+    assertEquals(1, portion.get(0).getSize());
+    assertEquals("testId3", portion.get(0).getChangedEntityIdentifiers().get(0).getId());
+    assertTrue(pageRequests.get(0).isKeysetPage());
+    assertEquals("testId2", pageRequests.get(0).getLastIdentifier());
+  }
+
+  @Test
+  public void savepointsWrittenDuringLoadDoNotMoveDateAfter() {
+    LocalDateTime timestamp = LocalDateTime.now().minusDays(1);
+    LocalDateTime savepoint = LocalDateTime.now();
+    List<LocalDateTime> datesAfter = new ArrayList<>();
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(1,
+        new TestChangedIdentifiersService(Arrays.asList(
+            new ChangedEntityIdentifier("testId1", RecordChangeOperation.U, savepoint),
+            new ChangedEntityIdentifier("testId2", RecordChangeOperation.U, savepoint
+                .plusSeconds(1))
+        )) {
+          @Override
+          public List<ChangedEntityIdentifier> getIdentifiersForIncrementalLoad(
+              LocalDateTime dateAfter, PageRequest pageRequest) {
+            datesAfter.add(dateAfter);
+            return super.getIdentifiersForIncrementalLoad(dateAfter, pageRequest);
+          }
+        });
+    TimestampOperator timestampOperator = mock(TimestampOperator.class);
+    when(timestampOperator.timeStampExists()).thenReturn(true);
+    when(timestampOperator.readTimestamp()).thenReturn(timestamp);
+    jobIterator.setTimestampOperator(timestampOperator);
+    jobIterator.init();
+    assertEquals(JobMode.INCREMENTAL_LOAD, jobIterator.getJobMode());
+    when(timestampOperator.readTimestamp()).thenReturn(savepoint);
+    jobIterator.getNextPortion();
+    jobIterator.getNextPortion();
+    assertFalse(datesAfter.isEmpty());
+    datesAfter.forEach(dateAfter -> assertEquals(timestamp, dateAfter));
+  }
+
+  @Test
+  public void streamedSavePointClusterTest() {
+    LocalDateTime timestamp = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime differentTimestamp = LocalDateTime.of(2017, 6, 4, 1, 10, 22);
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      identifiers.add(new ChangedEntityIdentifier("testId" + (100 + i), RecordChangeOperation.I,
+          timestamp));
+    }
+    identifiers.add(new ChangedEntityIdentifier("testId200", RecordChangeOperation.I,
+        differentTimestamp));
+    identifiers.add(new ChangedEntityIdentifier("testId201", RecordChangeOperation.I,
+        differentTimestamp));
+    TestStreamingIdentifiersService streamingIdentifiersService =
+        new TestStreamingIdentifiersService(identifiers);
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(10,
+        new TestChangedIdentifiersService(Collections.emptyList()));
+    jobIterator.setStreamingIdentifiers(true);
+    jobIterator.setStreamingIdentifiersService(streamingIdentifiersService);
+    List<JobBatch> firstPortion = jobIterator.getNextPortion();
+    assertEquals(2, firstPortion.size());
+    assertEquals(10, firstPortion.get(0).getSize());
+    assertEquals(15, firstPortion.get(1).getSize());
+    assertEquals(timestamp, firstPortion.get(1).getTimestamp());
+    List<JobBatch> secondPortion = jobIterator.getNextPortion();
+    assertEquals(1, secondPortion.size());
+    assertEquals(2, secondPortion.get(0).getSize());
+    assertEquals("testId200", secondPortion.get(0).getChangedEntityIdentifiers().get(0).getId());
+    assertEquals(differentTimestamp, secondPortion.get(0).getTimestamp());
+    assertTrue(jobIterator.getNextPortion().isEmpty());
+    assertEquals(1, streamingIdentifiersService.getCursors().size());
+    jobIterator.destroy();
+    assertTrue(streamingIdentifiersService.getCursors().get(0).isClosed());
+  }
+
+  @Test
+  public void streamedResumeAfterLastCommittedIdentifierTest() {
+    LocalDateTime timestamp = LocalDateTime.of(2013, 5, 8, 1, 10, 25);
+    LocalDateTime nextTimestamp = LocalDateTime.of(2014, 6, 1, 2, 10, 13);
+    TestStreamingIdentifiersService streamingIdentifiersService =
+        new TestStreamingIdentifiersService(Arrays.asList(
+            new ChangedEntityIdentifier("testId1", RecordChangeOperation.U, timestamp),
+            new ChangedEntityIdentifier("testId2", RecordChangeOperation.U, timestamp),
+            new ChangedEntityIdentifier("testId3", RecordChangeOperation.U, nextTimestamp)));
+    JobBatchIteratorImpl jobIterator = (JobBatchIteratorImpl) prepareBatchIterator(2,
+        new TestChangedIdentifiersService(Collections.emptyList()));
+    TimestampOperator timestampOperator = mock(TimestampOperator.class);
+    when(timestampOperator.timeStampExists()).thenReturn(true);
+    when(timestampOperator.readTimestamp()).thenReturn(timestamp);
+    JobStateStore jobStateStore = mock(JobStateStore.class);
+    when(jobStateStore.readLastCommittedIdentifier()).thenReturn(Optional.of(
+        new ChangedEntityIdentifier("testId2", RecordChangeOperation.U, timestamp)));
+    jobIterator.setTimestampOperator(timestampOperator);
+    jobIterator.setJobStateStore(jobStateStore);
+    jobIterator.setKeysetPagination(true);
+    jobIterator.setStreamingIdentifiers(true);
+    jobIterator.setStreamingIdentifiersService(streamingIdentifiersService);
+    jobIterator.init();
+    List<JobBatch> portion = jobIterator.getNextPortion();
+    assertEquals(1, portion.size());
+    assertEquals(1, portion.get(0).getSize());
+    assertEquals("testId3", portion.get(0).getChangedEntityIdentifiers().get(0).getId());
+  }
+
   private ChangedEntityIdentifier createEmptyIdentifier() {
     return new ChangedEntityIdentifier("testId",
         RecordChangeOperation.I,
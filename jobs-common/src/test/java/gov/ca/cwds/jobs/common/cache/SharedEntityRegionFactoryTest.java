@@ -0,0 +1,171 @@
+package gov.ca.cwds.jobs.common.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedEntityRegionFactoryTest {
+
+  private SessionFactory sessionFactory;
+
+  @Before
+  public void setUp() {
+    Configuration configuration = new Configuration()
+        .setProperty("hibernate.connection.url", "jdbc:h2:mem:shared;DB_CLOSE_DELAY=-1")
+        .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+        .addAnnotatedClass(SharedEntity.class)
+        .addAnnotatedClass(OtherEntity.class);
+    sessionFactory = SharedEntityRegionFactory
+        .configure(configuration, Collections.singletonList(SharedEntity.class), 1024 * 1024,
+            "lastUpdatedTime")
+        .buildSessionFactory();
+    executeSql("insert into SHARED_ENTITY (id, name, lastUpdatedTime) "
+        + "values ('1', 'First', '2018-01-01 10:00:00')");
+    executeSql("insert into OTHER_ENTITY (id, name) values ('1', 'Other')");
+  }
+
+  @After
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Test
+  public void onlyConfiguredEntitiesAreCachedTest() {
+    load();
+    assertTrue(sessionFactory.getCache().containsEntity(SharedEntity.class, "1"));
+    assertFalse(sessionFactory.getCache().containsEntity(OtherEntity.class, "1"));
+    try (Session session = sessionFactory.openSession()) {
+      assertEquals("Other", session.get(OtherEntity.class, "1").getName());
+    }
+    assertFalse(sessionFactory.getCache().containsEntity(OtherEntity.class, "1"));
+  }
+
+  @Test
+  public void cachedEntityIsNotReadFromDatabaseTest() {
+    load();
+    executeSql("update SHARED_ENTITY set name = 'Changed' where id = '1'");
+    assertEquals("First", load().getName());
+    assertEquals(0.5, (Double) gauge(JobMetrics.ENTITY_CACHE_HIT_RATIO).getValue(), 0.001);
+    assertEquals(1L, gauge(JobMetrics.ENTITY_CACHE_SIZE).getValue());
+    assertTrue((Long) gauge(JobMetrics.ENTITY_CACHE_MEMORY).getValue() > 0);
+  }
+
+  @Test
+  public void laterTimestampReplacesCachedEntityTest() {
+    load();
+    executeSql("update SHARED_ENTITY set name = 'Outdated' where id = '1'");
+    query();
+    assertEquals("First", load().getName());
+    executeSql("update SHARED_ENTITY set name = 'Changed', "
+        + "lastUpdatedTime = '2018-01-02 10:00:00' where id = '1'");
+    query();
+    assertEquals("Changed", load().getName());
+  }
+
+  private SharedEntity load() {
+    try (Session session = sessionFactory.openSession()) {
+      return session.get(SharedEntity.class, "1");
+    }
+  }
+
+  private void query() {
+    try (Session session = sessionFactory.openSession()) {
+      session.createQuery("from " + SharedEntity.class.getName(), SharedEntity.class).list();
+    }
+  }
+
+  /**
+   * Executes the statement over JDBC, native queries of Hibernate would clear the cache.
+   */
+  private void executeSql(String sql) {
+    try (Session session = sessionFactory.openSession()) {
+      session.doWork(connection -> {
+        try (Statement statement = connection.createStatement()) {
+          statement.executeUpdate(sql);
+        }
+      });
+    }
+  }
+
+  private static Gauge<?> gauge(String name) {
+    return JobMetrics.getRegistry().getGauges().get(name);
+  }
+
+  @Entity
+  @Table(name = "SHARED_ENTITY")
+  public static class SharedEntity {
+
+    @Id
+    private String id;
+
+    private String name;
+
+    private LocalDateTime lastUpdatedTime;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public LocalDateTime getLastUpdatedTime() {
+      return lastUpdatedTime;
+    }
+
+    public void setLastUpdatedTime(LocalDateTime lastUpdatedTime) {
+      this.lastUpdatedTime = lastUpdatedTime;
+    }
+  }
+
+  @Entity
+  @Table(name = "OTHER_ENTITY")
+  public static class OtherEntity {
+
+    @Id
+    private String id;
+
+    private String name;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.JobMode;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class BulkIndexingModePreparatorTest {
+
+  private ElasticSearchIndexerDao indexerDao;
+  private BaseJobConfiguration configuration;
+  private BulkIndexingModePreparator preparator;
+
+  @Before
+  public void beforeMethod() {
+    indexerDao = mock(ElasticSearchIndexerDao.class);
+    configuration = mock(BaseJobConfiguration.class);
+    when(configuration.isBulkIndexingMode()).thenReturn(true);
+    when(configuration.getIndexSettings())
+        .thenReturn("{\"number_of_shards\": 5, \"number_of_replicas\": 2}");
+    preparator = new BulkIndexingModePreparator(indexerDao, configuration);
+  }
+
+  @Test
+  public void prepareTest() {
+    preparator.prepare(JobMode.INITIAL_LOAD);
+    ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+    verify(indexerDao).updateIndexSettings(settings.capture());
+    assertEquals("-1", settings.getValue().get(BulkIndexingModePreparator.REFRESH_INTERVAL));
+    assertEquals("0", settings.getValue().get(BulkIndexingModePreparator.NUMBER_OF_REPLICAS));
+  }
+
+  @Test
+  public void completeRestoresSettingsFromFileTest() {
+    preparator.complete(true);
+    ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+    verify(indexerDao).updateIndexSettings(settings.capture());
+    verify(indexerDao).refreshIndex();
+    assertEquals("1s", settings.getValue().get(BulkIndexingModePreparator.REFRESH_INTERVAL));
+    assertEquals("2", settings.getValue().get(BulkIndexingModePreparator.NUMBER_OF_REPLICAS));
+  }
+
+  @Test
+  public void disabledTest() {
+    when(configuration.isBulkIndexingMode()).thenReturn(false);
+    preparator.prepare(JobMode.INITIAL_LOAD);
+    preparator.complete(true);
+    verify(indexerDao, never()).updateIndexSettings(any());
+    verify(indexerDao, never()).refreshIndex();
+  }
+
+}
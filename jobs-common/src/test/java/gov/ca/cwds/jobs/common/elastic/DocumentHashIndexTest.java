@@ -0,0 +1,98 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.job.timestamp.LastRunDirHelper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DocumentHashIndexTest {
+
+  private static final byte[] SOURCE = "{\"id\":\"1\",\"name\":\"Facility\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] CHANGED_SOURCE = "{\"id\":\"1\",\"name\":\"Changed\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private LastRunDirHelper lastRunDirHelper = new LastRunDirHelper("temp");
+
+  @Before
+  public void beforeMethod() throws IOException {
+    lastRunDirHelper.createTimestampDirectory();
+  }
+
+  @After
+  public void afterMethod() throws IOException {
+    lastRunDirHelper.deleteTimestampDirectory();
+  }
+
+  @Test
+  public void unchangedDocumentsAreSkippedByIncrementalLoadTest() {
+    DocumentHashIndex documentHashIndex = createDocumentHashIndex(JobMode.INITIAL_LOAD);
+    assertFalse(documentHashIndex.isUnchanged("1", SOURCE));
+    assertFalse(documentHashIndex.isUnchanged("1", SOURCE));
+    documentHashIndex.commit();
+    documentHashIndex.close();
+
+    documentHashIndex = createDocumentHashIndex(JobMode.INCREMENTAL_LOAD);
+    assertTrue(documentHashIndex.isUnchanged("1", SOURCE));
+    assertFalse(documentHashIndex.isUnchanged("1", CHANGED_SOURCE));
+    assertTrue(documentHashIndex.isUnchanged("1", CHANGED_SOURCE));
+    documentHashIndex.remove("1");
+    assertFalse(documentHashIndex.isUnchanged("1", CHANGED_SOURCE));
+    documentHashIndex.close();
+  }
+
+  @Test
+  public void uncommittedHashesAreDiscardedTest() {
+    DocumentHashIndex documentHashIndex = createDocumentHashIndex(JobMode.INCREMENTAL_LOAD);
+    documentHashIndex.isUnchanged("1", SOURCE);
+    documentHashIndex.commit();
+    documentHashIndex.isUnchanged("1", CHANGED_SOURCE);
+    documentHashIndex.rollback();
+    assertTrue(documentHashIndex.isUnchanged("1", SOURCE));
+    documentHashIndex.isUnchanged("1", CHANGED_SOURCE);
+    documentHashIndex.close();
+
+    documentHashIndex = createDocumentHashIndex(JobMode.INCREMENTAL_LOAD);
+    assertTrue(documentHashIndex.isUnchanged("1", SOURCE));
+    documentHashIndex.close();
+  }
+
+  @Test
+  public void initialLoadStartsOverTest() {
+    DocumentHashIndex documentHashIndex = createDocumentHashIndex(JobMode.INCREMENTAL_LOAD);
+    documentHashIndex.isUnchanged("1", SOURCE);
+    documentHashIndex.commit();
+    documentHashIndex.close();
+
+    createDocumentHashIndex(JobMode.INITIAL_LOAD).close();
+    documentHashIndex = createDocumentHashIndex(JobMode.INCREMENTAL_LOAD);
+    assertFalse(documentHashIndex.isUnchanged("1", SOURCE));
+    documentHashIndex.close();
+  }
+
+  @Test
+  public void disabledIndexTest() {
+    DocumentHashIndex documentHashIndex = new DocumentHashIndex(
+        lastRunDirHelper.getLastRunDir().toString(), false);
+    documentHashIndex.init(JobMode.INCREMENTAL_LOAD);
+    assertFalse(documentHashIndex.isEnabled());
+    assertFalse(documentHashIndex.isUnchanged("1", SOURCE));
+    assertFalse(documentHashIndex.isUnchanged("1", SOURCE));
+    documentHashIndex.close();
+  }
+
+  private DocumentHashIndex createDocumentHashIndex(JobMode jobMode) {
+    DocumentHashIndex documentHashIndex = new DocumentHashIndex(
+        lastRunDirHelper.getLastRunDir().toString(), true);
+    documentHashIndex.init(jobMode);
+    return documentHashIndex;
+  }
+
+}
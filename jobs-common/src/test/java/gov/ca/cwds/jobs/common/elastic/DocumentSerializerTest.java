@@ -0,0 +1,84 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.ca.cwds.jobs.common.elastic.DocumentSerializer.SerializedDocument;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class DocumentSerializerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final DocumentSerializer documentSerializer = new DocumentSerializer(objectMapper);
+
+  @Test
+  public void serializeTest() throws Exception {
+    Map<String, Object> document = new LinkedHashMap<>();
+    document.put("id", "1");
+    document.put("names", Arrays.asList("first", "second"));
+    SerializedDocument serializedDocument = documentSerializer.serialize(document);
+    assertArrayEquals(objectMapper.writeValueAsBytes(document),
+        serializedDocument.toByteArray());
+  }
+
+  @Test
+  public void acceleratedSerializationTest() throws Exception {
+    TestDocument document = new TestDocument();
+    document.setId("1");
+    document.setCapacity(12);
+    document.setNames(Arrays.asList("first", "second"));
+    SerializedDocument serializedDocument = new DocumentSerializer(
+        ElasticUtils.withAcceleratedSerialization(objectMapper)).serialize(document);
+    assertArrayEquals(objectMapper.writeValueAsBytes(document),
+        serializedDocument.toByteArray());
+  }
+
+  @Test
+  public void bufferIsReusedTest() throws Exception {
+    SerializedDocument first = documentSerializer.serialize("long document value");
+    byte[] buffer = first.getBuffer();
+    SerializedDocument second = documentSerializer.serialize("short");
+    assertSame(buffer, second.getBuffer());
+    assertEquals("\"short\"", new String(second.toByteArray(), "UTF-8"));
+    assertEquals(7, second.size());
+  }
+
+  public static class TestDocument {
+
+    private String id;
+    private int capacity;
+    private List<String> names;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+
+    public List<String> getNames() {
+      return names;
+    }
+
+    public void setNames(List<String> names) {
+      this.names = names;
+    }
+  }
+
+}
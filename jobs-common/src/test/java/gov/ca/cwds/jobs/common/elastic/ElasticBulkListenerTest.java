@@ -0,0 +1,76 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.jobs.common.exception.JobExceptionHandler;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.io.IOException;
+import org.elasticsearch.action.DocWriteRequest.OpType;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse.Failure;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.After;
+import org.junit.Test;
+
+public class ElasticBulkListenerTest {
+
+  private ElasticBulkListener listener = new ElasticBulkListener();
+
+  private BulkRequest request = new BulkRequest()
+      .add(new DeleteRequest("index", "type", "1"))
+      .add(new DeleteRequest("index", "type", "2"));
+
+  @After
+  public void afterMethod() {
+    JobExceptionHandler.reset();
+  }
+
+  @Test
+  public void successfulBulkTest() {
+    long roundTrips = JobMetrics.timer(JobMetrics.BULK_ROUND_TRIP).getCount();
+    long indexedDocuments = JobMetrics.meter(JobMetrics.DOCUMENTS_INDEXED).getCount();
+    listener.beforeBulk(1, request);
+    assertEquals(1, listener.getInFlightBulks().size());
+    listener.afterBulk(1, request, new BulkResponse(new BulkItemResponse[]{
+        successfulItem(0, "1"), successfulItem(1, "2")}, 1));
+    assertEquals(0, listener.getInFlightBulks().size());
+    assertEquals(0, listener.getFailedItemsCount());
+    assertFalse(JobExceptionHandler.isExceptionHappened());
+    assertEquals(roundTrips + 1, JobMetrics.timer(JobMetrics.BULK_ROUND_TRIP).getCount());
+    assertEquals(indexedDocuments + 2,
+        JobMetrics.meter(JobMetrics.DOCUMENTS_INDEXED).getCount());
+  }
+
+  @Test
+  public void failedItemPreventsSavePointTest() {
+    listener.beforeBulk(1, request);
+    listener.afterBulk(1, request, new BulkResponse(new BulkItemResponse[]{
+        successfulItem(0, "1"),
+        new BulkItemResponse(1, OpType.DELETE,
+            new Failure("index", "type", "2", new IOException("mapping error")))}, 1));
+    assertEquals(0, listener.getInFlightBulks().size());
+    assertEquals(1, listener.getFailedItemsCount());
+    assertTrue(JobExceptionHandler.isExceptionHappened());
+  }
+
+  @Test
+  public void failedBulkPreventsSavePointTest() {
+    listener.beforeBulk(1, request);
+    listener.afterBulk(1, request, new IOException("node is not available"));
+    assertEquals(0, listener.getInFlightBulks().size());
+    assertEquals(2, listener.getFailedItemsCount());
+    assertTrue(JobExceptionHandler.isExceptionHappened());
+  }
+
+  private static BulkItemResponse successfulItem(int itemId, String id) {
+    return new BulkItemResponse(itemId, OpType.DELETE,
+        new DeleteResponse(new ShardId("index", "uuid", 0), "type", id, 1, true));
+  }
+
+}
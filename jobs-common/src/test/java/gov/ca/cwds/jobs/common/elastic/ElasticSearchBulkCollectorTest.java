@@ -0,0 +1,99 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import gov.ca.cwds.jobs.common.inject.ElasticSearchBulkSize;
+import gov.ca.cwds.jobs.common.job.BulkWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ElasticSearchBulkCollectorTest {
+
+  private static final int BULK_SIZE = 10;
+
+  private List<List<Integer>> bulks = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  public void concurrentProducersTest() throws InterruptedException {
+    ElasticSearchBulkCollector<Integer> collector = createCollector();
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      int first = thread * 1000;
+      executorService.submit(() -> {
+        for (int i = first; i < first + 1000; i++) {
+          collector.addEntity(i);
+        }
+      });
+    }
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+    int bulksBeforeFlush = bulks.size();
+    collector.flush();
+    assertEquals(bulksBeforeFlush + 1, bulks.size());
+    bulks.subList(0, bulksBeforeFlush)
+        .forEach(bulk -> assertEquals(BULK_SIZE, bulk.size()));
+    List<Integer> written = new ArrayList<>();
+    bulks.forEach(written::addAll);
+    Collections.sort(written);
+    assertEquals(8000, written.size());
+    for (int i = 0; i < written.size(); i++) {
+      assertEquals(Integer.valueOf(i), written.get(i));
+    }
+  }
+
+  @Test
+  public void flushWritesOnceWhenEmptyTest() {
+    ElasticSearchBulkCollector<Integer> collector = createCollector();
+    collector.flush();
+    assertEquals(1, bulks.size());
+    assertTrue(bulks.get(0).isEmpty());
+  }
+
+  @Test
+  public void flushWritesOnlyEntitiesOfOwnCollectorTest() {
+    ElasticSearchBulkCollector<Integer> collector = createCollector();
+    ElasticSearchBulkCollector<Integer> partitionCollector = collector.newCollector();
+    collector.addEntity(1);
+    partitionCollector.addEntity(2);
+    partitionCollector.addEntity(3);
+    partitionCollector.flush();
+    assertEquals(1, bulks.size());
+    assertEquals(Arrays.asList(2, 3), bulks.get(0));
+    collector.flush();
+    assertEquals(Collections.singletonList(1), bulks.get(1));
+  }
+
+  @Test
+  public void newCollectorKeepsBulkSizeTest() {
+    ElasticSearchBulkCollector<Integer> partitionCollector = createCollector().newCollector();
+    for (int i = 0; i < BULK_SIZE; i++) {
+      partitionCollector.addEntity(i);
+    }
+    assertEquals(1, bulks.size());
+    assertEquals(BULK_SIZE, bulks.get(0).size());
+  }
+
+  private ElasticSearchBulkCollector<Integer> createCollector() {
+    return Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bindConstant().annotatedWith(ElasticSearchBulkSize.class).to(BULK_SIZE);
+        bind(new TypeLiteral<BulkWriter<Integer>>() {
+        }).toInstance(items -> bulks.add(new ArrayList<>(items)));
+      }
+    }).getInstance(Key.get(new TypeLiteral<ElasticSearchBulkCollector<Integer>>() {
+    }));
+  }
+
+}
@@ -0,0 +1,51 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.Test;
+
+public class ElasticUtilsTest {
+
+  private static final String SOURCE = "{\"id\":\"1\",\"name\":\"Facility\"}";
+
+  @Test
+  public void compressSourceTest() throws Exception {
+    byte[] buffer = (SOURCE + "unused").getBytes(StandardCharsets.UTF_8);
+    BytesReference compressed = new BytesArray(
+        ElasticUtils.compressSource(buffer, SOURCE.length()));
+    assertTrue(CompressorFactory.isCompressed(compressed));
+    assertArrayEquals(SOURCE.getBytes(StandardCharsets.UTF_8),
+        BytesReference.toBytes(CompressorFactory.uncompress(compressed)));
+    Map<String, Object> document = XContentHelper
+        .convertToMap(compressed, false, XContentType.JSON).v2();
+    assertEquals("Facility", document.get("name"));
+  }
+
+  @Test
+  public void transportCompressTest() throws Exception {
+    BaseJobConfiguration config = new ObjectMapper()
+        .readValue("{\"elasticsearch.cluster\":\"elasticsearch\"}", BaseJobConfiguration.class);
+    Settings settings = ElasticUtils.createClientSettings(config).build();
+    assertEquals("elasticsearch", settings.get("cluster.name"));
+    assertFalse(settings.getAsBoolean("transport.tcp.compress", true));
+
+    config = new ObjectMapper().readValue("{\"elasticsearch.transport.compress\":true}",
+        BaseJobConfiguration.class);
+    settings = ElasticUtils.createClientSettings(config).build();
+    assertTrue(settings.getAsBoolean("transport.tcp.compress", false));
+  }
+
+}
@@ -0,0 +1,46 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class InFlightBulksTest {
+
+  private InFlightBulks inFlightBulks = new InFlightBulks();
+
+  @Test
+  public void noBulksTest() {
+    inFlightBulks.awaitStarted();
+    assertEquals(0, inFlightBulks.size());
+  }
+
+  @Test
+  public void awaitsOnlyStartedBulksTest() throws InterruptedException {
+    inFlightBulks.started(1);
+    inFlightBulks.started(2);
+    AtomicBoolean written = new AtomicBoolean(false);
+    CountDownLatch done = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      inFlightBulks.awaitStarted();
+      written.set(true);
+      done.countDown();
+    });
+    waiter.start();
+    while (waiter.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+    inFlightBulks.completed(2);
+    assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+    inFlightBulks.started(3);
+    inFlightBulks.completed(1);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertTrue(written.get());
+    assertEquals(1, inFlightBulks.size());
+  }
+
+}
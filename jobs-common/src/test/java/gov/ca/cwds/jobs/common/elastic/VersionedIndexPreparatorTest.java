@@ -0,0 +1,156 @@
+package gov.ca.cwds.jobs.common.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.ElasticSearchIndexerDao;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.exception.JobsException;
+import gov.ca.cwds.jobs.common.job.timestamp.JobStateStore;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class VersionedIndexPreparatorTest {
+
+  private static final String ALIAS = "facilities";
+  private static final String NEW_INDEX = "facilities_20180202000000";
+  private static final String OLD_INDEX = "facilities_20180101000000";
+
+  private ElasticSearchIndexerDao indexerDao;
+  private BaseJobConfiguration configuration;
+  private JobStateStore jobStateStore;
+  private VersionedIndexPreparator preparator;
+
+  @Before
+  public void beforeMethod() {
+    indexerDao = mock(ElasticSearchIndexerDao.class);
+    configuration = mock(BaseJobConfiguration.class);
+    when(configuration.getElasticsearchAlias()).thenReturn(ALIAS);
+    when(configuration.isNewIndexOnInitialLoad()).thenReturn(true);
+    when(configuration.isDeleteOldIndex()).thenReturn(true);
+    when(configuration.getMinDocumentsRatio()).thenReturn(0.9);
+    when(indexerDao.getAliasIndices()).thenReturn(Collections.singletonList(OLD_INDEX));
+    jobStateStore = mock(JobStateStore.class);
+    when(jobStateStore.readInitialLoadIndex()).thenReturn(Optional.empty());
+    preparator = new VersionedIndexPreparator(indexerDao, configuration);
+    preparator.setJobStateStore(jobStateStore);
+  }
+
+  @Test
+  public void initialLoadCreatesNewIndexTest() {
+    preparator.prepare(JobMode.INITIAL_LOAD);
+    ArgumentCaptor<String> index = ArgumentCaptor.forClass(String.class);
+    verify(indexerDao).createIndex(index.capture());
+    verify(indexerDao).setIndexName(index.getValue());
+    verify(jobStateStore).writeInitialLoadIndex(index.getValue());
+    assertTrue(index.getValue().matches("facilities_\\d{14}"));
+  }
+
+  @Test
+  public void resumedInitialLoadUsesRecordedIndexTest() {
+    when(jobStateStore.readInitialLoadIndex()).thenReturn(Optional.of(NEW_INDEX));
+    when(indexerDao.getIndices(NEW_INDEX)).thenReturn(Collections.singletonList(NEW_INDEX));
+    preparator.prepare(JobMode.INITIAL_LOAD_RESUME);
+    verify(indexerDao, never()).createIndex(anyString());
+    verify(indexerDao).setIndexName(NEW_INDEX);
+  }
+
+  @Test
+  public void resumedInitialLoadWithoutRecordedIndexWritesToAliasTest() {
+    when(indexerDao.getIndices("facilities_*"))
+        .thenReturn(Arrays.asList(OLD_INDEX, NEW_INDEX, "facilities_backup"));
+    when(configuration.isBulkIndexingMode()).thenReturn(true);
+    preparator.prepare(JobMode.INITIAL_LOAD_RESUME);
+    preparator.complete(true);
+    verify(indexerDao, never()).createIndex(anyString());
+    verify(indexerDao, never()).setIndexName(anyString());
+    verify(indexerDao, never()).updateIndexSettings(any(Settings.class));
+    verify(indexerDao, never()).switchAlias(anyString());
+  }
+
+  @Test
+  public void resumedInitialLoadSkipsRecordedIndexBehindAliasTest() {
+    when(jobStateStore.readInitialLoadIndex()).thenReturn(Optional.of(OLD_INDEX));
+    when(indexerDao.getIndices(OLD_INDEX)).thenReturn(Collections.singletonList(OLD_INDEX));
+    preparator.prepare(JobMode.INITIAL_LOAD_RESUME);
+    verify(indexerDao, never()).setIndexName(anyString());
+  }
+
+  @Test
+  public void successfulLoadSwitchesAliasTest() {
+    resumeNewIndex();
+    when(indexerDao.countDocuments(NEW_INDEX)).thenReturn(95L);
+    when(indexerDao.countDocuments(ALIAS)).thenReturn(100L);
+    when(indexerDao.switchAlias(NEW_INDEX)).thenReturn(Collections.singletonList(OLD_INDEX));
+    preparator.complete(true);
+    verify(indexerDao).switchAlias(NEW_INDEX);
+    verify(indexerDao).deleteIndices(Collections.singletonList(OLD_INDEX));
+    verify(indexerDao).setIndexName(null);
+    verify(jobStateStore).writeInitialLoadIndex(null);
+  }
+
+  @Test
+  public void failedLoadKeepsAliasTest() {
+    resumeNewIndex();
+    preparator.complete(false);
+    verify(indexerDao, never()).switchAlias(anyString());
+    verify(indexerDao, never()).deleteIndices(any());
+    verify(indexerDao).setIndexName(null);
+    verify(jobStateStore, never()).writeInitialLoadIndex(null);
+  }
+
+  @Test(expected = JobsException.class)
+  public void tooFewDocumentsKeepsAliasTest() {
+    resumeNewIndex();
+    when(indexerDao.countDocuments(NEW_INDEX)).thenReturn(10L);
+    when(indexerDao.countDocuments(ALIAS)).thenReturn(100L);
+    try {
+      preparator.complete(true);
+    } finally {
+      verify(indexerDao, never()).switchAlias(anyString());
+      verify(indexerDao).setIndexName(null);
+      verify(jobStateStore, never()).writeInitialLoadIndex(null);
+    }
+  }
+
+  @Test
+  public void bulkIndexingModeAppliesToNewIndexTest() {
+    when(configuration.isBulkIndexingMode()).thenReturn(true);
+    preparator.prepare(JobMode.INITIAL_LOAD);
+    verify(indexerDao).updateIndexSettings(any(Settings.class));
+  }
+
+  @Test
+  public void bulkIndexingModeKeepsLiveIndexSettingsTest() {
+    when(configuration.isBulkIndexingMode()).thenReturn(true);
+    when(configuration.isNewIndexOnInitialLoad()).thenReturn(false);
+    preparator.prepare(JobMode.INITIAL_LOAD);
+    preparator.complete(true);
+    verify(indexerDao, never()).updateIndexSettings(any(Settings.class));
+  }
+
+  private void resumeNewIndex() {
+    when(jobStateStore.readInitialLoadIndex()).thenReturn(Optional.of(NEW_INDEX));
+    when(indexerDao.getIndices(NEW_INDEX)).thenReturn(Collections.singletonList(NEW_INDEX));
+    preparator.prepare(JobMode.INITIAL_LOAD_RESUME);
+  }
+
+  @Test
+  public void indexNameTest() {
+    assertEquals(NEW_INDEX, preparator.createIndexName(LocalDateTime.of(2018, 2, 2, 0, 0)));
+  }
+
+}
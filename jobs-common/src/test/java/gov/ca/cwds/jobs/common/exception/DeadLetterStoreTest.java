@@ -0,0 +1,188 @@
+package gov.ca.cwds.jobs.common.exception;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.inject.JobRunner;
+import gov.ca.cwds.jobs.common.job.TestChangedIdentifiersService;
+import gov.ca.cwds.jobs.common.job.TestModule;
+import gov.ca.cwds.jobs.common.job.timestamp.FilesystemTimestampOperator;
+import gov.ca.cwds.jobs.common.job.timestamp.LastRunDirHelper;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeadLetterStoreTest {
+
+  private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2018, 2, 6, 4, 14, 20);
+
+  private LastRunDirHelper lastRunDirHelper = new LastRunDirHelper("temp");
+
+  private List<String> writtenIds = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void beforeMethod() throws IOException {
+    lastRunDirHelper.createTimestampDirectory();
+  }
+
+  @After
+  public void afterMethod() throws IOException {
+    lastRunDirHelper.deleteTimestampDirectory();
+  }
+
+  @Test
+  public void deadLettersAreKeptTest() {
+    DeadLetterStore deadLetterStore = createDeadLetterStore(2);
+    assertTrue(deadLetterStore.isEnabled());
+    deadLetterStore.add(new ChangedEntityIdentifier("id1", RecordChangeOperation.U, TIMESTAMP),
+        new IllegalStateException("Can't get\tfacility\nby id id1"));
+    deadLetterStore.add(new ChangedEntityIdentifier("id2", RecordChangeOperation.D, null),
+        new IllegalStateException());
+
+    deadLetterStore = createDeadLetterStore(2);
+    List<ChangedEntityIdentifier> identifiers = deadLetterStore.getIdentifiers();
+    assertEquals(2, identifiers.size());
+    assertEquals("id1", identifiers.get(0).getId());
+    assertEquals(RecordChangeOperation.U, identifiers.get(0).getRecordChangeOperation());
+    assertEquals(TIMESTAMP, identifiers.get(0).getTimestamp());
+    assertEquals(RecordChangeOperation.D, identifiers.get(1).getRecordChangeOperation());
+    assertNull(identifiers.get(1).getTimestamp());
+    assertEquals("java.lang.IllegalStateException: Can't get facility by id id1",
+        deadLetterStore.getCause("id1"));
+    assertEquals(0, deadLetterStore.getFailedInRunCount());
+  }
+
+  @Test
+  public void failureBudgetTest() {
+    assertFalse(createDeadLetterStore(0).isEnabled());
+    DeadLetterStore deadLetterStore = createDeadLetterStore(1);
+    deadLetterStore.add(new ChangedEntityIdentifier("id1", RecordChangeOperation.U, TIMESTAMP),
+        new IllegalStateException());
+    try {
+      deadLetterStore.add(new ChangedEntityIdentifier("id2", RecordChangeOperation.U, TIMESTAMP),
+          new IllegalStateException());
+    } catch (JobsException e) {
+      assertEquals(2, createDeadLetterStore(1).getIdentifiers().size());
+      return;
+    }
+    throw new AssertionError("Failure budget is expected to be exceeded");
+  }
+
+  @Test
+  public void failedAgainDeadLettersAreNotRemovedTest() {
+    DeadLetterStore deadLetterStore = createDeadLetterStore(5);
+    List<ChangedEntityIdentifier> identifiers = Arrays.asList(
+        new ChangedEntityIdentifier("id1", RecordChangeOperation.U, TIMESTAMP),
+        new ChangedEntityIdentifier("id2", RecordChangeOperation.U, TIMESTAMP));
+    identifiers.forEach(identifier -> deadLetterStore.add(identifier, new RuntimeException()));
+
+    DeadLetterStore replayStore = createDeadLetterStore(5);
+    replayStore.add(identifiers.get(1), new RuntimeException());
+    replayStore.removeReplayed(identifiers);
+    assertEquals(Collections.singletonList("id2"), createDeadLetterStore(5).getIdentifiers()
+        .stream().map(ChangedEntityIdentifier::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void deadLettersAreReplayedTest() {
+    JobRunner.run(createTestModule("02", new String[0]));
+    assertEquals(Arrays.asList("01", "03"), sorted(writtenIds));
+    assertEquals("02", createDeadLetterStore(5).getIdentifiers().get(0).getId());
+    FilesystemTimestampOperator timestampOperator = new FilesystemTimestampOperator(
+        lastRunDirHelper.getLastRunDir().toString());
+    LocalDateTime timestamp = timestampOperator.readTimestamp();
+
+    writtenIds.clear();
+    JobRunner.run(createTestModule(null, new String[]{"-r"}));
+    assertEquals(Collections.singletonList("02"), writtenIds);
+    assertTrue(createDeadLetterStore(5).getIdentifiers().isEmpty());
+    assertEquals(timestamp, timestampOperator.readTimestamp());
+  }
+
+  @Test
+  public void replayKeepsFailedAgainDeadLettersWithoutFailureBudgetTest() {
+    DeadLetterStore deadLetterStore = createDeadLetterStore(0);
+    deadLetterStore.startReplay();
+    assertTrue(deadLetterStore.isEnabled());
+    List<ChangedEntityIdentifier> identifiers = Arrays.asList(
+        new ChangedEntityIdentifier("id1", RecordChangeOperation.U, TIMESTAMP),
+        new ChangedEntityIdentifier("id2", RecordChangeOperation.U, TIMESTAMP));
+    identifiers.forEach(identifier -> deadLetterStore.add(identifier, new RuntimeException()));
+    deadLetterStore.removeReplayed(identifiers);
+    assertEquals(2, createDeadLetterStore(0).getIdentifiers().size());
+  }
+
+  @Test
+  public void deadLettersAreReplayedWithoutFailureBudgetTest() {
+    JobRunner.run(createTestModule("02", new String[0], 5));
+    writtenIds.clear();
+    JobRunner.run(createTestModule("02", new String[]{"-r"}, 0));
+    assertTrue(writtenIds.isEmpty());
+    assertEquals(Collections.singletonList("02"), createDeadLetterStore(0).getIdentifiers()
+        .stream().map(ChangedEntityIdentifier::getId).collect(Collectors.toList()));
+
+    JobRunner.run(createTestModule(null, new String[]{"-r"}, 0));
+    assertEquals(Collections.singletonList("02"), writtenIds);
+    assertTrue(createDeadLetterStore(0).getIdentifiers().isEmpty());
+  }
+
+  private DeadLetterStore createDeadLetterStore(int failureBudget) {
+    return new DeadLetterStore(lastRunDirHelper.getLastRunDir().toString(), failureBudget);
+  }
+
+  private TestModule createTestModule(String brokenId, String[] extraArgs) {
+    return createTestModule(brokenId, extraArgs, 5);
+  }
+
+  private TestModule createTestModule(String brokenId, String[] extraArgs, int failureBudget) {
+    String configFilePath = Paths.get("src", "test", "resources", "config.yaml").normalize()
+        .toAbsolutePath().toString();
+    List<String> args = new ArrayList<>(Arrays.asList("-c", configFilePath, "-l",
+        lastRunDirHelper.getLastRunDir().toString()));
+    args.addAll(Arrays.asList(extraArgs));
+    TestModule testModule = new TestModule(args.toArray(new String[args.size()]));
+    testModule.setChangedEntitiesIdentifiersClass(ThreeIdentifiersService.class);
+    testModule.setJobBatchIteratorClass(JobBatchIteratorImpl.class);
+    testModule.setFailureBudget(failureBudget);
+    testModule.setChangedEntityService(identifier -> {
+      if (identifier.getId().equals(brokenId)) {
+        throw new IllegalStateException("Can't get entity by id " + brokenId);
+      }
+      return identifier;
+    });
+    testModule.setBulkWriter(items -> {
+      for (Object item : items) {
+        writtenIds.add(((ChangedEntityIdentifier) item).getId());
+      }
+    });
+    return testModule;
+  }
+
+  private static List<String> sorted(List<String> ids) {
+    return ids.stream().sorted().collect(Collectors.toList());
+  }
+
+  public static class ThreeIdentifiersService extends TestChangedIdentifiersService {
+
+    public ThreeIdentifiersService() {
+      super(Arrays.asList(
+          new ChangedEntityIdentifier("01", RecordChangeOperation.I, TIMESTAMP),
+          new ChangedEntityIdentifier("02", RecordChangeOperation.I, TIMESTAMP.plusMinutes(1)),
+          new ChangedEntityIdentifier("03", RecordChangeOperation.I, TIMESTAMP.plusMinutes(2))));
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import static org.junit.Assert.assertEquals;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ChangedEntityIdentifiersTest {
+
+  private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2018, 3, 16, 1, 2, 3);
+
+  @Test
+  public void compactionTest() {
+    ChangedEntityIdentifiers changedEntityIdentifiers = new ChangedEntityIdentifiers();
+    changedEntityIdentifiers.add(identifier("1", RecordChangeOperation.U, 1));
+    changedEntityIdentifiers.add(identifier("2", RecordChangeOperation.D, 2));
+    changedEntityIdentifiers.add(identifier("1", RecordChangeOperation.I, 3));
+    changedEntityIdentifiers.add(identifier("2", RecordChangeOperation.I, 4));
+    changedEntityIdentifiers.add(identifier("3", RecordChangeOperation.U, 5));
+    changedEntityIdentifiers.add(identifier("3", RecordChangeOperation.U, 6));
+    changedEntityIdentifiers.add(identifier("1", RecordChangeOperation.U, 7));
+    changedEntityIdentifiers.add(new ChangedEntityIdentifier("4", null, TIMESTAMP));
+    assertEquals(Arrays.asList(
+        identifier("1", RecordChangeOperation.I, 3),
+        identifier("2", RecordChangeOperation.D, 2),
+        identifier("3", RecordChangeOperation.U, 6)),
+        changedEntityIdentifiers.newStream().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void manyIdentifiersTest() {
+    ChangedEntityIdentifiers changedEntityIdentifiers = new ChangedEntityIdentifiers();
+    for (int i = 0; i < 10000; i++) {
+      changedEntityIdentifiers.add(identifier(String.valueOf(i % 5000),
+          i < 5000 ? RecordChangeOperation.U : RecordChangeOperation.D, i));
+    }
+    assertEquals(5000, changedEntityIdentifiers.size());
+    Set<String> ids = new HashSet<>();
+    changedEntityIdentifiers.newStream().forEach(identifier -> {
+      assertEquals(RecordChangeOperation.D, identifier.getRecordChangeOperation());
+      ids.add(identifier.getId());
+    });
+    assertEquals(5000, ids.size());
+  }
+
+  private static ChangedEntityIdentifier identifier(String id, RecordChangeOperation operation,
+      int seconds) {
+    return new ChangedEntityIdentifier(id, operation, TIMESTAMP.plusSeconds(seconds));
+  }
+
+}
@@ -0,0 +1,44 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import static org.junit.Assert.assertEquals;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CompactIdentifiersTest {
+
+  @Test
+  public void identifiersAreKeptTest() {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      identifiers.add(new ChangedEntityIdentifier("id" + i, RecordChangeOperation.values()[i % 3],
+          LocalDateTime.of(2018, 3, 16, 1, 2, 3, i * 1000)));
+    }
+    identifiers.add(new ChangedEntityIdentifier("AbC1234567", null, null));
+    identifiers.add(new ChangedEntityIdentifier("old", RecordChangeOperation.I,
+        LocalDateTime.of(1901, 1, 1, 0, 0)));
+    CompactIdentifiers compactIdentifiers = CompactIdentifiers.copyOf(identifiers);
+    assertEquals(identifiers, compactIdentifiers);
+    assertEquals(identifiers, new ArrayList<>(compactIdentifiers));
+  }
+
+  @Test
+  public void setTest() {
+    LocalDateTime timestamp = LocalDateTime.of(2018, 3, 16, 1, 2, 3);
+    CompactIdentifiers compactIdentifiers = CompactIdentifiers.copyOf(Arrays.asList(
+        new ChangedEntityIdentifier("1", RecordChangeOperation.I, timestamp),
+        new ChangedEntityIdentifier("2", RecordChangeOperation.I, timestamp)));
+    compactIdentifiers.set(0, new ChangedEntityIdentifier("1", RecordChangeOperation.D, null));
+    compactIdentifiers.set(1, new ChangedEntityIdentifier("300", RecordChangeOperation.U,
+        timestamp));
+    assertEquals(Arrays.asList(
+        new ChangedEntityIdentifier("1", RecordChangeOperation.D, null),
+        new ChangedEntityIdentifier("300", RecordChangeOperation.U, timestamp)),
+        compactIdentifiers);
+  }
+
+}
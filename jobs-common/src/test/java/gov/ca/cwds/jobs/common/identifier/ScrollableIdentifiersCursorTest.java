@@ -0,0 +1,54 @@
+package gov.ca.cwds.jobs.common.identifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.junit.Test;
+
+public class ScrollableIdentifiersCursorTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void cursorIsClosedWhenExhaustedTest() {
+    SessionFactory sessionFactory = mock(SessionFactory.class);
+    StatelessSession session = mock(StatelessSession.class);
+    Transaction transaction = mock(Transaction.class);
+    Query<String> query = mock(Query.class);
+    ScrollableResults results = mock(ScrollableResults.class);
+    when(sessionFactory.openStatelessSession()).thenReturn(session);
+    when(session.getTransaction()).thenReturn(transaction);
+    when(transaction.isActive()).thenReturn(true);
+    when(query.setReadOnly(true)).thenReturn(query);
+    when(query.setFetchSize(100)).thenReturn(query);
+    when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(results);
+    when(results.next()).thenReturn(true, true, false);
+    when(results.get(0)).thenReturn("id1", "id2");
+
+    IdentifiersCursor cursor = ScrollableIdentifiersCursor.open(sessionFactory, s -> query, 100,
+        id -> new ChangedEntityIdentifier(id, RecordChangeOperation.I, null));
+    verify(session).beginTransaction();
+    assertTrue(cursor.hasNext());
+    assertTrue(cursor.hasNext());
+    assertEquals("id1", cursor.next().getId());
+    assertEquals("id2", cursor.next().getId());
+    assertFalse(cursor.hasNext());
+    verify(results).close();
+    verify(transaction).rollback();
+    verify(session).close();
+    cursor.close();
+    verify(session, times(1)).close();
+  }
+
+}
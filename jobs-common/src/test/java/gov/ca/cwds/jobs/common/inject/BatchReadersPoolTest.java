@@ -0,0 +1,76 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.api.ChangedEntityService;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class BatchReadersPoolTest {
+
+  private AtomicInteger loaded = new AtomicInteger();
+
+  private BatchReadersPool<String> batchReadersPool;
+
+  @After
+  public void afterMethod() {
+    batchReadersPool.destroy();
+  }
+
+  @Test
+  public void readEntitiesInOrderOfIdentifiersTest() {
+    batchReadersPool = createBatchReadersPool(3);
+    List<ChangedEntityIdentifier> identifiers = createIdentifiers(10);
+    List<String> entities = batchReadersPool.readEntities(identifiers);
+    assertEquals(identifiers.stream().map(ChangedEntityIdentifier::getId)
+        .collect(Collectors.toList()), entities);
+    assertEquals(10, loaded.get());
+    assertEquals(0, batchReadersPool.readEntities(Collections.emptyList()).size());
+  }
+
+  @Test
+  public void entityLoadTimerSamplesEveryEntityTest() {
+    batchReadersPool = createBatchReadersPool(3);
+    long count = JobMetrics.timer(JobMetrics.ENTITY_LOAD).getCount();
+    batchReadersPool.readEntities(createIdentifiers(10));
+    assertEquals(count + 10, JobMetrics.timer(JobMetrics.ENTITY_LOAD).getCount());
+  }
+
+  private BatchReadersPool<String> createBatchReadersPool(int readerThreadsCount) {
+    BatchReadersPool<String> pool = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bindConstant().annotatedWith(ReaderThreadsCount.class).to(readerThreadsCount);
+        bind(new TypeLiteral<ChangedEntityService<String>>() {
+        }).toInstance(identifier -> {
+          loaded.incrementAndGet();
+          return identifier.getId();
+        });
+      }
+    }).getInstance(Key.get(new TypeLiteral<BatchReadersPool<String>>() {
+    }));
+    pool.init(null);
+    return pool;
+  }
+
+  private static List<ChangedEntityIdentifier> createIdentifiers(int count) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      identifiers.add(new ChangedEntityIdentifier("testId" + i, RecordChangeOperation.I, null));
+    }
+    return identifiers;
+  }
+
+}
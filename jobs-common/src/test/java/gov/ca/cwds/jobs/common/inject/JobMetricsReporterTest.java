@@ -0,0 +1,43 @@
+package gov.ca.cwds.jobs.common.inject;
+
+import static org.junit.Assert.assertTrue;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JobMetricsReporterTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void metricsAreWrittenToReportFileTest() throws IOException {
+    File reportFile = new File(temporaryFolder.getRoot(), "metrics.txt");
+    BaseJobConfiguration configuration = new BaseJobConfiguration();
+    configuration.setMetricsReportInterval(1);
+    configuration.setMetricsReportFile(reportFile.getPath());
+    JobMetricsReporter reporter = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bind(BaseJobConfiguration.class).toInstance(configuration);
+      }
+    }).getInstance(JobMetricsReporter.class);
+
+    reporter.start();
+    JobMetrics.timer(JobMetrics.SAVEPOINT_WRITE).update(5, TimeUnit.MILLISECONDS);
+    reporter.stop();
+
+    String report = FileUtils.readFileToString(reportFile, "UTF-8");
+    assertTrue(report.contains(JobMetrics.SAVEPOINT_WRITE));
+  }
+
+}
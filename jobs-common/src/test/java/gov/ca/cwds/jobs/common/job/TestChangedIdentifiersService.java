@@ -40,11 +40,25 @@ public class TestChangedIdentifiersService implements ChangedEntitiesIdentifiers
     if (identifiers.isEmpty()) {
       return Collections.emptyList();
     }
-    int indexFrom = pageRequest.getOffset();
+    int indexFrom = pageRequest.isKeysetPage() ? seek(pageRequest) : pageRequest.getOffset();
     int indexTo =
-        pageRequest.getOffset() + pageRequest.getLimit() > identifiers.size() ?
-            identifiers.size() : pageRequest.getOffset() + pageRequest.getLimit();
+        indexFrom + pageRequest.getLimit() > identifiers.size() ?
+            identifiers.size() : indexFrom + pageRequest.getLimit();
     return indexFrom < indexTo ? new ArrayList<>(identifiers.subList(indexFrom, indexTo)) : Collections.emptyList();
   }
 
+  private int seek(PageRequest pageRequest) {
+    int index = 0;
+    while (index < identifiers.size() && !isAfterKey(identifiers.get(index), pageRequest)) {
+      index++;
+    }
+    return index;
+  }
+
+  private static boolean isAfterKey(ChangedEntityIdentifier identifier, PageRequest pageRequest) {
+    int timestampComparison = identifier.getTimestamp().compareTo(pageRequest.getLastTimestamp());
+    return timestampComparison > 0 || (timestampComparison == 0
+        && identifier.getId().compareTo(pageRequest.getLastIdentifier()) > 0);
+  }
+
 }
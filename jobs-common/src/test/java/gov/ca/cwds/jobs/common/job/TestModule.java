@@ -5,6 +5,7 @@ import com.google.inject.TypeLiteral;
 import gov.ca.cwds.jobs.common.BaseJobConfiguration;
 import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
 import gov.ca.cwds.jobs.common.api.ChangedEntityService;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
 import gov.ca.cwds.jobs.common.batch.JobBatchIterator;
 import gov.ca.cwds.jobs.common.config.JobOptions;
 import gov.ca.cwds.jobs.common.inject.AbstractBaseJobModule;
@@ -19,6 +20,10 @@ public class TestModule extends AbstractBaseJobModule {
   private ChangedEntityService changedEntityService;
   private Class<? extends ChangedEntitiesIdentifiersService> changedEntitiesIdentifiersClass;
   private BulkWriter bulkWriter;
+  private int pipelineQueueSize;
+  private PartitionedIdentifiersService partitionedIdentifiersService;
+  private int initialLoadPartitions;
+  private int failureBudget;
 
   public TestModule(String[] args) {
     super(args);
@@ -34,12 +39,16 @@ public class TestModule extends AbstractBaseJobModule {
     });
     bulkWriter = items -> {
     };
+    setJobBatchIteratorClass(BatchTestSavePointBatchIterator.class);
   }
 
   @Override
   protected BaseJobConfiguration getJobsConfiguration(JobOptions jobsOptions) {
     TestJobConfiguration testJobConfiguration = new TestJobConfiguration();
     testJobConfiguration.setBatchSize(1);
+    testJobConfiguration.setPipelineQueueSize(pipelineQueueSize);
+    testJobConfiguration.setInitialLoadPartitions(initialLoadPartitions);
+    testJobConfiguration.setFailureBudget(failureBudget);
     return testJobConfiguration;
   }
 
@@ -50,11 +59,14 @@ public class TestModule extends AbstractBaseJobModule {
     bind(ChangedEntitiesIdentifiersService.class).to(changedEntitiesIdentifiersClass);
     bind(new TypeLiteral<BatchProcessor<Object>>() {
     }).to(TestBatchProcessor.class);
-    bind(JobBatchIterator.class).to(BatchTestSavePointBatchIterator.class);
+    bind(JobBatchIterator.class).to(getJobBatchIteratorClass());
     bind(new TypeLiteral<ChangedEntityService<Object>>() {
     }).toInstance(changedEntityService);
     bind(new TypeLiteral<BulkWriter<Object>>() {
     }).toInstance(bulkWriter);
+    if (partitionedIdentifiersService != null) {
+      bind(PartitionedIdentifiersService.class).toInstance(partitionedIdentifiersService);
+    }
   }
 
   private static class TestJobImpl extends JobImpl<Object> {
@@ -78,4 +90,21 @@ public class TestModule extends AbstractBaseJobModule {
     this.bulkWriter = bulkWriter;
   }
 
+  public void setPipelineQueueSize(int pipelineQueueSize) {
+    this.pipelineQueueSize = pipelineQueueSize;
+  }
+
+  public void setPartitionedIdentifiersService(
+      PartitionedIdentifiersService partitionedIdentifiersService) {
+    this.partitionedIdentifiersService = partitionedIdentifiersService;
+  }
+
+  public void setInitialLoadPartitions(int initialLoadPartitions) {
+    this.initialLoadPartitions = initialLoadPartitions;
+  }
+
+  public void setFailureBudget(int failureBudget) {
+    this.failureBudget = failureBudget;
+  }
+
 }
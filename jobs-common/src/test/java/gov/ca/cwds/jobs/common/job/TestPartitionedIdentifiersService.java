@@ -0,0 +1,46 @@
+package gov.ca.cwds.jobs.common.job;
+
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestPartitionedIdentifiersService implements PartitionedIdentifiersService {
+
+  private List<ChangedEntityIdentifier> identifiers;
+
+  public TestPartitionedIdentifiersService(List<ChangedEntityIdentifier> identifiers) {
+    this.identifiers = identifiers.stream()
+        .sorted(Comparator.comparing(ChangedEntityIdentifier::getId))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<String> getPartitionBoundaries(int partitionsCount) {
+    List<String> boundaries = new ArrayList<>();
+    for (int i = 1; i < partitionsCount; i++) {
+      int position = identifiers.size() * i / partitionsCount - 1;
+      if (position >= 0 && (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1)
+          .equals(identifiers.get(position).getId()))) {
+        boundaries.add(identifiers.get(position).getId());
+      }
+    }
+    return boundaries;
+  }
+
+  @Override
+  public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+      InitialLoadPartition partition, int limit) {
+    return identifiers.stream()
+        .filter(identifier -> partition.getStartAfter() == null
+            || identifier.getId().compareTo(partition.getStartAfter()) > 0)
+        .filter(identifier -> partition.getTo() == null
+            || identifier.getId().compareTo(partition.getTo()) <= 0)
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,87 @@
+package gov.ca.cwds.jobs.common.job;
+
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class TestStreamingIdentifiersService implements StreamingIdentifiersService {
+
+  private final List<ChangedEntityIdentifier> identifiers;
+
+  private final List<TestIdentifiersCursor> cursors = new ArrayList<>();
+
+  public TestStreamingIdentifiersService(List<ChangedEntityIdentifier> identifiers) {
+    this.identifiers = identifiers;
+  }
+
+  @Override
+  public IdentifiersCursor openInitialLoadCursor(int fetchSize) {
+    return openCursor(null);
+  }
+
+  @Override
+  public IdentifiersCursor openResumingInitialLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return openCursor(startAfter);
+  }
+
+  @Override
+  public IdentifiersCursor openIncrementalLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return openCursor(startAfter);
+  }
+
+  public List<TestIdentifiersCursor> getCursors() {
+    return cursors;
+  }
+
+  private IdentifiersCursor openCursor(ChangedEntityIdentifier startAfter) {
+    int index = 0;
+    if (startAfter != null) {
+      while (index < identifiers.size() && !startAfter.getId()
+          .equals(identifiers.get(index).getId())) {
+        index++;
+      }
+      index++;
+    }
+    TestIdentifiersCursor cursor = new TestIdentifiersCursor(
+        identifiers.subList(Math.min(index, identifiers.size()), identifiers.size()).iterator());
+    cursors.add(cursor);
+    return cursor;
+  }
+
+  public static final class TestIdentifiersCursor implements IdentifiersCursor {
+
+    private final Iterator<ChangedEntityIdentifier> iterator;
+
+    private boolean closed;
+
+    private TestIdentifiersCursor(Iterator<ChangedEntityIdentifier> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !closed && iterator.hasNext();
+    }
+
+    @Override
+    public ChangedEntityIdentifier next() {
+      return iterator.next();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    public boolean isClosed() {
+      return closed;
+    }
+  }
+
+}
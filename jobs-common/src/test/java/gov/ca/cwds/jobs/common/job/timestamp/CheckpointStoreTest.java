@@ -0,0 +1,89 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CheckpointStoreTest {
+
+  private LastRunDirHelper lastRunDirHelper = new LastRunDirHelper("temp");
+
+  private CheckpointStore checkpointStore;
+
+  @Before
+  public void beforeMethod() throws IOException {
+    lastRunDirHelper.createTimestampDirectory();
+    checkpointStore = new CheckpointStore(lastRunDirHelper.getLastRunDir().toString());
+  }
+
+  @After
+  public void afterMethod() throws IOException {
+    lastRunDirHelper.deleteTimestampDirectory();
+  }
+
+  @Test
+  public void readWriteCheckpointTest() {
+    assertFalse(checkpointStore.read("cws").isPresent());
+    Checkpoint checkpoint = new Checkpoint();
+    checkpoint.setTimestamp(LocalDateTime.of(2018, 4, 20, 10, 15, 30));
+    checkpoint.setLastIdentifier("0000000ABC");
+    checkpoint.setAttribute("partition", "1");
+    checkpointStore.write("cws", checkpoint);
+
+    Checkpoint stored = checkpointStore.read("cws").get();
+    assertEquals(LocalDateTime.of(2018, 4, 20, 10, 15, 30), stored.getTimestamp());
+    assertEquals("0000000ABC", stored.getLastIdentifier());
+    assertEquals("1", stored.getAttribute("partition"));
+  }
+
+  @Test
+  public void checkpointIsReplacedTest() {
+    Checkpoint checkpoint = new Checkpoint();
+    checkpoint.setLastIdentifier("1");
+    checkpoint.setAttribute("completed", "false");
+    checkpointStore.write("lis", checkpoint);
+    checkpoint.setLastIdentifier("2");
+    checkpoint.setAttribute("completed", null);
+    checkpointStore.write("lis", checkpoint);
+
+    Checkpoint stored = checkpointStore.read("lis").get();
+    assertEquals("2", stored.getLastIdentifier());
+    assertNull(stored.getTimestamp());
+    assertTrue(stored.getAttributes().isEmpty());
+    File[] files = lastRunDirHelper.getLastRunDir().resolve("checkpoints").toFile().listFiles();
+    assertEquals(Arrays.toString(files), 1, files.length);
+  }
+
+  @Test
+  public void namedCheckpointsTest() {
+    checkpointStore.write("partition.2", new Checkpoint());
+    checkpointStore.write("partition.1", new Checkpoint());
+    checkpointStore.write("timestamp", new Checkpoint());
+
+    Map<String, Checkpoint> partitions = checkpointStore.readAll("partition.");
+    assertEquals(Arrays.asList("partition.1", "partition.2"),
+        Arrays.asList(partitions.keySet().toArray()));
+
+    checkpointStore.deleteAll("partition.");
+    assertTrue(checkpointStore.readAll("partition.").isEmpty());
+    assertTrue(checkpointStore.read("timestamp").isPresent());
+    checkpointStore.delete("timestamp");
+    assertFalse(checkpointStore.read("timestamp").isPresent());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidNameTest() {
+    checkpointStore.write("../LastJobRun", new Checkpoint());
+  }
+
+}
@@ -2,10 +2,13 @@ package gov.ca.cwds.jobs.common.job.timestamp;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +31,34 @@ public class FilesystemTimestampOperatorTest {
     assertTrue(timestampOperator.timeStampExists());
   }
 
+  @Test
+  public void readWritePartitionsTest() throws Exception {
+    FilesystemTimestampOperator timestampOperator = new FilesystemTimestampOperator(
+        lastRunDirHelper.getLastRunDir().toString());
+    assertTrue(timestampOperator.readPartitions().isEmpty());
+    InitialLoadPartition second = new InitialLoadPartition(2, "0000000ABC", null);
+    second.setLastIdentifier("0000000XYZ");
+    timestampOperator.writePartition(second);
+    timestampOperator.writePartition(new InitialLoadPartition(1, null, "0000000ABC"));
+    second.setCompleted(true);
+    timestampOperator.writePartition(second);
+
+    List<InitialLoadPartition> partitions = timestampOperator.readPartitions();
+    assertEquals(2, partitions.size());
+    assertEquals(1, partitions.get(0).getNumber());
+    assertNull(partitions.get(0).getFrom());
+    assertEquals("0000000ABC", partitions.get(0).getTo());
+    assertNull(partitions.get(0).getLastIdentifier());
+    assertFalse(partitions.get(0).isCompleted());
+    assertEquals("0000000ABC", partitions.get(1).getFrom());
+    assertNull(partitions.get(1).getTo());
+    assertEquals("0000000XYZ", partitions.get(1).getLastIdentifier());
+    assertTrue(partitions.get(1).isCompleted());
+
+    timestampOperator.deletePartitions();
+    assertTrue(timestampOperator.readPartitions().isEmpty());
+  }
+
   @Before
   public void beforeMethod() throws IOException {
     lastRunDirHelper.createTimestampDirectory();
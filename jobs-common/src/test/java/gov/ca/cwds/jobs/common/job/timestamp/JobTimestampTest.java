@@ -105,6 +105,47 @@ public class JobTimestampTest {
     }
   }
 
+  @Test
+  public void test_timestamp_is_created_if_pipelined_job_successful() {
+    assertFalse(timestampOperator.timeStampExists());
+    TestModule testModule = new TestModule(getModuleArgs());
+    testModule
+        .setChangedEntitiesIdentifiersClass(SingleBatchChangedEntitiesIdentifiersService.class);
+    testModule.setPipelineQueueSize(2);
+    JobRunner.run(testModule);
+    assertTrue(timestampOperator.timeStampExists());
+    LocalDateTime timestamp = timestampOperator.readTimestamp();
+    assertTrue(timestamp.until(LocalDateTime.now(), ChronoUnit.SECONDS) < 1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void last_successfull_batch_save_point_pipelined_test() {
+    try {
+      assertFalse(timestampOperator.timeStampExists());
+      TestModule testModule = new TestModule(getModuleArgs());
+      testModule
+          .setChangedEntitiesIdentifiersClass(SingleBatchChangedEntitiesIdentifiersService.class);
+      testModule.setJobBatchIteratorClass(BatchTestSavePointBatchIterator.class);
+      testModule.setPipelineQueueSize(2);
+      testModule.setChangedEntityService(identifier -> {
+        if (identifier == BROKEN_ENTITY) {
+          return BROKEN_ENTITY;
+        } else {
+          return new Object();
+        }
+      });
+      testModule.setBulkWriter(items -> {
+        if (!items.isEmpty() && items.get(0) == BROKEN_ENTITY) {
+          throw new IllegalStateException("Broken batch");
+        }
+      });
+      JobRunner.run(testModule);
+    } finally {
+      assertTrue(timestampOperator.timeStampExists());
+      assertEquals(SECOND_TIMESTAMP, timestampOperator.readTimestamp());
+    }
+  }
+
   @Test
   public void test_all_timestamps_null() {
     assertFalse(timestampOperator.timeStampExists());
@@ -0,0 +1,161 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.JobBatch;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MVStoreTimestampOperatorTest {
+
+  private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2018, 2, 6, 4, 14, 20);
+
+  private LastRunDirHelper lastRunDirHelper = new LastRunDirHelper("temp");
+
+  @Test
+  public void readWriteTimestampTest() throws Exception {
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    assertFalse(timestampOperator.timeStampExists());
+    assertNull(timestampOperator.readTimestamp());
+    timestampOperator.writeTimestamp(TIMESTAMP);
+    timestampOperator.close();
+
+    timestampOperator = createTimestampOperator();
+    assertTrue(timestampOperator.timeStampExists());
+    assertEquals(TIMESTAMP, timestampOperator.readTimestamp());
+    timestampOperator.close();
+  }
+
+  @Test
+  public void importTimestampFileTest() throws Exception {
+    new FilesystemTimestampOperator(lastRunDirHelper.getLastRunDir().toString())
+        .writeTimestamp(TIMESTAMP);
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    assertEquals(TIMESTAMP, timestampOperator.readTimestamp());
+    timestampOperator.close();
+  }
+
+  @Test
+  public void readWriteInitialLoadIndexTest() throws Exception {
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    assertFalse(timestampOperator.readInitialLoadIndex().isPresent());
+    timestampOperator.writeInitialLoadIndex("facilities_20180206041420");
+    timestampOperator.close();
+
+    timestampOperator = createTimestampOperator();
+    assertEquals("facilities_20180206041420", timestampOperator.readInitialLoadIndex().get());
+    timestampOperator.writeInitialLoadIndex(null);
+    assertFalse(timestampOperator.readInitialLoadIndex().isPresent());
+    timestampOperator.close();
+  }
+
+  @Test
+  public void readWritePartitionsTest() throws Exception {
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    InitialLoadPartition partition = new InitialLoadPartition(1, null, "0000000ABC");
+    partition.setLastIdentifier("0000000AAA");
+    timestampOperator.writePartition(partition);
+    timestampOperator.close();
+
+    timestampOperator = createTimestampOperator();
+    List<InitialLoadPartition> partitions = timestampOperator.readPartitions();
+    assertEquals(1, partitions.size());
+    assertNull(partitions.get(0).getFrom());
+    assertEquals("0000000ABC", partitions.get(0).getTo());
+    assertEquals("0000000AAA", partitions.get(0).getLastIdentifier());
+    assertFalse(partitions.get(0).isCompleted());
+    timestampOperator.deletePartitions();
+    assertTrue(timestampOperator.readPartitions().isEmpty());
+    timestampOperator.close();
+  }
+
+  @Test
+  public void runHistoryTest() throws Exception {
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    timestampOperator.runStarted(JobMode.INITIAL_LOAD);
+    timestampOperator.batchCommitted(createBatch(TIMESTAMP, "id1", "id2", "ID3"));
+    timestampOperator.batchFailed(createBatch(TIMESTAMP.plusDays(1), "id4", "id5"));
+    timestampOperator.runFinished(false);
+    timestampOperator.close();
+
+    timestampOperator = createTimestampOperator();
+    assertEquals("ID3", timestampOperator.readLastCommittedIdentifier().get().getId());
+    assertEquals(TIMESTAMP, timestampOperator.readLastCommittedIdentifier().get().getTimestamp());
+    List<ChangedEntityIdentifier> failedIdentifiers = timestampOperator.readFailedIdentifiers();
+    assertEquals(Arrays.asList("id4", "id5"), failedIdentifiers.stream()
+        .map(ChangedEntityIdentifier::getId).collect(Collectors.toList()));
+    assertEquals(RecordChangeOperation.U, failedIdentifiers.get(0).getRecordChangeOperation());
+    assertEquals(TIMESTAMP.plusDays(1), failedIdentifiers.get(0).getTimestamp());
+    List<String[]> batches = timestampOperator.readBatches(1);
+    assertEquals(1, batches.size());
+    assertEquals("ID3", batches.get(0)[1]);
+    assertEquals("3", batches.get(0)[2]);
+
+    timestampOperator.runStarted(JobMode.INITIAL_LOAD_RESUME);
+    timestampOperator.batchCommitted(createBatch(TIMESTAMP.plusDays(1), "id4", "id5"));
+    timestampOperator.runFinished(true);
+    assertTrue(timestampOperator.readFailedIdentifiers().isEmpty());
+    List<JobRun> runs = timestampOperator.readRunHistory();
+    assertEquals(2, runs.size());
+    assertFalse(runs.get(0).isSuccessful());
+    assertEquals(JobMode.INITIAL_LOAD, runs.get(0).getJobMode());
+    assertEquals(1, runs.get(0).getBatchesCount());
+    assertEquals(3, runs.get(0).getEntitiesCount());
+    assertTrue(runs.get(1).isSuccessful());
+    assertEquals(2, runs.get(1).getEntitiesCount());
+    timestampOperator.close();
+  }
+
+  @Test
+  public void oldRunsAreRemovedTest() throws Exception {
+    MVStoreTimestampOperator timestampOperator = createTimestampOperator();
+    for (int i = 0; i < MVStoreTimestampOperator.RUN_HISTORY_SIZE + 5; i++) {
+      timestampOperator.runStarted(JobMode.INCREMENTAL_LOAD);
+      timestampOperator.batchCommitted(createBatch(TIMESTAMP.plusMinutes(i), "id" + i));
+      timestampOperator.runFinished(true);
+    }
+    List<JobRun> runs = timestampOperator.readRunHistory();
+    assertEquals(MVStoreTimestampOperator.RUN_HISTORY_SIZE, runs.size());
+    assertEquals(6, runs.get(0).getId());
+    assertTrue(timestampOperator.readBatches(5).isEmpty());
+    assertEquals(1, timestampOperator.readBatches(6).size());
+    timestampOperator.close();
+  }
+
+  private static JobBatch createBatch(LocalDateTime timestamp, String... ids) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    for (String id : ids) {
+      identifiers.add(new ChangedEntityIdentifier(id, RecordChangeOperation.U, timestamp));
+    }
+    return new JobBatch(identifiers, timestamp);
+  }
+
+  private MVStoreTimestampOperator createTimestampOperator() {
+    return new MVStoreTimestampOperator(lastRunDirHelper.getLastRunDir().toString());
+  }
+
+  @Before
+  public void beforeMethod() throws IOException {
+    lastRunDirHelper.createTimestampDirectory();
+  }
+
+  @After
+  public void afterMethod() throws IOException {
+    lastRunDirHelper.deleteTimestampDirectory();
+  }
+
+}
@@ -0,0 +1,131 @@
+package gov.ca.cwds.jobs.common.job.timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
+import gov.ca.cwds.jobs.common.exception.JobsException;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.inject.JobRunner;
+import gov.ca.cwds.jobs.common.job.TestModule;
+import gov.ca.cwds.jobs.common.job.TestPartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.job.identifiers.SingleBatchChangedEntitiesIdentifiersService;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartitionedInitialLoadTest {
+
+  private static final int IDENTIFIERS_COUNT = 20;
+
+  private FilesystemTimestampOperator timestampOperator;
+  private LastRunDirHelper lastRunDirHelper = new LastRunDirHelper("temp");
+  private List<String> writtenIds = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void beforeMethod() throws IOException {
+    timestampOperator = new FilesystemTimestampOperator(
+        lastRunDirHelper.getLastRunDir().toString());
+    lastRunDirHelper.createTimestampDirectory();
+  }
+
+  @After
+  public void afterMethod() throws IOException {
+    lastRunDirHelper.deleteTimestampDirectory();
+  }
+
+  @Test
+  public void test_all_partitions_are_loaded() {
+    JobRunner.run(createTestModule(null));
+    assertEquals(createIds(1, IDENTIFIERS_COUNT), sorted(writtenIds));
+    assertTrue(timestampOperator.readPartitions().isEmpty());
+    assertTrue(timestampOperator.timeStampExists());
+  }
+
+  @Test
+  public void test_partitions_are_resumed_after_savepoints() {
+    InitialLoadPartition first = new InitialLoadPartition(1, null, "10");
+    first.setLastIdentifier("10");
+    first.setCompleted(true);
+    InitialLoadPartition second = new InitialLoadPartition(2, "10", null);
+    second.setLastIdentifier("15");
+    timestampOperator.writePartition(first);
+    timestampOperator.writePartition(second);
+
+    JobRunner.run(createTestModule(null));
+    assertEquals(createIds(16, IDENTIFIERS_COUNT), sorted(writtenIds));
+    assertTrue(timestampOperator.readPartitions().isEmpty());
+    assertTrue(timestampOperator.timeStampExists());
+  }
+
+  @Test
+  public void test_partition_savepoint_is_kept_if_crash_happens() {
+    try {
+      JobRunner.run(createTestModule("13"));
+    } catch (JobsException e) {
+      List<InitialLoadPartition> partitions = timestampOperator.readPartitions();
+      assertEquals(2, partitions.size());
+      assertNull(partitions.get(0).getFrom());
+      assertEquals("10", partitions.get(0).getTo());
+      assertEquals("10", partitions.get(1).getFrom());
+      assertNull(partitions.get(1).getTo());
+      assertEquals("12", partitions.get(1).getLastIdentifier());
+      assertFalse(partitions.get(1).isCompleted());
+      assertFalse(timestampOperator.timeStampExists());
+      return;
+    }
+    throw new AssertionError("Job is expected to fail");
+  }
+
+  private TestModule createTestModule(String brokenId) {
+    TestModule testModule = new TestModule(getModuleArgs());
+    testModule
+        .setChangedEntitiesIdentifiersClass(SingleBatchChangedEntitiesIdentifiersService.class);
+    testModule.setJobBatchIteratorClass(JobBatchIteratorImpl.class);
+    testModule.setInitialLoadPartitions(2);
+    testModule.setPartitionedIdentifiersService(new TestPartitionedIdentifiersService(
+        createIds(1, IDENTIFIERS_COUNT).stream()
+            .map(id -> new ChangedEntityIdentifier(id, RecordChangeOperation.I,
+                LocalDateTime.now()))
+            .collect(Collectors.toList())));
+    testModule.setChangedEntityService(identifier -> identifier);
+    testModule.setBulkWriter(items -> {
+      for (Object item : items) {
+        String id = ((ChangedEntityIdentifier) item).getId();
+        if (id.equals(brokenId)) {
+          throw new IllegalStateException("Broken entity " + id);
+        }
+        writtenIds.add(id);
+      }
+    });
+    return testModule;
+  }
+
+  private static List<String> createIds(int from, int to) {
+    return IntStream.rangeClosed(from, to).mapToObj(i -> String.format("%02d", i))
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> sorted(List<String> ids) {
+    return ids.stream().sorted().collect(Collectors.toList());
+  }
+
+  private String[] getModuleArgs() {
+    String configFilePath = Paths.get("src", "test", "resources", "config.yaml").normalize()
+        .toAbsolutePath().toString();
+    return new String[]{"-c", configFilePath, "-l", lastRunDirHelper.getLastRunDir().toString()};
+  }
+
+}
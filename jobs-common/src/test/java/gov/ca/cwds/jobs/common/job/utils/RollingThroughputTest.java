@@ -0,0 +1,37 @@
+package gov.ca.cwds.jobs.common.job.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RollingThroughputTest {
+
+  @Test
+  public void notEnoughSamplesTest() {
+    RollingThroughput throughput = new RollingThroughput(1000);
+    assertEquals(0, throughput.getPerSecond(), 0.001);
+    throughput.add(0, 0);
+    assertEquals(0, throughput.getPerSecond(), 0.001);
+  }
+
+  @Test
+  public void throughputWithinWindowTest() {
+    RollingThroughput throughput = new RollingThroughput(10000);
+    throughput.add(0, 0);
+    throughput.add(1000, 100);
+    throughput.add(2000, 300);
+    assertEquals(150, throughput.getPerSecond(), 0.001);
+  }
+
+  @Test
+  public void oldSamplesAreDroppedTest() {
+    RollingThroughput throughput = new RollingThroughput(2000);
+    throughput.add(0, 0);
+    throughput.add(1000, 1000);
+    throughput.add(2000, 1010);
+    throughput.add(3000, 1020);
+    throughput.add(4000, 1030);
+    assertEquals(10, throughput.getPerSecond(), 0.001);
+  }
+
+}
@@ -0,0 +1,98 @@
+package gov.ca.cwds.jobs.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import java.util.Collections;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReferenceDataCacheTest {
+
+  private SessionFactory sessionFactory;
+
+  private ReferenceDataCache cache;
+
+  @Before
+  public void setUp() {
+    sessionFactory = new Configuration()
+        .setProperty("hibernate.connection.url", "jdbc:h2:mem:reference;DB_CLOSE_DELAY=-1")
+        .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+        .addAnnotatedClass(TestCode.class)
+        .buildSessionFactory();
+    executeSql("insert into TEST_CODE (id, description) values (1, 'First')");
+    cache = ReferenceDataCache.install(sessionFactory, Collections.singletonList(TestCode.class));
+  }
+
+  @After
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Test
+  public void preloadedEntityIsNotReadFromDatabaseTest() {
+    long hits = JobMetrics.meter(JobMetrics.REFERENCE_DATA_HITS).getCount();
+    executeSql("update TEST_CODE set description = 'Changed' where id = 1");
+    try (Session session = sessionFactory.openSession()) {
+      TestCode code = session.get(TestCode.class, (short) 1);
+      assertEquals("First", code.getDescription());
+      assertSame(cache.get(TestCode.class.getName(), (short) 1), code);
+    }
+    assertEquals(hits + 2, JobMetrics.meter(JobMetrics.REFERENCE_DATA_HITS).getCount());
+  }
+
+  @Test
+  public void missingEntityIsReadFromDatabaseTest() {
+    long misses = JobMetrics.meter(JobMetrics.REFERENCE_DATA_MISSES).getCount();
+    executeSql("insert into TEST_CODE (id, description) values (2, 'Second')");
+    try (Session session = sessionFactory.openSession()) {
+      assertEquals("Second", session.get(TestCode.class, (short) 2).getDescription());
+      assertNull(session.get(TestCode.class, (short) 3));
+    }
+    assertEquals(misses + 2, JobMetrics.meter(JobMetrics.REFERENCE_DATA_MISSES).getCount());
+  }
+
+  private void executeSql(String sql) {
+    try (Session session = sessionFactory.openSession()) {
+      session.beginTransaction();
+      session.createNativeQuery(sql).executeUpdate();
+      session.getTransaction().commit();
+    }
+  }
+
+  @Entity
+  @Table(name = "TEST_CODE")
+  public static class TestCode {
+
+    @Id
+    private Short id;
+
+    private String description;
+
+    public Short getId() {
+      return id;
+    }
+
+    public void setId(Short id) {
+      this.id = id;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    public void setDescription(String description) {
+      this.description = description;
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+package gov.ca.cwds.jobs.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.mchange.v2.c3p0.PoolBackedDataSource;
+import com.mchange.v2.c3p0.WrapperConnectionPoolDataSource;
+import gov.ca.cwds.jobs.common.BaseJobConfiguration;
+import gov.ca.cwds.jobs.common.job.utils.JobMetrics;
+import io.dropwizard.db.DataSourceFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Test;
+
+public class SessionFactoryUtilTest {
+
+  private static final String DATA_SOURCE_NAME = "TEST";
+
+  @Test
+  public void connectionsAreMeteredTest() {
+    SessionFactory sessionFactory = SessionFactoryUtil.buildSessionFactory(
+        createDataSourceFactory(new HashMap<>()), DATA_SOURCE_NAME, ImmutableList.of(), 3);
+    try {
+      assertTrue(((SessionFactoryImplementor) sessionFactory).getServiceRegistry()
+          .getService(ConnectionProvider.class) instanceof MeteredConnectionProvider);
+      long acquisitions = JobMetrics
+          .timer(MetricRegistry.name(JobMetrics.CONNECTION_ACQUIRE, DATA_SOURCE_NAME)).getCount();
+      try (Session session = sessionFactory.openSession()) {
+        session.doWork(connection -> assertEquals(1, JobMetrics.getRegistry().getGauges()
+            .get(MetricRegistry.name(JobMetrics.CONNECTIONS_BUSY, DATA_SOURCE_NAME))
+            .getValue()));
+      }
+      assertEquals(acquisitions + 1, JobMetrics
+          .timer(MetricRegistry.name(JobMetrics.CONNECTION_ACQUIRE, DATA_SOURCE_NAME)).getCount());
+    } finally {
+      sessionFactory.close();
+    }
+  }
+
+  @Test
+  public void poolIsFilledUpToConnectionPoolSizeTest() {
+    assertPoolSize(new HashMap<>(), 8, 8, 8, 8);
+  }
+
+  @Test
+  public void configuredPoolSizesAreKeptTest() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("hibernate.c3p0.min_size", "2");
+    properties.put("hibernate.c3p0.max_size", "4");
+    assertPoolSize(properties, 8, 2, 8, 2);
+    assertPoolSize(properties, 3, 2, 4, 2);
+  }
+
+  @Test
+  public void connectionPoolSizeTest() {
+    BaseJobConfiguration configuration = new BaseJobConfiguration();
+    configuration.setReaderThreadsCount(10);
+    assertEquals(12, configuration.getConnectionPoolSize());
+    configuration.setInitialLoadPartitions(4);
+    configuration.setStreamingIdentifiers(true);
+    assertEquals(16, configuration.getConnectionPoolSize());
+  }
+
+  private static void assertPoolSize(Map<String, String> properties, int connectionPoolSize,
+      int expectedMinSize, int expectedMaxSize, int expectedInitialSize) {
+    SessionFactory sessionFactory = SessionFactoryUtil.buildSessionFactory(
+        createDataSourceFactory(properties), DATA_SOURCE_NAME, ImmutableList.of(),
+        connectionPoolSize);
+    try {
+      WrapperConnectionPoolDataSource pool = (WrapperConnectionPoolDataSource)
+          ((PoolBackedDataSource) ((SessionFactoryImplementor) sessionFactory)
+              .getServiceRegistry().getService(ConnectionProvider.class)
+              .unwrap(DataSource.class)).getConnectionPoolDataSource();
+      assertEquals(expectedMinSize, pool.getMinPoolSize());
+      assertEquals(expectedMaxSize, pool.getMaxPoolSize());
+      assertEquals(expectedInitialSize, pool.getInitialPoolSize());
+    } finally {
+      sessionFactory.close();
+    }
+  }
+
+  private static DataSourceFactory createDataSourceFactory(Map<String, String> properties) {
+    properties.put("hibernate.connection.url", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+    DataSourceFactory dataSourceFactory = new DataSourceFactory();
+    dataSourceFactory.setProperties(properties);
+    return dataSourceFactory;
+  }
+
+}
@@ -11,6 +11,8 @@ public class BaseFacilityJobConfiguration extends BaseJobConfiguration {
 
   private DataSourceFactory calsnsDataSourceFactory;
 
+  private boolean preloadReferenceData;
+
   @JsonProperty
   public DataSourceFactory getCalsnsDataSourceFactory() {
     return calsnsDataSourceFactory;
@@ -19,4 +21,16 @@ public class BaseFacilityJobConfiguration extends BaseJobConfiguration {
   public void setCalsnsDataSourceFactory(DataSourceFactory calsnsDataSourceFactory) {
     this.calsnsDataSourceFactory = calsnsDataSourceFactory;
   }
+
+  /**
+   * @return true if code tables are read once at startup and facilities are loaded without
+   * querying them
+   */
+  public boolean isPreloadReferenceData() {
+    return preloadReferenceData;
+  }
+
+  public void setPreloadReferenceData(boolean preloadReferenceData) {
+    this.preloadReferenceData = preloadReferenceData;
+  }
 }
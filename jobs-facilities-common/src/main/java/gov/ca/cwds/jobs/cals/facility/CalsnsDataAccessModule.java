@@ -7,6 +7,7 @@ import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import gov.ca.cwds.DataSourceName;
 import gov.ca.cwds.cals.inject.CalsnsSessionFactory;
+import gov.ca.cwds.jobs.common.util.ReferenceDataCache;
 import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
 import org.hibernate.SessionFactory;
 
@@ -33,9 +34,14 @@ public class CalsnsDataAccessModule extends AbstractModule {
 
     @Override
     public SessionFactory get() {
-      return SessionFactoryUtil
+      SessionFactory sessionFactory = SessionFactoryUtil
           .buildSessionFactory(facilityJobConfiguration.getCalsnsDataSourceFactory(),
-              DataSourceName.NS.name(), nsEntityClasses);
+              DataSourceName.NS.name(), nsEntityClasses,
+              facilityJobConfiguration.getConnectionPoolSize());
+      if (facilityJobConfiguration.isPreloadReferenceData()) {
+        ReferenceDataCache.install(sessionFactory, nsEntityClasses);
+      }
+      return sessionFactory;
     }
   }
 }
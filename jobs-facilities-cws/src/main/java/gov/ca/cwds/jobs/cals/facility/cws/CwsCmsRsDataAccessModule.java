@@ -48,9 +48,12 @@ import gov.ca.cwds.data.legacy.cms.entity.syscodes.State;
 import gov.ca.cwds.data.legacy.cms.entity.syscodes.VisitType;
 import gov.ca.cwds.inject.CmsSessionFactory;
 import gov.ca.cwds.jobs.cals.facility.ReplicationPlacementHome;
+import gov.ca.cwds.jobs.common.cache.SharedEntityRegionFactory;
+import gov.ca.cwds.jobs.common.util.ReferenceDataCache;
 import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
 import java.util.Optional;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
 
 /**
  * @author CWDS TPT-2
@@ -103,6 +106,32 @@ public class CwsCmsRsDataAccessModule extends AbstractModule {
           , NameType.class
       ).build();
 
+  /**
+   * Code tables preloaded when reference data preloading is configured.
+   */
+  public static final ImmutableList<Class<?>> cwsrsReferenceDataClasses =
+      ImmutableList.<Class<?>>of(
+          County.class,
+          LicenseStatus.class,
+          State.class,
+          FacilityType.class,
+          VisitType.class,
+          NameType.class
+      );
+
+  /**
+   * Entities referenced by many facilities, cached across facilities when the shared entity cache
+   * is configured.
+   */
+  public static final ImmutableList<Class<?>> cwsrsSharedEntityClasses =
+      ImmutableList.<Class<?>>of(
+          StaffPerson.class,
+          CountyLicenseCase.class,
+          CountyOwnership.class
+      );
+
+  private static final String SHARED_ENTITY_TIMESTAMP_PROPERTY = "lastUpdatedTime";
+
   @Override
   protected void configure() {
     bind(RecordChangeCwsCmsDao.class);
@@ -125,9 +154,28 @@ public class CwsCmsRsDataAccessModule extends AbstractModule {
   }
 
   private SessionFactory getCurrentSessionFactory(CwsFacilityJobConfiguration facilityJobConfiguration) {
-    return Optional.ofNullable(sessionFactory).orElseGet(() -> sessionFactory = SessionFactoryUtil
-        .buildSessionFactory(facilityJobConfiguration.getCmsDataSourceFactory(),
-            DataSourceName.CWSRS.name(), cwsrsEntityClasses));
+    return Optional.ofNullable(sessionFactory).orElseGet(() -> {
+      sessionFactory = SessionFactoryUtil
+          .buildSessionFactory(facilityJobConfiguration.getCmsDataSourceFactory(),
+              DataSourceName.CWSRS.name(), cwsrsEntityClasses,
+              facilityJobConfiguration.getConnectionPoolSize(),
+              configuration -> configureSharedEntityCache(configuration,
+                  facilityJobConfiguration));
+      if (facilityJobConfiguration.isPreloadReferenceData()) {
+        ReferenceDataCache.install(sessionFactory, cwsrsReferenceDataClasses);
+      }
+      return sessionFactory;
+    });
+  }
+
+  private static Configuration configureSharedEntityCache(Configuration configuration,
+      CwsFacilityJobConfiguration facilityJobConfiguration) {
+    if (facilityJobConfiguration.getSharedEntityCacheSizeMb() <= 0) {
+      return configuration;
+    }
+    return SharedEntityRegionFactory.configure(configuration, cwsrsSharedEntityClasses,
+        facilityJobConfiguration.getSharedEntityCacheSizeMb() * 1024L * 1024L,
+        SHARED_ENTITY_TIMESTAMP_PROPERTY);
   }
 
 }
@@ -11,6 +11,8 @@ public class CwsFacilityJobConfiguration extends BaseFacilityJobConfiguration {
 
   private DataSourceFactory cmsDataSourceFactory;
 
+  private int sharedEntityCacheSizeMb;
+
   @JsonProperty
   public DataSourceFactory getCmsDataSourceFactory() {
     return cmsDataSourceFactory;
@@ -20,4 +22,16 @@ public class CwsFacilityJobConfiguration extends BaseFacilityJobConfiguration {
     this.cmsDataSourceFactory = cmsDataSourceFactory;
   }
 
+  /**
+   * @return estimated megabytes of staff persons, license cases and county ownerships kept for
+   * all facilities referencing them, 0 if they are not cached
+   */
+  public int getSharedEntityCacheSizeMb() {
+    return sharedEntityCacheSizeMb;
+  }
+
+  public void setSharedEntityCacheSizeMb(int sharedEntityCacheSizeMb) {
+    this.sharedEntityCacheSizeMb = sharedEntityCacheSizeMb;
+  }
+
 }
@@ -3,6 +3,7 @@ package gov.ca.cwds.jobs.cals.facility.cws;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 import gov.ca.cwds.cals.Constants;
 import gov.ca.cwds.cals.Constants.UnitOfWork;
@@ -25,6 +26,9 @@ import gov.ca.cwds.jobs.cals.facility.BaseFacilityJobModule;
 import gov.ca.cwds.jobs.cals.facility.ChangedFacilityDTO;
 import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
 import gov.ca.cwds.jobs.common.api.ChangedEntityService;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.api.TotalEntitiesCountProvider;
 import gov.ca.cwds.jobs.common.batch.JobBatchIterator;
 import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
 import gov.ca.cwds.jobs.common.config.JobOptions;
@@ -52,6 +56,10 @@ public class CwsFacilityJobModule extends BaseFacilityJobModule {
     super.configure();
     bind(ChangedEntitiesIdentifiersService.class)
         .toProvider(CwsChangedIdentifiersServiceProvider.class);
+    bind(TotalEntitiesCountProvider.class).toProvider(CwsTotalEntitiesCountServiceProvider.class);
+    bind(PartitionedIdentifiersService.class)
+        .toProvider(CwsPartitionedIdentifiersServiceProvider.class);
+    bind(StreamingIdentifiersService.class).to(CwsStreamingIdentifiersService.class);
     bind(CwsFacilityService.class).toProvider(CwsFacilityServiceProvider.class);
     bind(JobBatchIterator.class).to(JobBatchIteratorImpl.class);
     bind(new TypeLiteral<ChangedEntityService<ChangedFacilityDTO>>() {
@@ -99,6 +107,7 @@ public class CwsFacilityJobModule extends BaseFacilityJobModule {
   }
 
   @Provides
+  @Singleton
   public LegacyDictionariesCache provideLegacyDictionariesCache(
       CountiesDao countiesDao,
       StateDao stateDao,
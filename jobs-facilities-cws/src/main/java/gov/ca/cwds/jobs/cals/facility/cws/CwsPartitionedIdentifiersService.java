@@ -0,0 +1,35 @@
+package gov.ca.cwds.jobs.cals.facility.cws;
+
+import static gov.ca.cwds.cals.Constants.UnitOfWork.CMS;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import io.dropwizard.hibernate.UnitOfWork;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the initial load of placement homes by PLC_HM_T.IDENTIFIER ranges.
+ */
+public class CwsPartitionedIdentifiersService implements PartitionedIdentifiersService {
+
+  @Inject
+  private RecordChangeCwsCmsDao recordChangeCwsCmsDao;
+
+  @UnitOfWork(CMS)
+  @Override
+  public List<String> getPartitionBoundaries(int partitionsCount) {
+    return recordChangeCwsCmsDao.getPartitionBoundaries(partitionsCount);
+  }
+
+  @UnitOfWork(CMS)
+  @Override
+  public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+      InitialLoadPartition partition, int limit) {
+    return recordChangeCwsCmsDao.getPartitionStream(partition, limit)
+        .map(CwsRecordChange::valueOf).collect(Collectors.toList());
+  }
+
+}
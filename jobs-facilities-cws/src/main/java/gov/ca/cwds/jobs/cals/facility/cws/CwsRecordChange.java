@@ -18,6 +18,27 @@ import javax.persistence.NamedQuery;
 ), @NamedQuery(
     name = CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_QUERY_NAME,
     query = CwsRecordChange.CWS_CMS_INCREMENTAL_LOAD_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INITIAL_LOAD_KEYSET_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INITIAL_LOAD_KEYSET_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INCREMENTAL_LOAD_KEYSET_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INITIAL_LOAD_COUNT_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INITIAL_LOAD_COUNT_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_COUNT_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INCREMENTAL_LOAD_COUNT_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INITIAL_LOAD_IDENTIFIERS_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INITIAL_LOAD_IDENTIFIERS_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INITIAL_LOAD_PARTITION_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INITIAL_LOAD_PARTITION_QUERY
+), @NamedQuery(
+    name = CwsRecordChange.CWSCMS_INITIAL_LOAD_LAST_PARTITION_QUERY_NAME,
+    query = CwsRecordChange.CWS_CMS_INITIAL_LOAD_LAST_PARTITION_QUERY
 )
 })
 @Entity
@@ -40,9 +61,75 @@ public class CwsRecordChange extends RecordChange {
           + " and home.timestamp >= :dateAfter"
           + " order by home.timestamp, home.identifier";
 
+  static final String CWS_CMS_INITIAL_LOAD_KEYSET_QUERY =
+      "select new CwsRecordChange(home.identifier,"
+          + "home.lastUpdatedTime) "
+          + "from ReplicationPlacementHome as home "
+          + "where home.licensrCd <> 'CL' "
+          + "and home.lastUpdatedTime >= :dateAfter "
+          + "and (home.lastUpdatedTime > :lastTimestamp "
+          + "or (home.lastUpdatedTime = :lastTimestamp and home.identifier > :lastIdentifier)) "
+          + "order by home.lastUpdatedTime, home.identifier";
+
+  static final String CWS_CMS_INCREMENTAL_LOAD_KEYSET_QUERY =
+      "select new CwsRecordChange(home.identifier,"
+          + "home.recordChangeOperation, "
+          + "home.timestamp) "
+          + " from ReplicationPlacementHome as home "
+          + " where home.licensrCd <> 'CL' "
+          + " and home.timestamp >= :dateAfter"
+          + " and (home.timestamp > :lastTimestamp"
+          + " or (home.timestamp = :lastTimestamp and home.identifier > :lastIdentifier))"
+          + " order by home.timestamp, home.identifier";
+
+  static final String CWS_CMS_INITIAL_LOAD_COUNT_QUERY =
+      "select count(home.identifier) "
+          + "from ReplicationPlacementHome as home "
+          + "where home.licensrCd <> 'CL' "
+          + "and home.lastUpdatedTime >= :dateAfter";
+
+  static final String CWS_CMS_INCREMENTAL_LOAD_COUNT_QUERY =
+      "select home.recordChangeOperation, count(home.identifier) "
+          + " from ReplicationPlacementHome as home "
+          + " where home.licensrCd <> 'CL' "
+          + " and home.timestamp >= :dateAfter"
+          + " group by home.recordChangeOperation";
+
+  static final String CWS_CMS_INITIAL_LOAD_IDENTIFIERS_QUERY =
+      "select home.identifier "
+          + "from ReplicationPlacementHome as home "
+          + "where home.licensrCd <> 'CL' "
+          + "and home.lastUpdatedTime >= :dateAfter "
+          + "order by home.identifier";
+
+  static final String CWS_CMS_INITIAL_LOAD_PARTITION_QUERY =
+      "select new CwsRecordChange(home.identifier,"
+          + "home.lastUpdatedTime) "
+          + "from ReplicationPlacementHome as home "
+          + "where home.licensrCd <> 'CL' "
+          + "and home.lastUpdatedTime >= :dateAfter "
+          + "and home.identifier > :lastIdentifier "
+          + "and home.identifier <= :upperIdentifier "
+          + "order by home.identifier";
+
+  static final String CWS_CMS_INITIAL_LOAD_LAST_PARTITION_QUERY =
+      "select new CwsRecordChange(home.identifier,"
+          + "home.lastUpdatedTime) "
+          + "from ReplicationPlacementHome as home "
+          + "where home.licensrCd <> 'CL' "
+          + "and home.lastUpdatedTime >= :dateAfter "
+          + "and home.identifier > :lastIdentifier "
+          + "order by home.identifier";
 
   public static final String CWSCMS_INITIAL_LOAD_QUERY_NAME = "RecordChange.cwscmsInitialLoadQuery";
   public static final String CWSCMS_INCREMENTAL_LOAD_QUERY_NAME = "RecordChange.cwscmsIncrementalLoadQuery";
+  public static final String CWSCMS_INITIAL_LOAD_KEYSET_QUERY_NAME = "RecordChange.cwscmsInitialLoadKeysetQuery";
+  public static final String CWSCMS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME = "RecordChange.cwscmsIncrementalLoadKeysetQuery";
+  public static final String CWSCMS_INITIAL_LOAD_COUNT_QUERY_NAME = "RecordChange.cwscmsInitialLoadCountQuery";
+  public static final String CWSCMS_INCREMENTAL_LOAD_COUNT_QUERY_NAME = "RecordChange.cwscmsIncrementalLoadCountQuery";
+  public static final String CWSCMS_INITIAL_LOAD_IDENTIFIERS_QUERY_NAME = "RecordChange.cwscmsInitialLoadIdentifiersQuery";
+  public static final String CWSCMS_INITIAL_LOAD_PARTITION_QUERY_NAME = "RecordChange.cwscmsInitialLoadPartitionQuery";
+  public static final String CWSCMS_INITIAL_LOAD_LAST_PARTITION_QUERY_NAME = "RecordChange.cwscmsInitialLoadLastPartitionQuery";
 
   public CwsRecordChange(String id, RecordChangeOperation recordChangeOperation,
       LocalDateTime timestamp) {
@@ -0,0 +1,37 @@
+package gov.ca.cwds.jobs.cals.facility.cws;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import java.time.LocalDateTime;
+
+/**
+ * Streams placement home identifiers through one cursor per load. Every placement home has a
+ * single replication record, so identifiers need no deduplication unlike pages of
+ * {@link CwsChangedEntitiesIdentifiersService}.
+ */
+public class CwsStreamingIdentifiersService implements StreamingIdentifiersService {
+
+  @Inject
+  private RecordChangeCwsCmsDao recordChangeCwsCmsDao;
+
+  @Override
+  public IdentifiersCursor openInitialLoadCursor(int fetchSize) {
+    return recordChangeCwsCmsDao
+        .openInitialLoadCursor(RecordChangeCwsCmsDao.INITIAL_LOAD_DATE_AFTER, null, fetchSize);
+  }
+
+  @Override
+  public IdentifiersCursor openResumingInitialLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return recordChangeCwsCmsDao.openInitialLoadCursor(timestamp, startAfter, fetchSize);
+  }
+
+  @Override
+  public IdentifiersCursor openIncrementalLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return recordChangeCwsCmsDao.openIncrementalLoadCursor(timestamp, startAfter, fetchSize);
+  }
+
+}
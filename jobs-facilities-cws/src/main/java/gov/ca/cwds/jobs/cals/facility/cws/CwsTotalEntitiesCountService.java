@@ -0,0 +1,46 @@
+package gov.ca.cwds.jobs.cals.facility.cws;
+
+import static gov.ca.cwds.cals.Constants.UnitOfWork.CMS;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.api.TotalEntitiesCountProvider;
+import gov.ca.cwds.jobs.common.job.TotalCountInformation;
+import io.dropwizard.hibernate.UnitOfWork;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Counts placement homes with the same conditions as identifiers queries use.
+ */
+public class CwsTotalEntitiesCountService implements TotalEntitiesCountProvider {
+
+  @Inject
+  private RecordChangeCwsCmsDao recordChangeCwsCmsDao;
+
+  @Override
+  public TotalCountInformation getTotalsForInitialLoad() {
+    return getTotalsForResumingInitialLoad(RecordChangeCwsCmsDao.INITIAL_LOAD_DATE_AFTER);
+  }
+
+  @UnitOfWork(CMS)
+  @Override
+  public TotalCountInformation getTotalsForResumingInitialLoad(LocalDateTime timestamp) {
+    TotalCountInformation totalCountInformation = new TotalCountInformation();
+    totalCountInformation.setTotalToBeInserted(recordChangeCwsCmsDao.countInitialLoad(timestamp));
+    return totalCountInformation;
+  }
+
+  @UnitOfWork(CMS)
+  @Override
+  public TotalCountInformation getTotalsForIncrementalLoad(LocalDateTime timestamp) {
+    Map<RecordChangeOperation, Long> counts = recordChangeCwsCmsDao
+        .countIncrementalLoad(timestamp);
+    TotalCountInformation totalCountInformation = new TotalCountInformation();
+    totalCountInformation.setTotalToBeInserted(counts.getOrDefault(RecordChangeOperation.I, 0L));
+    totalCountInformation.setTotalToBeUpdated(counts.getOrDefault(RecordChangeOperation.U, 0L));
+    totalCountInformation.setTotalToBeDeleted(counts.getOrDefault(RecordChangeOperation.D, 0L));
+    return totalCountInformation;
+  }
+
+}
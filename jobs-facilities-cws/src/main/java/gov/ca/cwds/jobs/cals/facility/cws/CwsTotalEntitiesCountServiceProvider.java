@@ -0,0 +1,25 @@
+package gov.ca.cwds.jobs.cals.facility.cws;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import gov.ca.cwds.cals.inject.AbstractInjectProvider;
+import io.dropwizard.hibernate.UnitOfWorkAwareProxyFactory;
+
+/**
+ * Wraps the service with the unit of work proxy.
+ */
+public class CwsTotalEntitiesCountServiceProvider extends
+    AbstractInjectProvider<CwsTotalEntitiesCountService> {
+
+  @Inject
+  public CwsTotalEntitiesCountServiceProvider(Injector injector,
+      UnitOfWorkAwareProxyFactory unitOfWorkAwareProxyFactory) {
+    super(injector, unitOfWorkAwareProxyFactory);
+  }
+
+  @Override
+  public Class<CwsTotalEntitiesCountService> getServiceClass() {
+    return CwsTotalEntitiesCountService.class;
+  }
+
+}
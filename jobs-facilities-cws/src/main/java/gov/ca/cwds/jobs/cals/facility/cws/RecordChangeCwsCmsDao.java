@@ -4,47 +4,201 @@ import com.google.inject.Inject;
 import gov.ca.cwds.data.BaseDaoImpl;
 import gov.ca.cwds.data.stream.QueryCreator;
 import gov.ca.cwds.inject.CmsSessionFactory;
+import gov.ca.cwds.jobs.common.RecordChangeOperation;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
 import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import gov.ca.cwds.jobs.common.identifier.ScrollableIdentifiersCursor;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
 
 /**
  * @author CWDS TPT-2
  */
 public class RecordChangeCwsCmsDao extends BaseDaoImpl<CwsRecordChange> {
 
+  static final LocalDateTime INITIAL_LOAD_DATE_AFTER = LocalDateTime.of(1970, 1, 1, 1, 1);
+
+  private final SessionFactory sessionFactory;
+
   @Inject
   public RecordChangeCwsCmsDao(@CmsSessionFactory SessionFactory sessionFactory) {
     super(sessionFactory);
+    this.sessionFactory = sessionFactory;
   }
 
   @SuppressWarnings("unchecked")
   public Stream<CwsRecordChange> getInitialLoadStream(PageRequest pageRequest) {
-    return loadStream(LocalDateTime.of(1970, 1, 1, 1, 1),
-        CwsRecordChange.CWSCMS_INITIAL_LOAD_QUERY_NAME, pageRequest);
+    return loadStream(INITIAL_LOAD_DATE_AFTER, getInitialLoadQueryName(pageRequest),
+        pageRequest);
+  }
+
+  /**
+   * @param dateAfter last updated time of the resumed initial load, the start of the epoch for a
+   * new one
+   * @return count of placement homes to be loaded
+   */
+  public long countInitialLoad(LocalDateTime dateAfter) {
+    return ((Number) currentSession()
+        .getNamedQuery(CwsRecordChange.CWSCMS_INITIAL_LOAD_COUNT_QUERY_NAME)
+        .setParameter("dateAfter", dateAfter)
+        .setReadOnly(true)
+        .uniqueResult()).longValue();
+  }
+
+  /**
+   * @return count of placement home changes by replication operation
+   */
+  @SuppressWarnings("unchecked")
+  public Map<RecordChangeOperation, Long> countIncrementalLoad(LocalDateTime dateAfter) {
+    List<Object[]> rows = currentSession()
+        .getNamedQuery(CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_COUNT_QUERY_NAME)
+        .setParameter("dateAfter", dateAfter)
+        .setReadOnly(true)
+        .list();
+    Map<RecordChangeOperation, Long> counts = new EnumMap<>(RecordChangeOperation.class);
+    for (Object[] row : rows) {
+      if (row[0] != null) {
+        counts.put((RecordChangeOperation) row[0], ((Number) row[1]).longValue());
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Every boundary is the identifier found at the partition end position in the identifier order,
+   * so partitions get similar numbers of placement homes whatever the identifiers distribution is.
+   *
+   * @return ascending distinct inclusive upper bounds of partitions but the last one
+   */
+  public List<String> getPartitionBoundaries(int partitionsCount) {
+    long count = countInitialLoad(INITIAL_LOAD_DATE_AFTER);
+    List<String> boundaries = new ArrayList<>();
+    for (int i = 1; i < partitionsCount; i++) {
+      long position = count * i / partitionsCount - 1;
+      if (position < 0) {
+        continue;
+      }
+      String boundary = (String) currentSession()
+          .getNamedQuery(CwsRecordChange.CWSCMS_INITIAL_LOAD_IDENTIFIERS_QUERY_NAME)
+          .setParameter("dateAfter", INITIAL_LOAD_DATE_AFTER)
+          .setFirstResult((int) position)
+          .setMaxResults(1)
+          .setReadOnly(true)
+          .uniqueResult();
+      if (boundary != null && !boundaries.contains(boundary)) {
+        boundaries.add(boundary);
+      }
+    }
+    return boundaries;
+  }
+
+  @SuppressWarnings("unchecked")
+  public Stream<CwsRecordChange> getPartitionStream(InitialLoadPartition partition, int limit) {
+    String queryName = partition.getTo() != null
+        ? CwsRecordChange.CWSCMS_INITIAL_LOAD_PARTITION_QUERY_NAME
+        : CwsRecordChange.CWSCMS_INITIAL_LOAD_LAST_PARTITION_QUERY_NAME;
+    QueryCreator<CwsRecordChange> queryCreator = (session, entityClass) -> {
+      Query query = session
+          .getNamedQuery(queryName)
+          .setParameter("dateAfter", INITIAL_LOAD_DATE_AFTER)
+          // empty string sorts before any identifier
+          .setParameter("lastIdentifier",
+              partition.getStartAfter() != null ? partition.getStartAfter() : "")
+          .setMaxResults(limit)
+          .setReadOnly(true);
+      if (partition.getTo() != null) {
+        query.setParameter("upperIdentifier", partition.getTo());
+      }
+      return query;
+    };
+    return new CwsRecordChangesStreamer(this, queryCreator).createStream();
   }
 
   @SuppressWarnings("unchecked")
   public Stream<CwsRecordChange> getIncrementalLoadStream(final LocalDateTime dateAfter,
       PageRequest pageRequest) {
-    return loadStream(dateAfter, CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_QUERY_NAME, pageRequest);
+    String queryName = pageRequest.isKeysetPage()
+        ? CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME
+        : CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_QUERY_NAME;
+    return loadStream(dateAfter, queryName, pageRequest);
   }
 
   public Stream<CwsRecordChange> getResumeInitialLoadStream(LocalDateTime timeStampAfter,
       PageRequest pageRequest) {
-    return loadStream(timeStampAfter, CwsRecordChange.CWSCMS_INITIAL_LOAD_QUERY_NAME, pageRequest);
+    return loadStream(timeStampAfter, getInitialLoadQueryName(pageRequest), pageRequest);
+  }
+
+  /**
+   * Opens a cursor over the initial load identifiers in its own session, it is not bound to the
+   * current unit of work.
+   *
+   * @param startAfter identifier the cursor starts right after, null to start from dateAfter
+   */
+  public IdentifiersCursor openInitialLoadCursor(LocalDateTime dateAfter,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return openCursor(dateAfter, startAfter != null
+        ? CwsRecordChange.CWSCMS_INITIAL_LOAD_KEYSET_QUERY_NAME
+        : CwsRecordChange.CWSCMS_INITIAL_LOAD_QUERY_NAME, startAfter, fetchSize);
+  }
+
+  /**
+   * Opens a cursor over the incremental load identifiers in its own session, it is not bound to
+   * the current unit of work.
+   *
+   * @param startAfter identifier the cursor starts right after, null to start from dateAfter
+   */
+  public IdentifiersCursor openIncrementalLoadCursor(LocalDateTime dateAfter,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return openCursor(dateAfter, startAfter != null
+        ? CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME
+        : CwsRecordChange.CWSCMS_INCREMENTAL_LOAD_QUERY_NAME, startAfter, fetchSize);
+  }
+
+  private IdentifiersCursor openCursor(LocalDateTime dateAfter, String queryName,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return ScrollableIdentifiersCursor.open(sessionFactory, session -> {
+      Query<CwsRecordChange> query = session.createNamedQuery(queryName, CwsRecordChange.class)
+          .setParameter("dateAfter", dateAfter);
+      if (startAfter != null) {
+        query.setParameter("lastTimestamp", startAfter.getTimestamp())
+            .setParameter("lastIdentifier", startAfter.getId());
+      }
+      return query;
+    }, fetchSize, CwsRecordChange::valueOf);
+  }
+
+  private static String getInitialLoadQueryName(PageRequest pageRequest) {
+    return pageRequest.isKeysetPage()
+        ? CwsRecordChange.CWSCMS_INITIAL_LOAD_KEYSET_QUERY_NAME
+        : CwsRecordChange.CWSCMS_INITIAL_LOAD_QUERY_NAME;
   }
 
   @SuppressWarnings("unchecked")
   private Stream<CwsRecordChange> loadStream(LocalDateTime timeStampAfter,
       String queryName, PageRequest pageRequest) {
-    QueryCreator<CwsRecordChange> queryCreator = (session, entityClass) -> session
-        .getNamedQuery(queryName)
-        .setParameter("dateAfter", timeStampAfter)
-        .setMaxResults(pageRequest.getLimit())
-        .setFirstResult(pageRequest.getOffset())
-        .setReadOnly(true);
+    QueryCreator<CwsRecordChange> queryCreator = (session, entityClass) -> {
+      Query query = session
+          .getNamedQuery(queryName)
+          .setParameter("dateAfter", timeStampAfter)
+          .setMaxResults(pageRequest.getLimit())
+          .setReadOnly(true);
+      if (pageRequest.isKeysetPage()) {
+        // seek past the last (timestamp, identifier) pair, no rownumber() wrapper for offset
+        query.setParameter("lastTimestamp", pageRequest.getLastTimestamp())
+            .setParameter("lastIdentifier", pageRequest.getLastIdentifier());
+      } else {
+        query.setFirstResult(pageRequest.getOffset());
+      }
+      return query;
+    };
     return new CwsRecordChangesStreamer(this, queryCreator).createStream();
   }
 
@@ -67,7 +67,7 @@ public class CwsFacilityJobTest {
     }
   }
 
-  private static CwsFacilityJobConfiguration getFacilityJobConfiguration() {
+  static CwsFacilityJobConfiguration getFacilityJobConfiguration() {
     CwsFacilityJobConfiguration facilityJobConfiguration =
         BaseFacilityJobConfiguration
             .getJobsConfiguration(CwsFacilityJobConfiguration.class, getConfigFilePath());
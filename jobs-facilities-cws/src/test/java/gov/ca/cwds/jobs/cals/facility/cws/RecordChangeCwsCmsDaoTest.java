@@ -0,0 +1,182 @@
+package gov.ca.cwds.jobs.cals.facility.cws;
+
+import static gov.ca.cwds.test.support.DatabaseHelper.setUpDatabase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import gov.ca.cwds.DataSourceName;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import liquibase.exception.LiquibaseException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs the identifiers queries of the CWS/CMS job against the H2 fixtures.
+ */
+public class RecordChangeCwsCmsDaoTest {
+
+  private static final int PAGE_SIZE = 10;
+
+  private static final int PARTITIONS_COUNT = 3;
+
+  private static SessionFactory sessionFactory;
+
+  private static RecordChangeCwsCmsDao recordChangeCwsCmsDao;
+
+  private Session session;
+
+  @BeforeClass
+  public static void setUpClass() throws LiquibaseException {
+    CwsFacilityJobConfiguration configuration = CwsFacilityJobTest.getFacilityJobConfiguration();
+    setUpDatabase(configuration.getCmsDataSourceFactory(), DataSourceName.CWSRS);
+    sessionFactory = SessionFactoryUtil.buildSessionFactory(
+        configuration.getCmsDataSourceFactory(), DataSourceName.CWSRS.name(),
+        CwsCmsRsDataAccessModule.cwsrsEntityClasses);
+    recordChangeCwsCmsDao = new RecordChangeCwsCmsDao(sessionFactory);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    sessionFactory.close();
+  }
+
+  @Before
+  public void openSession() {
+    session = sessionFactory.openSession();
+    ManagedSessionContext.bind(session);
+    session.beginTransaction();
+  }
+
+  @After
+  public void closeSession() {
+    session.getTransaction().rollback();
+    ManagedSessionContext.unbind(sessionFactory);
+    session.close();
+  }
+
+  @Test
+  public void initialLoadKeysetPagesFollowOffsetPages() {
+    List<ChangedEntityIdentifier> offsetPages = readOffsetPages(
+        recordChangeCwsCmsDao::getInitialLoadStream);
+    assertFalse(offsetPages.isEmpty());
+    assertEquals(getIds(offsetPages),
+        getIds(readKeysetPages(recordChangeCwsCmsDao::getInitialLoadStream)));
+  }
+
+  @Test
+  public void incrementalLoadKeysetPagesFollowOffsetPages() {
+    Function<PageRequest, Stream<CwsRecordChange>> query = pageRequest -> recordChangeCwsCmsDao
+        .getIncrementalLoadStream(RecordChangeCwsCmsDao.INITIAL_LOAD_DATE_AFTER, pageRequest);
+    List<ChangedEntityIdentifier> offsetPages = readOffsetPages(query);
+    assertFalse(offsetPages.isEmpty());
+    assertEquals(getIds(offsetPages), getIds(readKeysetPages(query)));
+  }
+
+  @Test
+  public void cursorStartsRightAfterLastRowOfPage() {
+    List<ChangedEntityIdentifier> identifiers = readOffsetPages(
+        recordChangeCwsCmsDao::getInitialLoadStream);
+    ChangedEntityIdentifier startAfter = identifiers.get(PAGE_SIZE - 1);
+    List<ChangedEntityIdentifier> streamed = new ArrayList<>();
+    try (IdentifiersCursor cursor = recordChangeCwsCmsDao.openInitialLoadCursor(
+        RecordChangeCwsCmsDao.INITIAL_LOAD_DATE_AFTER, startAfter, PAGE_SIZE)) {
+      cursor.forEachRemaining(streamed::add);
+    }
+    assertEquals(getIds(identifiers.subList(PAGE_SIZE, identifiers.size())), getIds(streamed));
+  }
+
+  @Test
+  public void partitionBoundariesAreAscendingAndDistinct() {
+    List<String> boundaries = recordChangeCwsCmsDao.getPartitionBoundaries(PARTITIONS_COUNT);
+    assertEquals(PARTITIONS_COUNT - 1, boundaries.size());
+    assertEquals(new ArrayList<>(new TreeSet<>(boundaries)), boundaries);
+  }
+
+  /**
+   * Partitions are paged the way the partitioner does: every page starts after the savepoint
+   * moved to the last row of the previous page.
+   */
+  @Test
+  public void partitionsReadEveryIdentifierOnce() {
+    List<String> expected = getIds(readOffsetPages(recordChangeCwsCmsDao::getInitialLoadStream));
+    assertFalse(expected.isEmpty());
+    List<String> partitioned = new ArrayList<>();
+    int number = 1;
+    String from = null;
+    for (String boundary : recordChangeCwsCmsDao.getPartitionBoundaries(PARTITIONS_COUNT)) {
+      partitioned.addAll(readPartition(new InitialLoadPartition(number++, from, boundary)));
+      from = boundary;
+    }
+    partitioned.addAll(readPartition(new InitialLoadPartition(number, from, null)));
+    assertEquals(expected.size(), partitioned.size());
+    assertEquals(new TreeSet<>(expected), new TreeSet<>(partitioned));
+  }
+
+  private static List<ChangedEntityIdentifier> readOffsetPages(
+      Function<PageRequest, Stream<CwsRecordChange>> query) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPage(query, new PageRequest(0, PAGE_SIZE));
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      page = readPage(query, new PageRequest(identifiers.size(), PAGE_SIZE));
+    }
+    return identifiers;
+  }
+
+  /**
+   * Every next page seeks after the last row of the previous one, as the batch iterator does.
+   */
+  private static List<ChangedEntityIdentifier> readKeysetPages(
+      Function<PageRequest, Stream<CwsRecordChange>> query) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPage(query, new PageRequest(0, PAGE_SIZE));
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      ChangedEntityIdentifier last = page.get(page.size() - 1);
+      page = readPage(query, new PageRequest(PAGE_SIZE, last.getTimestamp(), last.getId()));
+    }
+    return identifiers;
+  }
+
+  private static List<ChangedEntityIdentifier> readPage(
+      Function<PageRequest, Stream<CwsRecordChange>> query, PageRequest pageRequest) {
+    return query.apply(pageRequest).map(CwsRecordChange::valueOf).collect(Collectors.toList());
+  }
+
+  private static List<String> readPartition(InitialLoadPartition partition) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPartitionPage(partition);
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      partition.setLastIdentifier(page.get(page.size() - 1).getId());
+      page = readPartitionPage(partition);
+    }
+    return getIds(identifiers);
+  }
+
+  private static List<ChangedEntityIdentifier> readPartitionPage(InitialLoadPartition partition) {
+    return recordChangeCwsCmsDao.getPartitionStream(partition, PAGE_SIZE)
+        .map(CwsRecordChange::valueOf).collect(Collectors.toList());
+  }
+
+  private static List<String> getIds(List<ChangedEntityIdentifier> identifiers) {
+    return identifiers.stream().map(ChangedEntityIdentifier::getId).collect(Collectors.toList());
+  }
+
+}
@@ -39,7 +39,8 @@ public class FasDataAccessModule extends AbstractModule {
     public SessionFactory get() {
       return SessionFactoryUtil
           .buildSessionFactory(facilityJobConfiguration.getFasDataSourceFactory(),
-              DataSourceName.FAS.name(), fasEntityClasses);
+              DataSourceName.FAS.name(), fasEntityClasses,
+              facilityJobConfiguration.getConnectionPoolSize());
     }
 
   }
@@ -1,16 +1,21 @@
 package gov.ca.cwds.jobs.cals.facility.lis;
 
+import gov.ca.cwds.jobs.common.JobMode;
 import gov.ca.cwds.jobs.common.batch.JobBatch;
 import gov.ca.cwds.jobs.common.batch.JobBatchIteratorImpl;
 import gov.ca.cwds.jobs.common.batch.PageRequest;
 import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * LIS queries ignore the page offset. The initial load seeks after the last fac_nbr, incremental
+ * and resuming loads always seek after the last (system_datetime_1, fac_nbr) pair, whatever the
+ * keyset pagination setting is: the load start timestamp is read once, so it can't move the pages.
+ */
 public class LisBatchIterator extends JobBatchIteratorImpl {
 
   private static final Logger LOGGER = LoggerFactory
@@ -18,6 +23,11 @@ public class LisBatchIterator extends JobBatchIteratorImpl {
 
   private int lastId = 0;
 
+  /**
+   * Last row of the last page in the (system_datetime_1, fac_nbr) order of the incremental query.
+   */
+  private ChangedEntityIdentifier lastKey;
+
   @Override
   public List<JobBatch> getNextPortion() {
     List<ChangedEntityIdentifier> identifiers = getNextPage();
@@ -33,23 +43,31 @@ public class LisBatchIterator extends JobBatchIteratorImpl {
       LOGGER.info("Next page cut to the batch size. Adjusted list size: {}. Last Id: {}",
           identifiers.size(), lastId);
     }
+    lastKey = identifiers.get(identifiers.size() - 1);
     JobBatch jobBatch = new JobBatch(identifiers, getLastTimestamp(identifiers));
     return Collections.singletonList(jobBatch);
   }
 
   @Override
   protected List<ChangedEntityIdentifier> getNextPage() {
+    if (getJobMode() != JobMode.INITIAL_LOAD && lastKey != null
+        && lastKey.getTimestamp() != null) {
+      return getNextPage(
+          new PageRequest(getBatchSize(), lastKey.getTimestamp(), lastKey.getId()));
+    }
     PageRequest pageRequest = new PageRequest(getOffset(), getBatchSize(), lastId);
     return getNextPage(pageRequest);
   }
 
+  /**
+   * The page keeps the query order, so its last row holds the savepoint of the batch.
+   */
   private static LocalDateTime getLastTimestamp(List<ChangedEntityIdentifier> identifiers) {
     return identifiers.get(identifiers.size() - 1).getTimestamp();
   }
 
   protected static int getLastId(List<ChangedEntityIdentifier> identifiers) {
-    identifiers.sort(Comparator.comparing(ChangedEntityIdentifier::getIntId));
-    return identifiers.get(identifiers.size() - 1).getIntId();
+    return identifiers.stream().mapToInt(ChangedEntityIdentifier::getIntId).max().orElse(0);
   }
 
 }
@@ -49,8 +49,7 @@ public class LisChangedEntitiesIdentifiersService implements ChangedEntitiesIden
   protected List<ChangedEntityIdentifier> getLisIncrementalLoadIdentifiers(
       LocalDateTime timestampAfter, PageRequest pageRequest) {
     ChangedFacilitiesIdentifiers changedEntityIdentifiers = new ChangedFacilitiesIdentifiers();
-    BigInteger dateAfter = new BigInteger(
-        LisRecordChange.lisTimestampFormatter.format(timestampAfter));
+    BigInteger dateAfter = LisRecordChange.toLisTimestamp(timestampAfter);
     recordChangeLisDao.getIncrementalLoadStream(dateAfter, pageRequest).
         map(LisRecordChange::valueOf).forEach(changedEntityIdentifiers::add);
     return changedEntityIdentifiers.newStream().filter(Objects::nonNull)
@@ -12,6 +12,7 @@ import gov.ca.cwds.cals.persistence.dao.lis.LisTableFileDao;
 import gov.ca.cwds.cals.persistence.model.lisfas.LisDoFile;
 import gov.ca.cwds.cals.persistence.model.lisfas.LisFacFile;
 import gov.ca.cwds.cals.persistence.model.lisfas.LisTableFile;
+import gov.ca.cwds.jobs.common.util.ReferenceDataCache;
 import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
 import org.hibernate.SessionFactory;
 
@@ -28,6 +29,15 @@ public class LisDataAccessModule extends AbstractModule {
           LisDoFile.class
       ).build();
 
+  /**
+   * Code tables preloaded when reference data preloading is configured.
+   */
+  public static final ImmutableList<Class<?>> lisReferenceDataClasses =
+      ImmutableList.<Class<?>>of(
+          LisTableFile.class,
+          LisDoFile.class
+      );
+
   @Override
   protected void configure() {
     bind(SessionFactory.class).annotatedWith(LisSessionFactory.class)
@@ -46,9 +56,14 @@ public class LisDataAccessModule extends AbstractModule {
 
     @Override
     public SessionFactory get() {
-      return SessionFactoryUtil
+      SessionFactory sessionFactory = SessionFactoryUtil
           .buildSessionFactory(facilityJobConfiguration.getLisDataSourceFactory(),
-              DataSourceName.LIS.name(), lisEntityClasses);
+              DataSourceName.LIS.name(), lisEntityClasses,
+              facilityJobConfiguration.getConnectionPoolSize());
+      if (facilityJobConfiguration.isPreloadReferenceData()) {
+        ReferenceDataCache.install(sessionFactory, lisReferenceDataClasses);
+      }
+      return sessionFactory;
     }
 
   }
@@ -19,6 +19,9 @@ import gov.ca.cwds.jobs.cals.facility.ChangedFacilityDTO;
 import gov.ca.cwds.jobs.cals.facility.fas.FasDataAccessModule;
 import gov.ca.cwds.jobs.common.api.ChangedEntitiesIdentifiersService;
 import gov.ca.cwds.jobs.common.api.ChangedEntityService;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.api.TotalEntitiesCountProvider;
 import gov.ca.cwds.jobs.common.batch.JobBatchIterator;
 import gov.ca.cwds.jobs.common.config.JobOptions;
 import gov.ca.cwds.jobs.common.exception.JobsException;
@@ -45,6 +48,10 @@ public class LisFacilityJobModule extends BaseFacilityJobModule {
     super.configure();
     bind(ChangedEntitiesIdentifiersService.class)
         .toProvider(LisChangedIdentifiersServiceProvider.class);
+    bind(TotalEntitiesCountProvider.class).toProvider(LisTotalEntitiesCountServiceProvider.class);
+    bind(PartitionedIdentifiersService.class)
+        .toProvider(LisPartitionedIdentifiersServiceProvider.class);
+    bind(StreamingIdentifiersService.class).to(LisStreamingIdentifiersService.class);
     bind(LisFacilityService.class).toProvider(LisFacilityServiceProvider.class);
     bind(FasFacilityService.class).toProvider(FasFacilityServiceProvider.class);
     bind(JobBatchIterator.class).to(LisBatchIterator.class);
@@ -0,0 +1,35 @@
+package gov.ca.cwds.jobs.cals.facility.lis;
+
+import static gov.ca.cwds.cals.Constants.UnitOfWork.LIS;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.api.PartitionedIdentifiersService;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import io.dropwizard.hibernate.UnitOfWork;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the initial load of LIS facilities by fac_nbr ranges.
+ */
+public class LisPartitionedIdentifiersService implements PartitionedIdentifiersService {
+
+  @Inject
+  private RecordChangeLisDao recordChangeLisDao;
+
+  @UnitOfWork(LIS)
+  @Override
+  public List<String> getPartitionBoundaries(int partitionsCount) {
+    return recordChangeLisDao.getPartitionBoundaries(partitionsCount);
+  }
+
+  @UnitOfWork(LIS)
+  @Override
+  public List<ChangedEntityIdentifier> getIdentifiersForInitialLoad(
+      InitialLoadPartition partition, int limit) {
+    return recordChangeLisDao.getPartitionStream(partition, limit)
+        .map(LisRecordChange::valueOf).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,25 @@
+package gov.ca.cwds.jobs.cals.facility.lis;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import gov.ca.cwds.cals.inject.AbstractInjectProvider;
+import io.dropwizard.hibernate.UnitOfWorkAwareProxyFactory;
+
+/**
+ * Wraps the service with the unit of work proxy.
+ */
+public class LisPartitionedIdentifiersServiceProvider extends
+    AbstractInjectProvider<LisPartitionedIdentifiersService> {
+
+  @Inject
+  public LisPartitionedIdentifiersServiceProvider(Injector injector,
+      UnitOfWorkAwareProxyFactory unitOfWorkAwareProxyFactory) {
+    super(injector, unitOfWorkAwareProxyFactory);
+  }
+
+  @Override
+  public Class<LisPartitionedIdentifiersService> getServiceClass() {
+    return LisPartitionedIdentifiersService.class;
+  }
+
+}
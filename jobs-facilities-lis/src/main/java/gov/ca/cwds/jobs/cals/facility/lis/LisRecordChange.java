@@ -26,6 +26,16 @@ import org.hibernate.annotations.NamedNativeQuery;
   query = LisRecordChange.INCREMENTAL_LOAD_SQL,
   resultSetMapping = "LisRecordChangeMapping"
 )
+@NamedNativeQuery(
+  name = LisRecordChange.LIS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME,
+  query = LisRecordChange.INCREMENTAL_LOAD_KEYSET_SQL,
+  resultSetMapping = "LisRecordChangeMapping"
+)
+@NamedNativeQuery(
+  name = LisRecordChange.LIS_INITIAL_LOAD_PARTITION_QUERY_NAME,
+  query = LisRecordChange.INITIAL_LOAD_PARTITION_SQL,
+  resultSetMapping = "LisRecordChangeMapping"
+)
 @SqlResultSetMapping(
   name = "LisRecordChangeMapping",
   entities = {
@@ -41,17 +51,40 @@ import org.hibernate.annotations.NamedNativeQuery;
 @Entity
 public class LisRecordChange implements PersistentObject {
 
+  private static final String FAC_TYPE_CONDITION = "fac_type in (400, 403, 430, 431, 433, 710, "
+      + "711, 720, 721, 722, 726, 728, 729, 730, 731, 732, 733)";
+
   public static final String INITIAL_LOAD_SQL = "select fac_nbr , system_datetime_1 from lis_fac_file "
-      + "where fac_nbr > :facNbr and fac_type in (400, 403, 430, 431, 433, 710, 711, 720, 721, "
-      + "722, 726, 728, 729, 730, 731, 732, 733) order by fac_nbr";
+      + "where fac_nbr > :facNbr and " + FAC_TYPE_CONDITION + " order by fac_nbr";
+
+  public static final String INITIAL_LOAD_PARTITION_SQL = "select fac_nbr , system_datetime_1 "
+      + "from lis_fac_file where fac_nbr > :facNbr and fac_nbr <= :upperFacNbr and "
+      + FAC_TYPE_CONDITION + " order by fac_nbr";
+
+  public static final String INITIAL_LOAD_FAC_NBR_SQL = "select fac_nbr from lis_fac_file "
+      + "where " + FAC_TYPE_CONDITION + " order by fac_nbr";
 
   public static final String INCREMENTAL_LOAD_SQL = "select fac_nbr , system_datetime_1 from lis_fac_file "
-      + "where system_datetime_1 > :dateAfter and fac_type in (400, 403, 430, 431, 433, 710, 711, "
-      + "720, 721, 722, 726, 728, 729, 730, 731, 732, 733) order by system_datetime_1";
+      + "where system_datetime_1 > :dateAfter and " + FAC_TYPE_CONDITION
+      + " order by system_datetime_1, fac_nbr";
+
+  public static final String INCREMENTAL_LOAD_KEYSET_SQL = "select fac_nbr , system_datetime_1 "
+      + "from lis_fac_file where system_datetime_1 > :dateAfter "
+      + "and (system_datetime_1 > :lastTimestamp "
+      + "or (system_datetime_1 = :lastTimestamp and fac_nbr > :lastId)) "
+      + "and " + FAC_TYPE_CONDITION + " order by system_datetime_1, fac_nbr";
+
+  public static final String INITIAL_LOAD_COUNT_SQL = "select count(fac_nbr) from lis_fac_file "
+      + "where " + FAC_TYPE_CONDITION;
+
+  public static final String INCREMENTAL_LOAD_COUNT_SQL = "select count(fac_nbr) from lis_fac_file "
+      + "where system_datetime_1 > :dateAfter and " + FAC_TYPE_CONDITION;
 
 
   public static final String LIS_INITIAL_LOAD_QUERY_NAME = "RecordChange.lisInitialLoadQuery";
   public static final String LIS_INCREMENTAL_LOAD_QUERY_NAME = "RecordChange.lisIncrementalLoadQuery";
+  public static final String LIS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME = "RecordChange.lisIncrementalLoadKeysetQuery";
+  public static final String LIS_INITIAL_LOAD_PARTITION_QUERY_NAME = "RecordChange.lisInitialLoadPartitionQuery";
 
   public static final DateTimeFormatter lisTimestampFormatter = DateTimeFormatter
       .ofPattern("yyyyMMddHHmmss");
@@ -90,6 +123,10 @@ public class LisRecordChange implements PersistentObject {
         RecordChangeOperation.U, timestamp);
   }
 
+  public static BigInteger toLisTimestamp(LocalDateTime timestamp) {
+    return new BigInteger(lisTimestampFormatter.format(timestamp));
+  }
+
   public String getId() {
     return id;
   }
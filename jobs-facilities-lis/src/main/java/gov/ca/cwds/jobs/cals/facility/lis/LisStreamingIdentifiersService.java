@@ -0,0 +1,36 @@
+package gov.ca.cwds.jobs.cals.facility.lis;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.api.StreamingIdentifiersService;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import java.time.LocalDateTime;
+
+/**
+ * Streams facility numbers through one cursor per load. Resuming initial load reads facilities
+ * changed after the savepoint, the same way {@link LisChangedEntitiesIdentifiersService} does.
+ */
+public class LisStreamingIdentifiersService implements StreamingIdentifiersService {
+
+  @Inject
+  private RecordChangeLisDao recordChangeLisDao;
+
+  @Override
+  public IdentifiersCursor openInitialLoadCursor(int fetchSize) {
+    return recordChangeLisDao.openInitialLoadCursor(fetchSize);
+  }
+
+  @Override
+  public IdentifiersCursor openResumingInitialLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return openIncrementalLoadCursor(timestamp, startAfter, fetchSize);
+  }
+
+  @Override
+  public IdentifiersCursor openIncrementalLoadCursor(LocalDateTime timestamp,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return recordChangeLisDao.openIncrementalLoadCursor(LisRecordChange.toLisTimestamp(timestamp),
+        startAfter, fetchSize);
+  }
+
+}
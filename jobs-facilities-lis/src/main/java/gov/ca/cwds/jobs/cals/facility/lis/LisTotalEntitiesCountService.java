@@ -0,0 +1,44 @@
+package gov.ca.cwds.jobs.cals.facility.lis;
+
+import static gov.ca.cwds.cals.Constants.UnitOfWork.LIS;
+
+import com.google.inject.Inject;
+import gov.ca.cwds.jobs.common.api.TotalEntitiesCountProvider;
+import gov.ca.cwds.jobs.common.job.TotalCountInformation;
+import io.dropwizard.hibernate.UnitOfWork;
+import java.time.LocalDateTime;
+
+/**
+ * Counts lis_fac_file rows with the same conditions as identifiers queries use. LIS changes are
+ * always indexed as updates.
+ */
+public class LisTotalEntitiesCountService implements TotalEntitiesCountProvider {
+
+  @Inject
+  private RecordChangeLisDao recordChangeLisDao;
+
+  @UnitOfWork(LIS)
+  @Override
+  public TotalCountInformation getTotalsForInitialLoad() {
+    return toBeUpdated(recordChangeLisDao.countInitialLoad());
+  }
+
+  @Override
+  public TotalCountInformation getTotalsForResumingInitialLoad(LocalDateTime timestamp) {
+    return getTotalsForIncrementalLoad(timestamp);
+  }
+
+  @UnitOfWork(LIS)
+  @Override
+  public TotalCountInformation getTotalsForIncrementalLoad(LocalDateTime timestamp) {
+    return toBeUpdated(
+        recordChangeLisDao.countIncrementalLoad(LisRecordChange.toLisTimestamp(timestamp)));
+  }
+
+  private static TotalCountInformation toBeUpdated(long count) {
+    TotalCountInformation totalCountInformation = new TotalCountInformation();
+    totalCountInformation.setTotalToBeUpdated(count);
+    return totalCountInformation;
+  }
+
+}
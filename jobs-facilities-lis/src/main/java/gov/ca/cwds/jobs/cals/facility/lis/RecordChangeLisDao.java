@@ -1,14 +1,22 @@
 package gov.ca.cwds.jobs.cals.facility.lis;
 
+import static gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange.LIS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME;
 import static gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange.LIS_INCREMENTAL_LOAD_QUERY_NAME;
+import static gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange.LIS_INITIAL_LOAD_PARTITION_QUERY_NAME;
 import static gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange.LIS_INITIAL_LOAD_QUERY_NAME;
 
 import com.google.inject.Inject;
 import gov.ca.cwds.cals.inject.LisSessionFactory;
 import gov.ca.cwds.data.BaseDaoImpl;
 import gov.ca.cwds.data.stream.QueryCreator;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
 import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.identifier.IdentifiersCursor;
+import gov.ca.cwds.jobs.common.identifier.ScrollableIdentifiersCursor;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.hibernate.Session;
@@ -20,9 +28,12 @@ import org.hibernate.query.Query;
  */
 public class RecordChangeLisDao extends BaseDaoImpl<LisRecordChange> {
 
+  private final SessionFactory sessionFactory;
+
   @Inject
   public RecordChangeLisDao(@LisSessionFactory SessionFactory sessionFactory) {
     super(sessionFactory);
+    this.sessionFactory = sessionFactory;
   }
 
   public Stream<LisRecordChange> getInitialLoadStream(
@@ -33,14 +44,115 @@ public class RecordChangeLisDao extends BaseDaoImpl<LisRecordChange> {
     return new LisRecordChangesStreamer(this, queryCreator).createStream();
   }
 
+  /**
+   * The last partition has no upper bound, so it is read by the initial load query.
+   */
+  public Stream<LisRecordChange> getPartitionStream(InitialLoadPartition partition, int limit) {
+    PageRequest pageRequest = new PageRequest(0, limit);
+    int facNbr = partition.getStartAfter() != null
+        ? Integer.parseInt(partition.getStartAfter()) : 0;
+    QueryCreator<LisRecordChange> queryCreator;
+    if (partition.getTo() != null) {
+      queryCreator = buildNativeQueryCreator(LIS_INITIAL_LOAD_PARTITION_QUERY_NAME, pageRequest,
+          query -> query.setParameter("facNbr", facNbr)
+              .setParameter("upperFacNbr", Integer.valueOf(partition.getTo())));
+    } else {
+      queryCreator = buildNativeQueryCreator(LIS_INITIAL_LOAD_QUERY_NAME, pageRequest,
+          query -> query.setParameter("facNbr", facNbr));
+    }
+    return new LisRecordChangesStreamer(this, queryCreator).createStream();
+  }
+
+  /**
+   * Every boundary is the fac_nbr found at the partition end position in the fac_nbr order, so
+   * partitions get similar numbers of facilities however sparse the fac_nbr range is.
+   *
+   * @return ascending distinct inclusive upper bounds of partitions but the last one
+   */
+  public List<String> getPartitionBoundaries(int partitionsCount) {
+    long count = countInitialLoad();
+    List<String> boundaries = new ArrayList<>();
+    for (int i = 1; i < partitionsCount; i++) {
+      long position = count * i / partitionsCount - 1;
+      if (position < 0) {
+        continue;
+      }
+      Object facNbr = currentSession().createNativeQuery(LisRecordChange.INITIAL_LOAD_FAC_NBR_SQL)
+          .setFirstResult((int) position)
+          .setMaxResults(1)
+          .setReadOnly(true)
+          .uniqueResult();
+      if (facNbr != null && !boundaries.contains(String.valueOf(facNbr))) {
+        boundaries.add(String.valueOf(facNbr));
+      }
+    }
+    return boundaries;
+  }
+
   public Stream<LisRecordChange> getIncrementalLoadStream(final BigInteger dateAfter,
       PageRequest pageRequest) {
+    if (pageRequest.isKeysetPage()) {
+      QueryCreator<LisRecordChange> queryCreator = buildNativeQueryCreator(
+          LIS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME, pageRequest,
+          query -> query.setParameter("dateAfter", dateAfter)
+              .setParameter("lastTimestamp",
+                  LisRecordChange.toLisTimestamp(pageRequest.getLastTimestamp()))
+              .setParameter("lastId", Integer.valueOf(pageRequest.getLastIdentifier())));
+      return new LisRecordChangesStreamer(this, queryCreator).createStream();
+    }
     QueryCreator<LisRecordChange> queryCreator = buildNativeQueryCreator(
         LIS_INCREMENTAL_LOAD_QUERY_NAME,
         pageRequest, query -> query.setParameter("dateAfter", dateAfter));
     return new LisRecordChangesStreamer(this, queryCreator).createStream();
   }
 
+  /**
+   * Opens a cursor over all facilities in fac_nbr order in its own session, it is not bound to the
+   * current unit of work.
+   */
+  public IdentifiersCursor openInitialLoadCursor(int fetchSize) {
+    return ScrollableIdentifiersCursor.open(sessionFactory,
+        session -> session.createNamedQuery(LIS_INITIAL_LOAD_QUERY_NAME, LisRecordChange.class)
+            .setParameter("facNbr", 0),
+        fetchSize, LisRecordChange::valueOf);
+  }
+
+  /**
+   * Opens a cursor over facilities changed after the date in its own session, it is not bound to
+   * the current unit of work.
+   *
+   * @param startAfter identifier the cursor starts right after, null to start from dateAfter
+   */
+  public IdentifiersCursor openIncrementalLoadCursor(final BigInteger dateAfter,
+      ChangedEntityIdentifier startAfter, int fetchSize) {
+    return ScrollableIdentifiersCursor.open(sessionFactory, session -> {
+      if (startAfter != null) {
+        return session
+            .createNamedQuery(LIS_INCREMENTAL_LOAD_KEYSET_QUERY_NAME, LisRecordChange.class)
+            .setParameter("dateAfter", dateAfter)
+            .setParameter("lastTimestamp",
+                LisRecordChange.toLisTimestamp(startAfter.getTimestamp()))
+            .setParameter("lastId", Integer.valueOf(startAfter.getId()));
+      }
+      return session.createNamedQuery(LIS_INCREMENTAL_LOAD_QUERY_NAME, LisRecordChange.class)
+          .setParameter("dateAfter", dateAfter);
+    }, fetchSize, LisRecordChange::valueOf);
+  }
+
+  public long countInitialLoad() {
+    return ((Number) currentSession().createNativeQuery(LisRecordChange.INITIAL_LOAD_COUNT_SQL)
+        .setReadOnly(true)
+        .uniqueResult()).longValue();
+  }
+
+  public long countIncrementalLoad(final BigInteger dateAfter) {
+    return ((Number) currentSession()
+        .createNativeQuery(LisRecordChange.INCREMENTAL_LOAD_COUNT_SQL)
+        .setParameter("dateAfter", dateAfter)
+        .setReadOnly(true)
+        .uniqueResult()).longValue();
+  }
+
   private QueryCreator<LisRecordChange> buildNativeQueryCreator(String nativeQuery,
       PageRequest pageRequest,
       Consumer<Query<LisRecordChange>> parametersSetter) {
@@ -0,0 +1,124 @@
+package gov.ca.cwds.jobs.cals.facility;
+
+import static gov.ca.cwds.test.support.DatabaseHelper.setUpDatabase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.inject.Guice;
+import gov.ca.cwds.DataSourceName;
+import gov.ca.cwds.jobs.cals.facility.lis.LisBatchIterator;
+import gov.ca.cwds.jobs.cals.facility.lis.LisChangedEntitiesIdentifiersService;
+import gov.ca.cwds.jobs.cals.facility.lis.LisDataAccessModule;
+import gov.ca.cwds.jobs.cals.facility.lis.LisFacilityJobConfiguration;
+import gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange;
+import gov.ca.cwds.jobs.cals.facility.lis.RecordChangeLisDao;
+import gov.ca.cwds.jobs.common.JobMode;
+import gov.ca.cwds.jobs.common.batch.JobBatch;
+import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.job.timestamp.TimestampOperator;
+import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import liquibase.exception.LiquibaseException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs the LIS incremental page loop against the H2 fixtures until it reaches an empty page.
+ */
+public class LisBatchIteratorTest {
+
+  private static final int BATCH_SIZE = 10;
+
+  private static final LocalDateTime DATE_AFTER = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+  private static SessionFactory sessionFactory;
+
+  private static RecordChangeLisDao recordChangeLisDao;
+
+  private Session session;
+
+  @BeforeClass
+  public static void setUpClass() throws LiquibaseException {
+    LisFacilityJobConfiguration configuration = LisFacilityJobTest.getFacilityJobConfiguration();
+    setUpDatabase(configuration.getLisDataSourceFactory(), DataSourceName.LIS);
+    sessionFactory = SessionFactoryUtil.buildSessionFactory(
+        configuration.getLisDataSourceFactory(), DataSourceName.LIS.name(),
+        LisDataAccessModule.lisEntityClasses);
+    recordChangeLisDao = new RecordChangeLisDao(sessionFactory);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    sessionFactory.close();
+  }
+
+  @Before
+  public void openSession() {
+    session = sessionFactory.openSession();
+    ManagedSessionContext.bind(session);
+    session.beginTransaction();
+  }
+
+  @After
+  public void closeSession() {
+    session.getTransaction().rollback();
+    ManagedSessionContext.unbind(sessionFactory);
+    session.close();
+  }
+
+  @Test
+  public void incrementalLoadReadsEveryChangeOnceAndStops() {
+    List<ChangedEntityIdentifier> expected = recordChangeLisDao
+        .getIncrementalLoadStream(LisRecordChange.toLisTimestamp(DATE_AFTER),
+            new PageRequest(0, Integer.MAX_VALUE))
+        .map(LisRecordChange::valueOf).collect(Collectors.toList());
+    assertTrue(expected.size() > BATCH_SIZE);
+
+    LisBatchIterator batchIterator = createBatchIterator(JobMode.INCREMENTAL_LOAD);
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<JobBatch> portion = batchIterator.getNextPortion();
+    while (!portion.isEmpty()) {
+      assertTrue("Incremental load must not read more than all changes",
+          identifiers.size() < expected.size());
+      for (JobBatch jobBatch : portion) {
+        List<ChangedEntityIdentifier> batch = jobBatch.getChangedEntityIdentifiers();
+        assertFalse(batch.isEmpty());
+        assertEquals(batch.get(batch.size() - 1).getTimestamp(), jobBatch.getTimestamp());
+        identifiers.addAll(batch);
+      }
+      portion = batchIterator.getNextPortion();
+    }
+    assertEquals(getIds(expected), getIds(identifiers));
+  }
+
+  private static LisBatchIterator createBatchIterator(JobMode jobMode) {
+    TimestampOperator timestampOperator = mock(TimestampOperator.class);
+    when(timestampOperator.readTimestamp()).thenReturn(DATE_AFTER);
+    LisBatchIterator batchIterator = new LisBatchIterator();
+    batchIterator.setBatchSize(BATCH_SIZE);
+    batchIterator.setTimestampOperator(timestampOperator);
+    batchIterator.setChangedEntitiesIdentifiersService(Guice.createInjector(
+        binder -> binder.bind(RecordChangeLisDao.class).toInstance(recordChangeLisDao))
+        .getInstance(LisChangedEntitiesIdentifiersService.class));
+    batchIterator.setJobMode(jobMode);
+    return batchIterator;
+  }
+
+  private static List<String> getIds(List<ChangedEntityIdentifier> identifiers) {
+    return identifiers.stream().map(ChangedEntityIdentifier::getId).collect(Collectors.toList());
+  }
+
+}
@@ -71,7 +71,7 @@ public class LisFacilityJobTest {
     lisDatabaseHelper.runScript("liquibase/lis_facility_incremental_load.xml", parameters, "lis");
   }
 
-  private static LisFacilityJobConfiguration getFacilityJobConfiguration() {
+  static LisFacilityJobConfiguration getFacilityJobConfiguration() {
     LisFacilityJobConfiguration facilityJobConfiguration =
         BaseFacilityJobConfiguration
             .getJobsConfiguration(LisFacilityJobConfiguration.class, getConfigFilePath());
@@ -0,0 +1,162 @@
+package gov.ca.cwds.jobs.cals.facility;
+
+import static gov.ca.cwds.test.support.DatabaseHelper.setUpDatabase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import gov.ca.cwds.DataSourceName;
+import gov.ca.cwds.jobs.cals.facility.lis.LisDataAccessModule;
+import gov.ca.cwds.jobs.cals.facility.lis.LisFacilityJobConfiguration;
+import gov.ca.cwds.jobs.cals.facility.lis.LisRecordChange;
+import gov.ca.cwds.jobs.cals.facility.lis.RecordChangeLisDao;
+import gov.ca.cwds.jobs.common.batch.InitialLoadPartition;
+import gov.ca.cwds.jobs.common.batch.PageRequest;
+import gov.ca.cwds.jobs.common.identifier.ChangedEntityIdentifier;
+import gov.ca.cwds.jobs.common.util.SessionFactoryUtil;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import liquibase.exception.LiquibaseException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs the identifiers queries of the LIS job against the H2 fixtures.
+ */
+public class RecordChangeLisDaoTest {
+
+  private static final int PAGE_SIZE = 10;
+
+  private static final int PARTITIONS_COUNT = 3;
+
+  private static SessionFactory sessionFactory;
+
+  private static RecordChangeLisDao recordChangeLisDao;
+
+  private Session session;
+
+  @BeforeClass
+  public static void setUpClass() throws LiquibaseException {
+    LisFacilityJobConfiguration configuration = LisFacilityJobTest.getFacilityJobConfiguration();
+    setUpDatabase(configuration.getLisDataSourceFactory(), DataSourceName.LIS);
+    sessionFactory = SessionFactoryUtil.buildSessionFactory(
+        configuration.getLisDataSourceFactory(), DataSourceName.LIS.name(),
+        LisDataAccessModule.lisEntityClasses);
+    recordChangeLisDao = new RecordChangeLisDao(sessionFactory);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    sessionFactory.close();
+  }
+
+  @Before
+  public void openSession() {
+    session = sessionFactory.openSession();
+    ManagedSessionContext.bind(session);
+    session.beginTransaction();
+  }
+
+  @After
+  public void closeSession() {
+    session.getTransaction().rollback();
+    ManagedSessionContext.unbind(sessionFactory);
+    session.close();
+  }
+
+  @Test
+  public void initialLoadPagesSeekAfterLastFacNbr() {
+    assertEquals(recordChangeLisDao.countInitialLoad(), readInitialLoadPages().size());
+  }
+
+  /**
+   * The first page and the keyset pages after it are read in the same (timestamp, fac_nbr) order.
+   */
+  @Test
+  public void incrementalLoadKeysetPagesReadAllChanges() {
+    List<ChangedEntityIdentifier> expected = readPage(recordChangeLisDao
+        .getIncrementalLoadStream(BigInteger.ZERO, new PageRequest(0, Integer.MAX_VALUE)));
+    assertFalse(expected.isEmpty());
+
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPage(recordChangeLisDao
+        .getIncrementalLoadStream(BigInteger.ZERO, new PageRequest(0, PAGE_SIZE)));
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      ChangedEntityIdentifier last = page.get(page.size() - 1);
+      page = readPage(recordChangeLisDao.getIncrementalLoadStream(BigInteger.ZERO,
+          new PageRequest(PAGE_SIZE, last.getTimestamp(), last.getId())));
+    }
+    assertEquals(getIds(expected), getIds(identifiers));
+  }
+
+  @Test
+  public void partitionBoundariesAreAscendingAndDistinct() {
+    List<Integer> boundaries = recordChangeLisDao.getPartitionBoundaries(PARTITIONS_COUNT)
+        .stream().map(Integer::valueOf).collect(Collectors.toList());
+    assertEquals(PARTITIONS_COUNT - 1, boundaries.size());
+    assertEquals(new ArrayList<>(new TreeSet<>(boundaries)), boundaries);
+  }
+
+  /**
+   * Partitions are paged the way the partitioner does: every page starts after the savepoint
+   * moved to the last row of the previous page.
+   */
+  @Test
+  public void partitionsReadEveryIdentifierOnce() {
+    List<String> expected = getIds(readInitialLoadPages());
+    assertFalse(expected.isEmpty());
+    List<String> partitioned = new ArrayList<>();
+    int number = 1;
+    String from = null;
+    for (String boundary : recordChangeLisDao.getPartitionBoundaries(PARTITIONS_COUNT)) {
+      partitioned.addAll(readPartition(new InitialLoadPartition(number++, from, boundary)));
+      from = boundary;
+    }
+    partitioned.addAll(readPartition(new InitialLoadPartition(number, from, null)));
+    assertEquals(expected.size(), partitioned.size());
+    assertEquals(new TreeSet<>(expected), new TreeSet<>(partitioned));
+  }
+
+  private static List<ChangedEntityIdentifier> readInitialLoadPages() {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPage(
+        recordChangeLisDao.getInitialLoadStream(new PageRequest(0, PAGE_SIZE, 0)));
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      page = readPage(recordChangeLisDao.getInitialLoadStream(new PageRequest(identifiers.size(),
+          PAGE_SIZE, page.get(page.size() - 1).getIntId())));
+    }
+    return identifiers;
+  }
+
+  private static List<ChangedEntityIdentifier> readPage(Stream<LisRecordChange> page) {
+    return page.map(LisRecordChange::valueOf).collect(Collectors.toList());
+  }
+
+  private static List<String> readPartition(InitialLoadPartition partition) {
+    List<ChangedEntityIdentifier> identifiers = new ArrayList<>();
+    List<ChangedEntityIdentifier> page = readPage(
+        recordChangeLisDao.getPartitionStream(partition, PAGE_SIZE));
+    while (!page.isEmpty()) {
+      identifiers.addAll(page);
+      partition.setLastIdentifier(page.get(page.size() - 1).getId());
+      page = readPage(recordChangeLisDao.getPartitionStream(partition, PAGE_SIZE));
+    }
+    return getIds(identifiers);
+  }
+
+  private static List<String> getIds(List<ChangedEntityIdentifier> identifiers) {
+    return identifiers.stream().map(ChangedEntityIdentifier::getId).collect(Collectors.toList());
+  }
+
+}